@@ -0,0 +1,254 @@
+package com.vedantatree.redmineconnector;
+
+import java.io.FilterInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+
+import org.apache.commons.logging.Log;
+import org.apache.commons.logging.LogFactory;
+
+import com.vedantatree.redmineconnector.utils.Utilities;
+
+
+/**
+ * It computes the page size for next page of a DefaultDataPaginator from the size and response time of pages fetched
+ * so far. Goal is to keep every page near the target response size in bytes and/or target response time, so that pages
+ * of big records, like issues with long descriptions or journals, do not become slow and heavy on memory, and small
+ * records are not fetched in too many round trips.
+ *
+ * <p>
+ * Bytes and time per record are averaged over recent pages, and page size is set to what the targets allow with these
+ * averages. Page size can shrink at once, but grows at most to double in one step. It always remains between min and
+ * max page size. Max page size is lowered to the limit applied by server, if server applies a lower limit than
+ * requested.
+ *
+ * <p>
+ * It is not thread safe. One sizer is used by one paginator.
+ *
+ * @author Mohit Gupta [mohit.gupta@vedantatree.com]
+ * @since 1.2.0
+ */
+class AdaptivePageSizer
+{
+
+	private static Log		LOGGER				= LogFactory.getLog( AdaptivePageSizer.class );
+
+	/**
+	 * Weight of latest page in the average bytes and time per record
+	 */
+	private static double	LATEST_PAGE_WEIGHT	= 0.5;
+
+	/**
+	 * Page size grows at most by this factor in one step
+	 */
+	private static int		MAX_GROWTH_FACTOR	= 2;
+
+	private int				minPageSize;
+	private int				maxPageSize;
+
+	/**
+	 * Target size of response of one page in bytes, zero if not applied
+	 */
+	private long			targetPageBytes;
+
+	/**
+	 * Target response time of one page in nanoseconds, zero if not applied
+	 */
+	private long			targetPageLatency;
+
+	private int				pageSize;
+
+	/**
+	 * Average bytes and response time in nanoseconds per record, zero till first page
+	 */
+	private double			bytesPerRecord;
+	private double			latencyPerRecord;
+
+	/**
+	 * @param initialPageSize Page size for first page
+	 * @param minPageSize Smallest page size to use
+	 * @param maxPageSize Biggest page size to use, not more than the maximum supported by Redmine
+	 * @param targetPageBytes Target size of response of one page in bytes, zero to not apply it
+	 * @param targetPageLatencyMillis Target response time of one page in milliseconds, zero to not apply it
+	 */
+	AdaptivePageSizer( int initialPageSize, int minPageSize, int maxPageSize, long targetPageBytes,
+			long targetPageLatencyMillis )
+	{
+		if( minPageSize < 1 || maxPageSize < minPageSize || maxPageSize > RedmineDataPaginator.REDMINE_MAX_PAGE_SIZE )
+		{
+			throw new RCRuntimeException( RCRuntimeException.ILLEGAL_ARGUMENT,
+					"Page size limits must be 1 <= minPageSize <= maxPageSize <= "
+							+ RedmineDataPaginator.REDMINE_MAX_PAGE_SIZE + ". minPageSize[" + minPageSize
+							+ "] maxPageSize[" + maxPageSize + "]" );
+		}
+		if( targetPageBytes < 0 || targetPageLatencyMillis < 0
+				|| ( targetPageBytes == 0 && targetPageLatencyMillis == 0 ) )
+		{
+			throw new RCRuntimeException( RCRuntimeException.ILLEGAL_ARGUMENT,
+					"At least one of target page bytes and target page latency must be specified, and none can be negative. targetPageBytes["
+							+ targetPageBytes + "] targetPageLatencyMillis[" + targetPageLatencyMillis + "]" );
+		}
+		this.minPageSize = minPageSize;
+		this.maxPageSize = maxPageSize;
+		this.targetPageBytes = targetPageBytes;
+		this.targetPageLatency = targetPageLatencyMillis * 1000000L;
+		this.pageSize = Math.max( minPageSize, Math.min( maxPageSize, initialPageSize ) );
+	}
+
+	/**
+	 * @return Page size for next page
+	 */
+	int getPageSize()
+	{
+		return pageSize;
+	}
+
+	/**
+	 * It records the measurements of a page and computes the page size for next page.
+	 *
+	 * @param serverLimit Page size applied by server for the page, zero if not known
+	 * @param recordCount Number of records in the page
+	 * @param byteCount Size of response of the page in bytes
+	 * @param latencyNanos Response time of the page in nanoseconds
+	 * @return Page size for next page
+	 */
+	int recordPage( int serverLimit, int recordCount, long byteCount, long latencyNanos )
+	{
+		if( serverLimit > 0 && serverLimit < maxPageSize )
+		{
+			LOGGER.debug( "server applies a lower page size than requested. serverLimit[" + serverLimit
+					+ "] maxPageSize[" + maxPageSize + "]" );
+			maxPageSize = Math.max( minPageSize, serverLimit );
+		}
+		// empty page tells nothing about the size of records
+		if( recordCount <= 0 )
+		{
+			return pageSize;
+		}
+
+		bytesPerRecord = average( bytesPerRecord, (double) byteCount / recordCount );
+		latencyPerRecord = average( latencyPerRecord, (double) latencyNanos / recordCount );
+
+		double nextPageSize = maxPageSize;
+		if( targetPageBytes > 0 && bytesPerRecord > 0 )
+		{
+			nextPageSize = Math.min( nextPageSize, targetPageBytes / bytesPerRecord );
+		}
+		if( targetPageLatency > 0 && latencyPerRecord > 0 )
+		{
+			nextPageSize = Math.min( nextPageSize, targetPageLatency / latencyPerRecord );
+		}
+		nextPageSize = Math.min( nextPageSize, (double) pageSize * MAX_GROWTH_FACTOR );
+		pageSize = Math.max( minPageSize, Math.min( maxPageSize, (int) nextPageSize ) );
+
+		if( LOGGER.isDebugEnabled() )
+		{
+			LOGGER.debug( "recordPage: recordCount[" + recordCount + "] byteCount[" + byteCount + "] latencyMillis["
+					+ ( latencyNanos / 1000000 ) + "] nextPageSize[" + pageSize + "]" );
+		}
+		return pageSize;
+	}
+
+	private static double average( double average, double latest )
+	{
+		return average == 0 ? latest : average + LATEST_PAGE_WEIGHT * ( latest - average );
+	}
+
+	public String toString()
+	{
+		return "AdaptivePageSizer@" + hashCode() + ": pageSize[" + pageSize + "] minPageSize[" + minPageSize
+				+ "] maxPageSize[" + maxPageSize + "] targetPageBytes[" + targetPageBytes + "] targetPageLatency["
+				+ targetPageLatency + "] bytesPerRecord[" + (long) bytesPerRecord + "] latencyPerRecord["
+				+ (long) latencyPerRecord + "]";
+	}
+
+	/**
+	 * Response handler which measures a page, and passes the response stream to another handler. It counts the bytes
+	 * read from response stream. Response time is the time taken by request as told by transport, plus the time to read
+	 * the response. Waits for limiters and for retries are not included, as these do not depend on page size.
+	 */
+	static class PageMeasuringResponseHandler implements TimedResponseHandler
+	{
+
+		private ResponseHandler	responseHandler;
+		private long			byteCount;
+		private long			requestTime;
+		private long			readTime;
+
+		PageMeasuringResponseHandler( ResponseHandler responseHandler )
+		{
+			Utilities.assertNotNullArgument( responseHandler, "responseHandler" );
+			this.responseHandler = responseHandler;
+		}
+
+		public void setRequestTime( long requestTime )
+		{
+			this.requestTime = requestTime;
+		}
+
+		public Object handleResponse( InputStream responseStream, String characterSet ) throws RCException
+		{
+			byteCount = 0;
+			long startTime = System.nanoTime();
+			try
+			{
+				return readResponse( responseStream, characterSet );
+			}
+			finally
+			{
+				readTime = System.nanoTime() - startTime;
+			}
+		}
+
+		private Object readResponse( InputStream responseStream, String characterSet ) throws RCException
+		{
+			return responseHandler.handleResponse( new FilterInputStream( responseStream )
+			{
+
+				public int read() throws IOException
+				{
+					int value = super.read();
+					if( value >= 0 )
+					{
+						byteCount++;
+					}
+					return value;
+				}
+
+				public int read( byte[] buffer, int offset, int length ) throws IOException
+				{
+					int count = super.read( buffer, offset, length );
+					if( count > 0 )
+					{
+						byteCount += count;
+					}
+					return count;
+				}
+
+				public long skip( long count ) throws IOException
+				{
+					long skipped = super.skip( count );
+					byteCount += skipped;
+					return skipped;
+				}
+			}, characterSet );
+		}
+
+		/**
+		 * @return Number of bytes read by handler from last response
+		 */
+		long getByteCount()
+		{
+			return byteCount;
+		}
+
+		/**
+		 * @return Response time of last response in nanoseconds, from sending the request till the response is read
+		 */
+		long getLatency()
+		{
+			return requestTime + readTime;
+		}
+	}
+
+}
@@ -0,0 +1,731 @@
+package com.vedantatree.redmineconnector;
+
+import java.lang.reflect.Method;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CompletionService;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorCompletionService;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.apache.commons.logging.Log;
+import org.apache.commons.logging.LogFactory;
+
+import com.vedantatree.redmineconnector.bdo.Issue;
+import com.vedantatree.redmineconnector.bdo.Project;
+import com.vedantatree.redmineconnector.bdo.RedmineBDO;
+import com.vedantatree.redmineconnector.bdo.User;
+import com.vedantatree.redmineconnector.utils.Utilities;
+
+
+/**
+ * AsyncRedmineConnector provides the non blocking version of RedmineConnector operations. Every method submits the
+ * corresponding RedmineConnector call to an executor and returns a Future immediately. Caller can keep many requests
+ * in flight and collect the results later.
+ *
+ * <p>
+ * Executor is pluggable. If no executor is specified, a default one is created. On Java 21 and later, default executor
+ * runs every call on a new virtual thread, so that hundreds of blocked Redmine calls do not need hundreds of platform
+ * threads. On earlier Java versions, it falls back to a fixed pool of daemon threads.
+ *
+ * <p>
+ * If operation fails, Future.get() throws ExecutionException with the RCException from RedmineConnector as its cause.
+ *
+ * <p>
+ * For saving a large number of issues, like in migration, 'createIssues' and 'updateIssues' run the requests on the
+ * executor keeping a limited number of requests in flight, and wait for all of these to finish. These do not stop at
+ * first failure, a result is returned for every issue instead.
+ *
+ * <p>
+ * For fetching many issues by their ids, 'getIssuesByIds' requests the issues in chunks using the list API with
+ * 'issue_id' filter, and runs the chunks on the executor. So a few requests fetch hundreds of issues.
+ *
+ * @author Mohit Gupta [mohit.gupta@vedantatree.com]
+ * @since 1.2.0
+ */
+public class AsyncRedmineConnector
+{
+
+	private static Log			LOGGER						= LogFactory.getLog( AsyncRedmineConnector.class );
+
+	/**
+	 * Number of threads in default executor, if virtual threads are not available with current Java version
+	 */
+	static int					DEFAULT_POOL_SIZE			= 10;
+
+	/**
+	 * Default maximum number of requests in flight for bulk operations. It is same as default number of pooled
+	 * connections per host, as more requests would only wait for a connection.
+	 */
+	static int					DEFAULT_BULK_IN_FLIGHT		= 10;
+
+	/**
+	 * Maximum number of characters of ids in URL of one chunk of 'getIssuesByIds'. It keeps the URL well within the
+	 * length accepted by servers and proxies, generally 2000 or more.
+	 */
+	static int					MAX_ISSUE_IDS_LENGTH		= 1200;
+
+	private static String		FILTER_ISSUE_ID				= "issue_id";
+	private static String		FILTER_STATUS_ID			= "status_id";
+
+	/**
+	 * Length of encoded ',' separating the ids in URL, i.e. '%2C'
+	 */
+	private static int			ENCODED_SEPARATOR_LENGTH	= 3;
+
+	/**
+	 * RedmineConnector which actually performs the operations
+	 */
+	private RedmineConnector	redmineConnector;
+
+	/**
+	 * Executor which runs the blocking RedmineConnector calls
+	 */
+	private ExecutorService		executorService;
+
+	/**
+	 * Whether executor was created by this object. Only such executor is shut down with this object.
+	 */
+	private boolean				ownExecutorService;
+
+	/**
+	 * Creates the AsyncRedmineConnector with default executor
+	 *
+	 * @param redmineConnector RedmineConnector to perform the operations
+	 */
+	public AsyncRedmineConnector( RedmineConnector redmineConnector )
+	{
+		this( redmineConnector, newDefaultExecutorService( "redmine-async" ), true );
+	}
+
+	/**
+	 * Creates the AsyncRedmineConnector with specified executor. Executor is not shut down by this object, as it is
+	 * owned by caller.
+	 *
+	 * @param redmineConnector RedmineConnector to perform the operations
+	 * @param executorService Executor to run the operations
+	 */
+	public AsyncRedmineConnector( RedmineConnector redmineConnector, ExecutorService executorService )
+	{
+		this( redmineConnector, executorService, false );
+	}
+
+	private AsyncRedmineConnector( RedmineConnector redmineConnector, ExecutorService executorService,
+			boolean ownExecutorService )
+	{
+		Utilities.assertNotNullArgument( redmineConnector, "redmineConnector" );
+		Utilities.assertNotNullArgument( executorService, "executorService" );
+
+		this.redmineConnector = redmineConnector;
+		this.executorService = executorService;
+		this.ownExecutorService = ownExecutorService;
+	}
+
+	/**
+	 * It creates the default executor used for asynchronous Redmine calls. It returns virtual thread per task executor
+	 * if Java version supports it, otherwise a fixed pool of daemon threads.
+	 *
+	 * @param threadNamePrefix Prefix for names of pool threads
+	 * @return New ExecutorService
+	 */
+	static ExecutorService newDefaultExecutorService( String threadNamePrefix )
+	{
+		try
+		{
+			// looked up by reflection to keep the code compatible with older Java versions
+			Method factoryMethod = Executors.class.getMethod( "newVirtualThreadPerTaskExecutor" );
+			return (ExecutorService) factoryMethod.invoke( null );
+		}
+		catch( NoSuchMethodException e )
+		{
+			LOGGER.debug( "Virtual threads are not available, using fixed thread pool. poolSize[" + DEFAULT_POOL_SIZE
+					+ "]" );
+		}
+		catch( Exception e )
+		{
+			LOGGER.warn( "Problem while creating virtual thread executor, using fixed thread pool", e );
+		}
+
+		return Executors.newFixedThreadPool( DEFAULT_POOL_SIZE, newDaemonThreadFactory( threadNamePrefix ) );
+	}
+
+	/**
+	 * @param threadNamePrefix Prefix for names of threads
+	 * @return ThreadFactory which creates daemon threads, so that pools do not stop JVM from exiting
+	 */
+	static ThreadFactory newDaemonThreadFactory( final String threadNamePrefix )
+	{
+		return new ThreadFactory()
+		{
+
+			private AtomicInteger	threadCount	= new AtomicInteger();
+
+			public Thread newThread( Runnable runnable )
+			{
+				Thread thread = new Thread( runnable, threadNamePrefix + "-" + threadCount.incrementAndGet() );
+				thread.setDaemon( true );
+				return thread;
+			}
+		};
+	}
+
+	/**
+	 * @return RedmineConnector used by this object for performing the operations
+	 */
+	public RedmineConnector getRedmineConnector()
+	{
+		return redmineConnector;
+	}
+
+	/**
+	 * Asynchronous version of RedmineConnector.createProject
+	 */
+	public Future<Project> createProject( final Project newProject )
+	{
+		return submit( new Callable<Project>()
+		{
+
+			public Project call() throws RCException
+			{
+				return redmineConnector.createProject( newProject );
+			}
+		} );
+	}
+
+	/**
+	 * Asynchronous version of RedmineConnector.updateProject
+	 */
+	public Future<Void> updateProject( final Project updatedProject )
+	{
+		return submit( new Callable<Void>()
+		{
+
+			public Void call() throws RCException
+			{
+				redmineConnector.updateProject( updatedProject );
+				return null;
+			}
+		} );
+	}
+
+	/**
+	 * Asynchronous version of RedmineConnector.deleteProject
+	 */
+	public Future<Boolean> deleteProject( final long projectId )
+	{
+		return submit( new Callable<Boolean>()
+		{
+
+			public Boolean call() throws RCException
+			{
+				return redmineConnector.deleteProject( projectId );
+			}
+		} );
+	}
+
+	/**
+	 * Asynchronous version of RedmineConnector.getProjectById
+	 */
+	public Future<Project> getProjectById( final long projectId, final Collection<String> includes )
+	{
+		return submit( new Callable<Project>()
+		{
+
+			public Project call() throws RCException
+			{
+				return redmineConnector.getProjectById( projectId, includes );
+			}
+		} );
+	}
+
+	/**
+	 * Asynchronous version of RedmineConnector.createIssue
+	 */
+	public Future<Issue> createIssue( final Issue newIssue )
+	{
+		return submit( new Callable<Issue>()
+		{
+
+			public Issue call() throws RCException
+			{
+				return redmineConnector.createIssue( newIssue );
+			}
+		} );
+	}
+
+	/**
+	 * Asynchronous version of RedmineConnector.updateIssue
+	 */
+	public Future<Void> updateIssue( final Issue updatedIssue )
+	{
+		return submit( new Callable<Void>()
+		{
+
+			public Void call() throws RCException
+			{
+				redmineConnector.updateIssue( updatedIssue );
+				return null;
+			}
+		} );
+	}
+
+	/**
+	 * Asynchronous version of RedmineConnector.deleteIssue
+	 */
+	public Future<Boolean> deleteIssue( final long issueId )
+	{
+		return submit( new Callable<Boolean>()
+		{
+
+			public Boolean call() throws RCException
+			{
+				return redmineConnector.deleteIssue( issueId );
+			}
+		} );
+	}
+
+	/**
+	 * Asynchronous version of RedmineConnector.getIssueById
+	 */
+	public Future<Issue> getIssueById( final long issueId, final Collection<String> includes )
+	{
+		return submit( new Callable<Issue>()
+		{
+
+			public Issue call() throws RCException
+			{
+				return redmineConnector.getIssueById( issueId, includes );
+			}
+		} );
+	}
+
+	/**
+	 * Asynchronous version of RedmineConnector.createUser
+	 */
+	public Future<User> createUser( final User newUser )
+	{
+		return submit( new Callable<User>()
+		{
+
+			public User call() throws RCException
+			{
+				return redmineConnector.createUser( newUser );
+			}
+		} );
+	}
+
+	/**
+	 * Asynchronous version of RedmineConnector.updateUser
+	 */
+	public Future<Void> updateUser( final User updatedUser )
+	{
+		return submit( new Callable<Void>()
+		{
+
+			public Void call() throws RCException
+			{
+				redmineConnector.updateUser( updatedUser );
+				return null;
+			}
+		} );
+	}
+
+	/**
+	 * Asynchronous version of RedmineConnector.deleteUser
+	 */
+	public Future<Boolean> deleteUser( final long userId )
+	{
+		return submit( new Callable<Boolean>()
+		{
+
+			public Boolean call() throws RCException
+			{
+				return redmineConnector.deleteUser( userId );
+			}
+		} );
+	}
+
+	/**
+	 * Asynchronous version of RedmineConnector.getUserById
+	 */
+	public Future<User> getUserById( final long userId, final Collection<String> includes )
+	{
+		return submit( new Callable<User>()
+		{
+
+			public User call() throws RCException
+			{
+				return redmineConnector.getUserById( userId, includes );
+			}
+		} );
+	}
+
+	/**
+	 * It creates the given issues on Redmine Server, keeping default number of requests in flight
+	 *
+	 * @see #createIssues(Collection, int)
+	 */
+	public List<BulkOperationResult<Issue>> createIssues( Collection<Issue> newIssues ) throws RCException
+	{
+		return createIssues( newIssues, DEFAULT_BULK_IN_FLIGHT );
+	}
+
+	/**
+	 * It creates the given issues on Redmine Server. Requests are run on the executor, keeping at most 'maxInFlight'
+	 * requests in flight at a time, and this method waits for all of these to finish. Failure of an issue does not stop
+	 * the others.
+	 *
+	 * @param newIssues Issues to create
+	 * @param maxInFlight Maximum number of requests in flight at a time. It is also limited by the threads of executor.
+	 *        Requests more than the connection pool size wait for a pooled connection.
+	 * @return Result for every issue, in the order of given collection. Result of successful issue has the created
+	 *         issue with its id.
+	 * @throws RCException If interrupted while waiting for the requests
+	 */
+	public List<BulkOperationResult<Issue>> createIssues( Collection<Issue> newIssues, int maxInFlight )
+			throws RCException
+	{
+		LOGGER.trace( "createIssues: newIssues[" + ( newIssues == null ? null : newIssues.size() ) + "] maxInFlight["
+				+ maxInFlight + "]" );
+
+		return executeBulkOperation( newIssues, maxInFlight, new BulkOperation<Issue>()
+		{
+
+			public Issue execute( Issue newIssue ) throws RCException
+			{
+				return redmineConnector.createIssue( newIssue );
+			}
+		} );
+	}
+
+	/**
+	 * It updates the given issues on Redmine Server, keeping default number of requests in flight
+	 *
+	 * @see #updateIssues(Collection, int)
+	 */
+	public List<BulkOperationResult<Issue>> updateIssues( Collection<Issue> updatedIssues ) throws RCException
+	{
+		return updateIssues( updatedIssues, DEFAULT_BULK_IN_FLIGHT );
+	}
+
+	/**
+	 * It updates the given issues on Redmine Server. Requests are run on the executor, keeping at most 'maxInFlight'
+	 * requests in flight at a time, and this method waits for all of these to finish. Failure of an issue does not stop
+	 * the others.
+	 *
+	 * @param updatedIssues Issues to update
+	 * @param maxInFlight Maximum number of requests in flight at a time. It is also limited by the threads of executor.
+	 *        Requests more than the connection pool size wait for a pooled connection.
+	 * @return Result for every issue, in the order of given collection
+	 * @throws RCException If interrupted while waiting for the requests
+	 */
+	public List<BulkOperationResult<Issue>> updateIssues( Collection<Issue> updatedIssues, int maxInFlight )
+			throws RCException
+	{
+		LOGGER.trace( "updateIssues: updatedIssues[" + ( updatedIssues == null ? null : updatedIssues.size() )
+				+ "] maxInFlight[" + maxInFlight + "]" );
+
+		return executeBulkOperation( updatedIssues, maxInFlight, new BulkOperation<Issue>()
+		{
+
+			public Issue execute( Issue updatedIssue ) throws RCException
+			{
+				redmineConnector.updateIssue( updatedIssue );
+				return updatedIssue;
+			}
+		} );
+	}
+
+	/**
+	 * It fetches the issues with given ids from Redmine Server. Ids are split in chunks, each chunk small enough to fit
+	 * in URL and in one page of Redmine list API. Every chunk is requested with 'issue_id' filter of list API, and all
+	 * chunks are run concurrently on the executor. This method waits for all of these to finish.
+	 *
+	 * <p>
+	 * Closed issues are also returned. Issues are fetched from server even if caches of RedmineConnector are enabled.
+	 * Redmine list API supports only some of the includes, like 'attachments' and 'relations'.
+	 *
+	 * @param issueIds Ids of the issues to fetch
+	 * @param includes Collection of 'include' criteria, based on which sub-objects will be included in issues
+	 * @return Map of every given id to its issue, in the order of given ids. Value is null for the id which is not found
+	 *         on server, like if issue is deleted or is not visible to the user.
+	 * @throws RCException If there is any problem while fetching any chunk, or if interrupted while waiting
+	 */
+	public Map<Long, Issue> getIssuesByIds( Collection<Long> issueIds, final Collection<String> includes )
+			throws RCException
+	{
+		LOGGER.trace( "getIssuesByIds: issueIds[" + ( issueIds == null ? null : issueIds.size() ) + "] includes["
+				+ includes + "]" );
+		Utilities.assertNotNullArgument( issueIds, "issueIds" );
+
+		Map<Long, Issue> issues = new LinkedHashMap<Long, Issue>();
+		for( Long issueId : issueIds )
+		{
+			Utilities.assertNotNullArgument( issueId, "issueId" );
+			issues.put( issueId, null );
+		}
+
+		List<Future<List<RedmineBDO>>> chunkRequests = new ArrayList<Future<List<RedmineBDO>>>();
+		try
+		{
+			for( final String chunk : splitIssueIds( issues.keySet() ) )
+			{
+				chunkRequests.add( submit( new Callable<List<RedmineBDO>>()
+				{
+
+					public List<RedmineBDO> call() throws RCException
+					{
+						return fetchIssues( chunk, includes );
+					}
+				} ) );
+			}
+
+			int foundCount = 0;
+			for( Future<List<RedmineBDO>> chunkRequest : chunkRequests )
+			{
+				for( RedmineBDO issue : chunkRequest.get() )
+				{
+					Long issueId = ( (Issue) issue ).getId();
+					if( issues.containsKey( issueId ) )
+					{
+						issues.put( issueId, (Issue) issue );
+						foundCount++;
+					}
+				}
+			}
+			LOGGER.debug( "fetched issues by ids. issueIds[" + issues.size() + "] chunks[" + chunkRequests.size()
+					+ "] found[" + foundCount + "]" );
+			return issues;
+		}
+		catch( InterruptedException e )
+		{
+			cancel( chunkRequests );
+			Thread.currentThread().interrupt();
+			throw new RCException( RCException.ILLEGAL_STATE, "Interrupted while fetching issues by ids", e );
+		}
+		catch( ExecutionException e )
+		{
+			cancel( chunkRequests );
+			if( e.getCause() instanceof RCException )
+			{
+				throw (RCException) e.getCause();
+			}
+			throw new RCException( RCException.ILLEGAL_STATE, "Problem while fetching issues by ids", e.getCause() );
+		}
+	}
+
+	/**
+	 * It splits the ids in chunks of comma separated ids. Chunk has at most as many ids as Redmine returns in one page,
+	 * and at most MAX_ISSUE_IDS_LENGTH characters of ids in URL.
+	 */
+	static List<String> splitIssueIds( Collection<Long> issueIds )
+	{
+		List<String> chunks = new ArrayList<String>();
+		StringBuilder chunk = new StringBuilder( MAX_ISSUE_IDS_LENGTH );
+		int chunkIdCount = 0;
+		int chunkURLLength = 0;
+		for( Long issueId : issueIds )
+		{
+			String id = issueId.toString();
+			if( chunkIdCount > 0
+					&& ( chunkIdCount == RedmineDataPaginator.REDMINE_MAX_PAGE_SIZE || chunkURLLength
+							+ ENCODED_SEPARATOR_LENGTH + id.length() > MAX_ISSUE_IDS_LENGTH ) )
+			{
+				chunks.add( chunk.toString() );
+				chunk.setLength( 0 );
+				chunkIdCount = 0;
+				chunkURLLength = 0;
+			}
+			if( chunkIdCount > 0 )
+			{
+				chunk.append( ',' );
+				chunkURLLength += ENCODED_SEPARATOR_LENGTH;
+			}
+			chunk.append( id );
+			chunkURLLength += id.length();
+			chunkIdCount++;
+		}
+		if( chunkIdCount > 0 )
+		{
+			chunks.add( chunk.toString() );
+		}
+		return chunks;
+	}
+
+	/**
+	 * Fetches the issues with given comma separated ids, using list API with 'issue_id' filter. All pages are read,
+	 * in case server returns less issues in a page than asked for.
+	 */
+	private List<RedmineBDO> fetchIssues( String issueIds, Collection<String> includes ) throws RCException
+	{
+		Map<String, String> filters = new LinkedHashMap<String, String>();
+		filters.put( FILTER_ISSUE_ID, issueIds );
+
+		// closed issues are also required, Redmine returns only open issues by default
+		filters.put( FILTER_STATUS_ID, "*" );
+
+		RedmineDataPaginator paginator = redmineConnector.getIssuesIterator( 0,
+				RedmineDataPaginator.REDMINE_MAX_PAGE_SIZE, includes, filters );
+		List<RedmineBDO> issues = new ArrayList<RedmineBDO>();
+		while( paginator.hasMoreRecords() )
+		{
+			List<RedmineBDO> page = paginator.nextPageRecords();
+			if( page == null || page.isEmpty() )
+			{
+				break;
+			}
+			issues.addAll( page );
+		}
+		return issues;
+	}
+
+	/**
+	 * It runs the operation for every object, keeping at most 'maxInFlight' operations submitted to executor at a time.
+	 * Next operation is submitted as soon as any running one completes.
+	 */
+	private <T> List<BulkOperationResult<T>> executeBulkOperation( Collection<T> objects, int maxInFlight,
+			final BulkOperation<T> operation ) throws RCException
+	{
+		Utilities.assertNotNullArgument( objects, "objects" );
+		if( maxInFlight < 1 )
+		{
+			throw new RCRuntimeException( RCRuntimeException.ILLEGAL_ARGUMENT,
+					"Max in flight requests must be one or more. maxInFlight[" + maxInFlight + "]" );
+		}
+
+		if( executorService.isShutdown() )
+		{
+			throw new RCRuntimeException( RCRuntimeException.ILLEGAL_STATE,
+					"AsyncRedmineConnector has already been shut down" );
+		}
+
+		List<BulkOperationResult<T>> results = new ArrayList<BulkOperationResult<T>>( objects.size() );
+		CompletionService<BulkOperationResult<T>> completionService = new ExecutorCompletionService<BulkOperationResult<T>>(
+				executorService );
+		List<Future<BulkOperationResult<T>>> pendingOperations = new ArrayList<Future<BulkOperationResult<T>>>();
+
+		Iterator<T> iterator = objects.iterator();
+		int submittedCount = 0;
+		int failedCount = 0;
+		try
+		{
+			while( iterator.hasNext() || results.size() < submittedCount )
+			{
+				while( iterator.hasNext() && submittedCount - results.size() < maxInFlight )
+				{
+					final int index = submittedCount++;
+					final T object = iterator.next();
+					pendingOperations.add( completionService.submit( new Callable<BulkOperationResult<T>>()
+					{
+
+						public BulkOperationResult<T> call()
+						{
+							return executeForObject( operation, index, object );
+						}
+					} ) );
+				}
+
+				BulkOperationResult<T> result = completionService.take().get();
+				if( !result.isSuccess() )
+				{
+					failedCount++;
+				}
+				results.add( result );
+			}
+		}
+		catch( InterruptedException e )
+		{
+			cancel( pendingOperations );
+			Thread.currentThread().interrupt();
+			throw new RCException( RCException.ILLEGAL_STATE, "Interrupted while waiting for bulk operation", e );
+		}
+		catch( ExecutionException e )
+		{
+			// operation catches all exceptions itself, so it is not expected
+			cancel( pendingOperations );
+			throw new RCException( RCException.ILLEGAL_STATE, "Problem while executing bulk operation", e.getCause() );
+		}
+
+		Collections.sort( results, new Comparator<BulkOperationResult<T>>()
+		{
+
+			public int compare( BulkOperationResult<T> result1, BulkOperationResult<T> result2 )
+			{
+				return result1.getIndex() - result2.getIndex();
+			}
+		} );
+
+		LOGGER.debug( "bulk operation completed. objects[" + results.size() + "] failed[" + failedCount + "]" );
+		return results;
+	}
+
+	private <T> BulkOperationResult<T> executeForObject( BulkOperation<T> operation, int index, T object )
+	{
+		try
+		{
+			return new BulkOperationResult<T>( index, object, operation.execute( object ) );
+		}
+		catch( RCException e )
+		{
+			LOGGER.debug( "bulk operation failed. index[" + index + "] errorCode[" + e.getErrorCode() + "]" );
+			return new BulkOperationResult<T>( index, object, e );
+		}
+		catch( RuntimeException e )
+		{
+			LOGGER.debug( "bulk operation failed. index[" + index + "]", e );
+			return new BulkOperationResult<T>( index, object, new RCException( RCException.ILLEGAL_STATE, e ) );
+		}
+	}
+
+	private <T> void cancel( List<Future<T>> operations )
+	{
+		for( Future<T> operation : operations )
+		{
+			operation.cancel( true );
+		}
+	}
+
+	private <T> Future<T> submit( Callable<T> operation )
+	{
+		if( executorService.isShutdown() )
+		{
+			throw new RCRuntimeException( RCRuntimeException.ILLEGAL_STATE,
+					"AsyncRedmineConnector has already been shut down" );
+		}
+		return executorService.submit( operation );
+	}
+
+	/**
+	 * It shuts down the default executor, if it was created by this object. Already submitted operations are completed.
+	 * Executor specified by caller is not touched. RedmineConnector is also not shut down, as it can be shared.
+	 */
+	public void shutdown()
+	{
+		LOGGER.trace( "shutdown: ownExecutorService[" + ownExecutorService + "]" );
+		if( ownExecutorService )
+		{
+			executorService.shutdown();
+		}
+	}
+
+	/**
+	 * Operation done for every object of a bulk operation
+	 */
+	private interface BulkOperation<T>
+	{
+
+		T execute( T object ) throws RCException;
+	}
+
+}
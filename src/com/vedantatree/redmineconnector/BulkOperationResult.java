@@ -0,0 +1,156 @@
+package com.vedantatree.redmineconnector;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.apache.commons.logging.Log;
+import org.apache.commons.logging.LogFactory;
+
+import com.vedantatree.redmineconnector.bdo.Error;
+import com.vedantatree.redmineconnector.utils.Utilities;
+
+
+/**
+ * Result of one object of a bulk operation, like AsyncRedmineConnector.createIssues. Bulk operation does not stop at
+ * first failure, so every object gets its own result telling whether it was saved, was rejected by Redmine Server with
+ * validation errors, or failed due to any other problem like IO error.
+ *
+ * @author Mohit Gupta [mohit.gupta@vedantatree.com]
+ * @since 1.2.0
+ */
+public class BulkOperationResult<T>
+{
+
+	private static Log	LOGGER				= LogFactory.getLog( BulkOperationResult.class );
+
+	/**
+	 * Object is saved on Redmine Server
+	 */
+	public static int	SUCCESS				= 0;
+
+	/**
+	 * Redmine Server rejected the object with 422 'Unprocessable Entity', like if any mandatory field is missing.
+	 * Reasons are available with 'getErrors'.
+	 */
+	public static int	VALIDATION_ERROR	= 1;
+
+	/**
+	 * Operation failed due to any other problem, like IO error or error status from server
+	 */
+	public static int	FAILED				= 2;
+
+	/**
+	 * Index of object in the collection passed to bulk operation
+	 */
+	private int			index;
+
+	/**
+	 * Object passed to bulk operation
+	 */
+	private T			input;
+
+	/**
+	 * Object returned by operation, like the created issue with its id
+	 */
+	private T			result;
+
+	private RCException	exception;
+
+	private List<Error>	errors;
+
+	BulkOperationResult( int index, T input, T result )
+	{
+		this.index = index;
+		this.input = input;
+		this.result = result;
+	}
+
+	BulkOperationResult( int index, T input, RCException exception )
+	{
+		Utilities.assertNotNullArgument( exception, "exception" );
+		this.index = index;
+		this.input = input;
+		this.exception = exception;
+	}
+
+	/**
+	 * @return SUCCESS, VALIDATION_ERROR or FAILED
+	 */
+	public int getStatus()
+	{
+		if( exception == null )
+		{
+			return SUCCESS;
+		}
+		return exception.getErrorCode() == RCException.UNPROCESSABLE_ENTITY ? VALIDATION_ERROR : FAILED;
+	}
+
+	public boolean isSuccess()
+	{
+		return exception == null;
+	}
+
+	/**
+	 * @return Index of object in the collection passed to bulk operation
+	 */
+	public int getIndex()
+	{
+		return index;
+	}
+
+	/**
+	 * @return Object passed to bulk operation
+	 */
+	public T getInput()
+	{
+		return input;
+	}
+
+	/**
+	 * @return Object returned by operation if it succeeded, like the created issue with its id. For update, it is the
+	 *         input object itself. Null if operation failed.
+	 */
+	public T getResult()
+	{
+		return result;
+	}
+
+	/**
+	 * @return Exception due to which operation failed, null if it succeeded
+	 */
+	public RCException getException()
+	{
+		return exception;
+	}
+
+	/**
+	 * @return Validation errors returned by Redmine Server, empty list if there are none or if these could not be read
+	 *         from response
+	 */
+	public List<Error> getErrors()
+	{
+		if( errors == null )
+		{
+			errors = new ArrayList<Error>();
+			if( getStatus() == VALIDATION_ERROR )
+			{
+				try
+				{
+					errors = exception.getErrors();
+				}
+				catch( RCException e )
+				{
+					LOGGER.warn( "Problem while reading validation errors from response. index[" + index + "]", e );
+				}
+			}
+		}
+		return errors;
+	}
+
+	public String toString()
+	{
+		return "BulkOperationResult@" + hashCode() + ": index[" + index + "] status[" + getStatus() + "] exception["
+				+ ( exception == null ? null : exception.getMessage() ) + "]";
+	}
+
+}
@@ -0,0 +1,337 @@
+package com.vedantatree.redmineconnector;
+
+import java.util.Date;
+
+import org.apache.commons.logging.Log;
+import org.apache.commons.logging.LogFactory;
+
+
+/**
+ * This object stops sending the requests to Redmine Server for some time once server is found down, so that callers
+ * fail at once instead of every request waiting for connection timeout and request threads piling up behind it.
+ *
+ * <p>
+ * Breaker starts as CLOSED, when all requests are sent. A failure is a connector error, like connection refused or
+ * timeout, or a 5xx status. After 'failureThreshold' failures in a row, breaker becomes OPEN. While it is open, requests
+ * are not sent and fail with RCException having error code CIRCUIT_OPEN. After 'openDuration', breaker becomes
+ * HALF_OPEN and lets 'trialRequestCount' requests go to server, rejecting others. If all of these succeed, breaker
+ * becomes CLOSED again. If any of these fails, it becomes OPEN again for another 'openDuration'.
+ *
+ * <p>
+ * Other statuses, like 404, 422 or 429, show that server is working and are counted as success. Requests rejected by
+ * breaker are not retried by RetryPolicy.
+ *
+ * <p>
+ * Breaker keeps the counts of its transitions and of rejected requests, which can be read from
+ * RedmineConnector.getCircuitBreaker. Same breaker can be set to more than one RedmineConnector for one server.
+ * Settings can be changed any time.
+ *
+ * @author Mohit Gupta [mohit.gupta@vedantatree.com]
+ * @since 1.2.0
+ */
+public class CircuitBreaker
+{
+
+	private static Log		LOGGER				= LogFactory.getLog( CircuitBreaker.class );
+
+	public static int		CLOSED				= 0;
+	public static int		OPEN				= 1;
+	public static int		HALF_OPEN			= 2;
+
+	private static String[]	STATE_NAMES			= { "CLOSED", "OPEN", "HALF_OPEN" };
+
+	/**
+	 * Returned by 'acquirePermission' for a request which is not a trial request
+	 */
+	static long				NO_TRIAL			= 0;
+
+	/**
+	 * Number of failures in a row after which breaker opens
+	 */
+	private int				failureThreshold	= 5;
+
+	/**
+	 * Time in milliseconds for which breaker remains open before trying the server again
+	 */
+	private long			openDuration		= 30 * 1000;
+
+	/**
+	 * Number of requests sent to server in half open state, all of which should succeed to close the breaker
+	 */
+	private int				trialRequestCount	= 1;
+
+	private int				state				= CLOSED;
+	private int				consecutiveFailureCount;
+
+	/**
+	 * Time when breaker was opened last time, in milliseconds
+	 */
+	private long			openedTime;
+
+	/**
+	 * Number of current half open period, incremented every time breaker moves to half open state. Trial requests are
+	 * tagged with it, so that results of trials of an earlier period are not counted in current one.
+	 */
+	private long			halfOpenGeneration;
+
+	/**
+	 * Trial requests sent in half open state, and those which succeeded, of current trial
+	 */
+	private int				trialsInFlight;
+	private int				trialSuccessCount;
+
+	private long			lastTransitionTime;
+	private long			openedCount;
+	private long			halfOpenedCount;
+	private long			closedCount;
+	private long			rejectedCount;
+	private long			failureCount;
+
+	public CircuitBreaker()
+	{
+	}
+
+	public CircuitBreaker( int failureThreshold, long openDuration, int trialRequestCount )
+	{
+		setFailureThreshold( failureThreshold );
+		setOpenDuration( openDuration );
+		setTrialRequestCount( trialRequestCount );
+	}
+
+	/**
+	 * It checks whether request can be sent to server. For an open breaker, it moves the breaker to half open state if
+	 * open duration is over.
+	 *
+	 * @param URL URL of request, for the message of exception
+	 * @return Half open period in which request is sent as a trial request, or NO_TRIAL if breaker is closed
+	 * @throws RCException With error code CIRCUIT_OPEN if request should not be sent
+	 */
+	synchronized long acquirePermission( String URL ) throws RCException
+	{
+		if( state == OPEN && System.currentTimeMillis() - openedTime >= openDuration )
+		{
+			transition( HALF_OPEN );
+		}
+		if( state == CLOSED )
+		{
+			return NO_TRIAL;
+		}
+		if( state == HALF_OPEN && trialsInFlight + trialSuccessCount < trialRequestCount )
+		{
+			trialsInFlight++;
+			return halfOpenGeneration;
+		}
+
+		rejectedCount++;
+		RCException rce = new RCException( RCException.CIRCUIT_OPEN,
+				"Circuit breaker is open for Redmine Server, request is not sent. state[" + getStateName( state )
+						+ "] URL[" + WireLogger.maskURL( URL ) + "]" );
+		rce.setRetryAfter( new Date( openedTime + openDuration ) );
+		throw rce;
+	}
+
+	/**
+	 * It records the response of a request sent with permission of this breaker
+	 *
+	 * @param trial Half open period of trial request, or NO_TRIAL, as returned by 'acquirePermission'
+	 * @param failed true if server could not be reached or replied with a 5xx status
+	 */
+	synchronized void recordResult( long trial, boolean failed )
+	{
+		if( failed )
+		{
+			failureCount++;
+		}
+		if( trial != NO_TRIAL )
+		{
+			// result of a trial of earlier half open period, if breaker has opened or closed meanwhile
+			if( !isCurrentTrial( trial ) )
+			{
+				return;
+			}
+			trialsInFlight--;
+			if( failed )
+			{
+				transition( OPEN );
+			}
+			else if( ++trialSuccessCount >= trialRequestCount )
+			{
+				transition( CLOSED );
+			}
+		}
+		else if( state == CLOSED )
+		{
+			// responses of requests sent before breaker opened do not change its state
+			consecutiveFailureCount = failed ? consecutiveFailureCount + 1 : 0;
+			if( consecutiveFailureCount >= failureThreshold )
+			{
+				transition( OPEN );
+			}
+		}
+	}
+
+	/**
+	 * It releases the permission of a request which could not be sent, like when interrupted while waiting for a
+	 * limiter, so that a trial slot is not held by it
+	 */
+	synchronized void releasePermission( long trial )
+	{
+		if( trial != NO_TRIAL && isCurrentTrial( trial ) )
+		{
+			trialsInFlight--;
+		}
+	}
+
+	/**
+	 * @return true if trial request belongs to current half open period
+	 */
+	private boolean isCurrentTrial( long trial )
+	{
+		return state == HALF_OPEN && trial == halfOpenGeneration;
+	}
+
+	private void transition( int newState )
+	{
+		LOGGER.warn( "circuit breaker state changed. from[" + getStateName( state ) + "] to["
+				+ getStateName( newState ) + "] consecutiveFailureCount[" + consecutiveFailureCount + "]" );
+
+		state = newState;
+		lastTransitionTime = System.currentTimeMillis();
+		consecutiveFailureCount = 0;
+		trialSuccessCount = 0;
+		if( newState == OPEN )
+		{
+			openedTime = lastTransitionTime;
+			openedCount++;
+		}
+		else if( newState == HALF_OPEN )
+		{
+			halfOpenGeneration++;
+			trialsInFlight = 0;
+			halfOpenedCount++;
+		}
+		else
+		{
+			closedCount++;
+		}
+	}
+
+	/**
+	 * @return Name of given state, like 'OPEN'
+	 */
+	public static String getStateName( int state )
+	{
+		return state >= 0 && state < STATE_NAMES.length ? STATE_NAMES[state] : "UNKNOWN[" + state + "]";
+	}
+
+	/**
+	 * @return Current state, CLOSED, OPEN or HALF_OPEN. Open breaker is reported as OPEN till a request is sent after
+	 *         open duration.
+	 */
+	public synchronized int getState()
+	{
+		return state;
+	}
+
+	public synchronized int getFailureThreshold()
+	{
+		return failureThreshold;
+	}
+
+	public synchronized void setFailureThreshold( int failureThreshold )
+	{
+		if( failureThreshold < 1 )
+		{
+			throw new IllegalArgumentException( "Failure threshold must be one or more. failureThreshold["
+					+ failureThreshold + "]" );
+		}
+		this.failureThreshold = failureThreshold;
+	}
+
+	public synchronized long getOpenDuration()
+	{
+		return openDuration;
+	}
+
+	public synchronized void setOpenDuration( long openDuration )
+	{
+		if( openDuration < 0 )
+		{
+			throw new IllegalArgumentException( "Open duration must not be negative. openDuration[" + openDuration
+					+ "]" );
+		}
+		this.openDuration = openDuration;
+	}
+
+	public synchronized int getTrialRequestCount()
+	{
+		return trialRequestCount;
+	}
+
+	public synchronized void setTrialRequestCount( int trialRequestCount )
+	{
+		if( trialRequestCount < 1 )
+		{
+			throw new IllegalArgumentException( "Trial request count must be one or more. trialRequestCount["
+					+ trialRequestCount + "]" );
+		}
+		this.trialRequestCount = trialRequestCount;
+	}
+
+	/**
+	 * @return Time of last change of state in milliseconds, zero if state has never changed
+	 */
+	public synchronized long getLastTransitionTime()
+	{
+		return lastTransitionTime;
+	}
+
+	/**
+	 * @return Number of times breaker has opened
+	 */
+	public synchronized long getOpenedCount()
+	{
+		return openedCount;
+	}
+
+	/**
+	 * @return Number of times breaker has moved to half open state
+	 */
+	public synchronized long getHalfOpenedCount()
+	{
+		return halfOpenedCount;
+	}
+
+	/**
+	 * @return Number of times breaker has closed again after opening
+	 */
+	public synchronized long getClosedCount()
+	{
+		return closedCount;
+	}
+
+	/**
+	 * @return Number of requests failed at once as breaker was open
+	 */
+	public synchronized long getRejectedCount()
+	{
+		return rejectedCount;
+	}
+
+	/**
+	 * @return Number of requests for which server could not be reached or replied with a 5xx status
+	 */
+	public synchronized long getFailureCount()
+	{
+		return failureCount;
+	}
+
+	public synchronized String toString()
+	{
+		return "CircuitBreaker@" + hashCode() + ": state[" + getStateName( state ) + "] failureThreshold["
+				+ failureThreshold + "] openDuration[" + openDuration + "] trialRequestCount[" + trialRequestCount
+				+ "] opened[" + openedCount + "] halfOpened[" + halfOpenedCount + "] closed[" + closedCount
+				+ "] rejected[" + rejectedCount + "] failures[" + failureCount + "]";
+	}
+
+}
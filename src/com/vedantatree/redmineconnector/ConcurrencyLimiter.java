@@ -0,0 +1,336 @@
+package com.vedantatree.redmineconnector;
+
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.Map;
+
+import org.apache.commons.logging.Log;
+import org.apache.commons.logging.LogFactory;
+
+
+/**
+ * This object limits the number of requests in flight to Redmine Server, and adapts the limit to what server can
+ * sustain. It follows AIMD, additive increase and multiplicative decrease, as used by TCP congestion control.
+ *
+ * <p>
+ * Every successful response increases the limit by 1/limit, i.e. by about one per round of requests, up to max limit.
+ * Limit is multiplied by 'backoffRatio', down to min limit, when server shows overload. Overload means a 5xx status
+ * like 503 'Service Unavailable', 429 'Too Many Requests', or a connector error like connection refused. Limit is
+ * decreased at most once in the longest recent response time, i.e. once for all the requests which were in flight
+ * together, so that their failures are taken as one signal.
+ *
+ * <p>
+ * Optionally, with 'enableLatencyBackoff', growing response time is also taken as overload. Response times differ a lot
+ * for different kind of requests, like an issue by id and a page of 100 issues, so these are compared for same kind of
+ * requests only. Kind is made from method, path and page size of request. For every kind, baseline follows the lowest
+ * response times seen, and slowly rises if server becomes slower for good. Overload means average of recent response
+ * times of a kind growing beyond 'latencyTolerance' times its baseline.
+ *
+ * <p>
+ * Request which finds the limit reached waits till any request in flight completes. Response time is measured from
+ * sending the request to receiving the response status. Same limiter can be set to more than one RedmineConnector, to
+ * limit all the requests sent to one server.
+ *
+ * @author Mohit Gupta [mohit.gupta@vedantatree.com]
+ * @since 1.2.0
+ */
+public class ConcurrencyLimiter
+{
+
+	private static Log						LOGGER						= LogFactory.getLog( ConcurrencyLimiter.class );
+
+	public static double					DEFAULT_BACKOFF_RATIO		= 0.7;
+
+	/**
+	 * Suggested latency tolerance for 'enableLatencyBackoff'
+	 */
+	public static double					DEFAULT_LATENCY_TOLERANCE	= 2.0;
+
+	/**
+	 * Baseline response time moves up by this fraction of the difference for every slower response
+	 */
+	private static double					BASELINE_RISE_FACTOR		= 0.01;
+
+	/**
+	 * Weight of latest response time in the average of recent response times
+	 */
+	private static double					RECENT_LATENCY_WEIGHT		= 0.2;
+
+	/**
+	 * Kind used for the requests released without a kind
+	 */
+	private static String					DEFAULT_REQUEST_KIND		= "";
+
+	private int								minLimit;
+	private int								maxLimit;
+	private double							backoffRatio				= DEFAULT_BACKOFF_RATIO;
+
+	/**
+	 * Recent response time more than these many times the baseline is taken as overload, zero if response time is not
+	 * taken as overload
+	 */
+	private double							latencyTolerance;
+
+	/**
+	 * Current limit. Only its integral part is applied, fraction accumulates the additive increase.
+	 */
+	private double							limit;
+
+	private int								inFlightCount;
+
+	/**
+	 * Response time statistics for every kind of request
+	 */
+	private Map<String, LatencyStatistics>	latencyStatistics			= new HashMap<String, LatencyStatistics>();
+
+	/**
+	 * Whether limit has ever been decreased, and time of last decrease as per System.nanoTime
+	 */
+	private boolean							decreased;
+	private long							lastDecreaseTime;
+
+	private long							requestCount;
+	private long							delayedCount;
+	private long							overloadCount;
+
+	/**
+	 * @param initialLimit Limit to start with
+	 * @param minLimit Limit is not decreased below it
+	 * @param maxLimit Limit is not increased above it. There is no benefit of keeping it more than connections per host
+	 *        in connection pool.
+	 */
+	public ConcurrencyLimiter( int initialLimit, int minLimit, int maxLimit )
+	{
+		if( minLimit < 1 || maxLimit < minLimit || initialLimit < minLimit || initialLimit > maxLimit )
+		{
+			throw new IllegalArgumentException( "Limits must satisfy 1 <= minLimit <= initialLimit <= maxLimit. minLimit["
+					+ minLimit + "] initialLimit[" + initialLimit + "] maxLimit[" + maxLimit + "]" );
+		}
+		this.limit = initialLimit;
+		this.minLimit = minLimit;
+		this.maxLimit = maxLimit;
+	}
+
+	/**
+	 * @param backoffRatio Limit is multiplied by it on overload. It should be more than zero and less than one.
+	 */
+	public synchronized void setBackoffRatio( double backoffRatio )
+	{
+		if( backoffRatio <= 0 || backoffRatio >= 1 )
+		{
+			throw new IllegalArgumentException( "Backoff ratio must be between zero and one. backoffRatio["
+					+ backoffRatio + "]" );
+		}
+		this.backoffRatio = backoffRatio;
+	}
+
+	public synchronized double getBackoffRatio()
+	{
+		return backoffRatio;
+	}
+
+	/**
+	 * It enables the decrease of limit when response time of a kind of request grows beyond given times its baseline.
+	 *
+	 * @param latencyTolerance Recent response time more than these many times the baseline is taken as overload. It
+	 *        should be more than one, DEFAULT_LATENCY_TOLERANCE is suitable for most of the cases.
+	 */
+	public synchronized void enableLatencyBackoff( double latencyTolerance )
+	{
+		if( latencyTolerance <= 1 )
+		{
+			throw new IllegalArgumentException( "Latency tolerance must be more than one. latencyTolerance["
+					+ latencyTolerance + "]" );
+		}
+		this.latencyTolerance = latencyTolerance;
+	}
+
+	public synchronized void disableLatencyBackoff()
+	{
+		this.latencyTolerance = 0;
+	}
+
+	/**
+	 * @return Latency tolerance, zero if latency backoff is not enabled
+	 */
+	public synchronized double getLatencyTolerance()
+	{
+		return latencyTolerance;
+	}
+
+	/**
+	 * It waits till the number of requests in flight is below the limit, and counts the request in flight
+	 *
+	 * @throws InterruptedException If interrupted while waiting
+	 */
+	synchronized void acquire() throws InterruptedException
+	{
+		requestCount++;
+		if( inFlightCount >= (int) limit )
+		{
+			delayedCount++;
+			while( inFlightCount >= (int) limit )
+			{
+				wait();
+			}
+		}
+		inFlightCount++;
+	}
+
+	/**
+	 * It removes the request from flight and adjusts the limit as per its outcome
+	 *
+	 * @param requestKind Kind of request, like method, path and page size. Response times are compared for same kind of
+	 *        requests only.
+	 * @param latency Response time of request in nanoseconds
+	 * @param overloaded true if server replied with a status which shows overload, or if it could not be reached
+	 */
+	void release( String requestKind, long latency, boolean overloaded )
+	{
+		release( requestKind, latency, overloaded, System.nanoTime() );
+	}
+
+	/**
+	 * @param now Current time as per System.nanoTime
+	 */
+	synchronized void release( String requestKind, long latency, boolean overloaded, long now )
+	{
+		inFlightCount--;
+
+		if( !overloaded )
+		{
+			String kind = requestKind != null ? requestKind : DEFAULT_REQUEST_KIND;
+			LatencyStatistics statistics = latencyStatistics.get( kind );
+			if( statistics == null )
+			{
+				statistics = new LatencyStatistics();
+				latencyStatistics.put( kind, statistics );
+			}
+			statistics.record( latency );
+			overloaded = latencyTolerance > 0
+					&& statistics.recentLatency > statistics.baselineLatency * latencyTolerance;
+		}
+
+		if( overloaded )
+		{
+			overloadCount++;
+			if( !decreased || now - lastDecreaseTime >= getDecreaseInterval( latency ) )
+			{
+				decreased = true;
+				lastDecreaseTime = now;
+				limit = Math.max( minLimit, limit * backoffRatio );
+				if( LOGGER.isDebugEnabled() )
+				{
+					LOGGER.debug( "decreased concurrency limit. limit[" + limit + "] requestKind[" + requestKind
+							+ "] latency[" + latency + "]" );
+				}
+			}
+		}
+		else
+		{
+			limit = Math.min( maxLimit, limit + 1 / limit );
+		}
+		notifyAll();
+	}
+
+	/**
+	 * @return Longest recent response time of any kind of request, but at least the given latency. Requests in flight
+	 *         at the time of last decrease should have completed in this time.
+	 */
+	private double getDecreaseInterval( long latency )
+	{
+		double interval = latency;
+		for( Iterator<LatencyStatistics> iterator = latencyStatistics.values().iterator(); iterator.hasNext(); )
+		{
+			interval = Math.max( interval, iterator.next().recentLatency );
+		}
+		return interval;
+	}
+
+	/**
+	 * @return Number of requests allowed in flight at present
+	 */
+	public synchronized int getLimit()
+	{
+		return (int) limit;
+	}
+
+	public int getMinLimit()
+	{
+		return minLimit;
+	}
+
+	public int getMaxLimit()
+	{
+		return maxLimit;
+	}
+
+	public synchronized int getInFlightCount()
+	{
+		return inFlightCount;
+	}
+
+	/**
+	 * @return Number of requests passed through this limiter
+	 */
+	public synchronized long getRequestCount()
+	{
+		return requestCount;
+	}
+
+	/**
+	 * @return Number of requests which had to wait as limit was reached
+	 */
+	public synchronized long getDelayedCount()
+	{
+		return delayedCount;
+	}
+
+	/**
+	 * @return Number of responses which showed overload
+	 */
+	public synchronized long getOverloadCount()
+	{
+		return overloadCount;
+	}
+
+	public synchronized String toString()
+	{
+		return "ConcurrencyLimiter@" + hashCode() + ": limit[" + (int) limit + "] minLimit[" + minLimit
+				+ "] maxLimit[" + maxLimit + "] inFlight[" + inFlightCount + "] requests[" + requestCount
+				+ "] delayed[" + delayedCount + "] overloads[" + overloadCount + "] latencyTolerance["
+				+ latencyTolerance + "]";
+	}
+
+	/**
+	 * Response times of one kind of request, in nanoseconds
+	 */
+	private static class LatencyStatistics
+	{
+
+		/**
+		 * Follows the lowest response times, and rises slowly for slower responses
+		 */
+		private double	baselineLatency;
+
+		/**
+		 * Moving average of recent response times, so that a single slow response is not taken as overload
+		 */
+		private double	recentLatency;
+
+		void record( long latency )
+		{
+			recentLatency = recentLatency == 0 ? latency : recentLatency + ( latency - recentLatency )
+					* RECENT_LATENCY_WEIGHT;
+			if( baselineLatency == 0 || latency < baselineLatency )
+			{
+				baselineLatency = latency;
+			}
+			else
+			{
+				baselineLatency += ( latency - baselineLatency ) * BASELINE_RISE_FACTOR;
+			}
+		}
+	}
+
+}
@@ -0,0 +1,214 @@
+package com.vedantatree.redmineconnector;
+
+import java.io.ByteArrayInputStream;
+import java.io.InputStream;
+import java.util.Date;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.restlet.data.Tag;
+
+
+/**
+ * This cache keeps the responses of 'get by id' requests along with the validators (ETag and Last-Modified) returned by
+ * Redmine Server. Next request for same URL is sent as conditional GET. If server replies with 304 'Not Modified', the
+ * object is built from the cached response contents without downloading the XML again.
+ *
+ * <p>
+ * Cache is keyed by request URL, so an object fetched with different 'includes' is cached separately. It keeps at most
+ * the configured number of entries, least recently used entry is removed first. Entries are removed when the object is
+ * updated or deleted through the same RedmineConnector.
+ *
+ * <p>
+ * Response contents are cached, not the object, so every 304 response gets a new object. Caller can change it and
+ * update it on Redmine Server, without affecting the objects returned to other callers.
+ *
+ * @author Mohit Gupta [mohit.gupta@vedantatree.com]
+ * @since 1.2.0
+ */
+public class ConditionalGetCache
+{
+
+	/**
+	 * Entries in least recently used order. Access is synchronized on this map.
+	 */
+	private LinkedHashMap<String, CachedResponse>	entries;
+
+	private int										maxEntries;
+
+	private AtomicLong								notModifiedCount	= new AtomicLong();
+	private AtomicLong								modifiedCount		= new AtomicLong();
+
+	/**
+	 * @param maxEntries Maximum number of responses to keep in cache
+	 */
+	public ConditionalGetCache( final int maxEntries )
+	{
+		if( maxEntries <= 0 )
+		{
+			throw new IllegalArgumentException( "Max entries must be greater than zero. maxEntries[" + maxEntries + "]" );
+		}
+		this.maxEntries = maxEntries;
+		this.entries = new LinkedHashMap<String, CachedResponse>( 16, 0.75f, true )
+		{
+
+			protected boolean removeEldestEntry( Map.Entry<String, CachedResponse> eldest )
+			{
+				return size() > maxEntries;
+			}
+		};
+	}
+
+	CachedResponse get( String URL )
+	{
+		synchronized( entries )
+		{
+			return entries.get( URL );
+		}
+	}
+
+	/**
+	 * Keeps the response contents for given URL. Response is cached only if server has sent any validator with it.
+	 */
+	void put( String URL, Tag tag, Date modificationDate, byte[] contents, String characterSet )
+	{
+		synchronized( entries )
+		{
+			if( tag == null && modificationDate == null )
+			{
+				entries.remove( URL );
+				return;
+			}
+			entries.put( URL, new CachedResponse( tag, modificationDate, contents, characterSet ) );
+		}
+	}
+
+	/**
+	 * Removes the entries for given object URL. URL is matched with and without the 'includes' parameter.
+	 *
+	 * @param objectURL URL of the object, as built for update or delete request
+	 */
+	void invalidate( String objectURL )
+	{
+		String includesPrefix = objectURL + "&";
+		synchronized( entries )
+		{
+			for( Iterator<String> iterator = entries.keySet().iterator(); iterator.hasNext(); )
+			{
+				String URL = iterator.next();
+				if( URL.equals( objectURL ) || URL.startsWith( includesPrefix ) )
+				{
+					iterator.remove();
+				}
+			}
+		}
+	}
+
+	void recordNotModified()
+	{
+		notModifiedCount.incrementAndGet();
+	}
+
+	void recordModified()
+	{
+		modifiedCount.incrementAndGet();
+	}
+
+	/**
+	 * Removes all the entries from cache
+	 */
+	public void clear()
+	{
+		synchronized( entries )
+		{
+			entries.clear();
+		}
+	}
+
+	/**
+	 * @return Number of responses currently kept in cache
+	 */
+	public int size()
+	{
+		synchronized( entries )
+		{
+			return entries.size();
+		}
+	}
+
+	public int getMaxEntries()
+	{
+		return maxEntries;
+	}
+
+	/**
+	 * @return Number of requests for which server replied 'Not Modified' and object was built from cached response
+	 */
+	public long getNotModifiedCount()
+	{
+		return notModifiedCount.get();
+	}
+
+	/**
+	 * @return Number of requests for which response was downloaded and parsed
+	 */
+	public long getModifiedCount()
+	{
+		return modifiedCount.get();
+	}
+
+	public String toString()
+	{
+		return "ConditionalGetCache@" + hashCode() + ": size[" + size() + "] maxEntries[" + maxEntries
+				+ "] notModified[" + getNotModifiedCount() + "] modified[" + getModifiedCount() + "]";
+	}
+
+	/**
+	 * Response contents fetched for a URL with the validators sent by server
+	 */
+	static class CachedResponse
+	{
+
+		private Tag		tag;
+		private Date	modificationDate;
+		private byte[]	contents;
+		private String	characterSet;
+
+		CachedResponse( Tag tag, Date modificationDate, byte[] contents, String characterSet )
+		{
+			this.tag = tag;
+			this.modificationDate = modificationDate;
+			this.contents = contents;
+			this.characterSet = characterSet;
+		}
+
+		Tag getTag()
+		{
+			return tag;
+		}
+
+		Date getModificationDate()
+		{
+			return modificationDate;
+		}
+
+		/**
+		 * @return Stream over the cached response contents, new for every call
+		 */
+		InputStream getContents()
+		{
+			return new ByteArrayInputStream( contents );
+		}
+
+		/**
+		 * @return Character set of response, null if server did not specify it
+		 */
+		String getCharacterSet()
+		{
+			return characterSet;
+		}
+	}
+
+}
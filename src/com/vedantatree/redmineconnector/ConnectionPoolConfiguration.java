@@ -0,0 +1,112 @@
+package com.vedantatree.redmineconnector;
+
+/**
+ * This object holds the settings for the HTTP connection pool which is owned by a RedmineConnector instance. All
+ * requests from one RedmineConnector are sent over this pool, so that TCP (and TLS) connections to Redmine Server are
+ * kept alive and reused across the calls instead of being opened for every request.
+ *
+ * <p>
+ * Default values are suitable for most of the cases. Values can be changed before passing the configuration to
+ * RedmineConnector constructor. Any change after that will not be picked up by the pool.
+ *
+ * @author Mohit Gupta [mohit.gupta@vedantatree.com]
+ * @since 1.2.0
+ */
+public class ConnectionPoolConfiguration
+{
+
+	/**
+	 * Maximum number of connections which can be opened to one host at a time. Further requests are queued on existing
+	 * connections.
+	 */
+	private int		maxConnectionsPerHost		= 10;
+
+	/**
+	 * Maximum number of connections which can be opened by the pool across all hosts. -1 means no limit.
+	 */
+	private int		maxTotalConnections			= 50;
+
+	/**
+	 * Time in milliseconds after which a connection, which is not used by any request, is closed and removed from the
+	 * pool. Zero or negative value means idle connections are never evicted by pool.
+	 */
+	private long	idleConnectionTimeout		= 60 * 1000;
+
+	/**
+	 * Whether connections should be kept alive after the response is read, so that these can be reused by next
+	 * requests.
+	 */
+	private boolean	keepAlive					= true;
+
+	public ConnectionPoolConfiguration()
+	{
+	}
+
+	public ConnectionPoolConfiguration( int maxConnectionsPerHost, int maxTotalConnections, long idleConnectionTimeout,
+			boolean keepAlive )
+	{
+		setMaxConnectionsPerHost( maxConnectionsPerHost );
+		setMaxTotalConnections( maxTotalConnections );
+		setIdleConnectionTimeout( idleConnectionTimeout );
+		setKeepAlive( keepAlive );
+	}
+
+	public int getMaxConnectionsPerHost()
+	{
+		return maxConnectionsPerHost;
+	}
+
+	public void setMaxConnectionsPerHost( int maxConnectionsPerHost )
+	{
+		if( maxConnectionsPerHost <= 0 )
+		{
+			throw new IllegalArgumentException( "Max connections per host must be greater than zero. maxConnectionsPerHost["
+					+ maxConnectionsPerHost + "]" );
+		}
+		this.maxConnectionsPerHost = maxConnectionsPerHost;
+	}
+
+	public int getMaxTotalConnections()
+	{
+		return maxTotalConnections;
+	}
+
+	public void setMaxTotalConnections( int maxTotalConnections )
+	{
+		if( maxTotalConnections == 0 || maxTotalConnections < -1 )
+		{
+			throw new IllegalArgumentException(
+					"Max total connections must be greater than zero, or -1 for no limit. maxTotalConnections["
+							+ maxTotalConnections + "]" );
+		}
+		this.maxTotalConnections = maxTotalConnections;
+	}
+
+	public long getIdleConnectionTimeout()
+	{
+		return idleConnectionTimeout;
+	}
+
+	public void setIdleConnectionTimeout( long idleConnectionTimeout )
+	{
+		this.idleConnectionTimeout = idleConnectionTimeout;
+	}
+
+	public boolean isKeepAlive()
+	{
+		return keepAlive;
+	}
+
+	public void setKeepAlive( boolean keepAlive )
+	{
+		this.keepAlive = keepAlive;
+	}
+
+	public String toString()
+	{
+		return "ConnectionPoolConfiguration@" + hashCode() + ": maxConnectionsPerHost[" + maxConnectionsPerHost
+				+ "] maxTotalConnections[" + maxTotalConnections + "] idleConnectionTimeout[" + idleConnectionTimeout
+				+ "] keepAlive[" + keepAlive + "]";
+	}
+
+}
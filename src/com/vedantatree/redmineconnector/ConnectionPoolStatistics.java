@@ -0,0 +1,89 @@
+package com.vedantatree.redmineconnector;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+
+/**
+ * This object keeps the usage statistics of the HTTP connection pool of a RedmineConnector. A 'hit' means request was
+ * sent over an already opened connection, and a 'miss' means a new connection has to be opened for the request.
+ *
+ * <p>
+ * Counters are updated concurrently by request threads, so values read by user are a close snapshot only.
+ *
+ * @author Mohit Gupta [mohit.gupta@vedantatree.com]
+ * @since 1.2.0
+ */
+public class ConnectionPoolStatistics
+{
+
+	private AtomicLong	hitCount		= new AtomicLong();
+	private AtomicLong	missCount		= new AtomicLong();
+	private AtomicLong	evictionCount	= new AtomicLong();
+
+	ConnectionPoolStatistics()
+	{
+	}
+
+	void recordHit()
+	{
+		hitCount.incrementAndGet();
+	}
+
+	void recordMiss()
+	{
+		missCount.incrementAndGet();
+	}
+
+	void recordEviction()
+	{
+		evictionCount.incrementAndGet();
+	}
+
+	/**
+	 * @return Number of requests which were served by an existing pooled connection
+	 */
+	public long getHitCount()
+	{
+		return hitCount.get();
+	}
+
+	/**
+	 * @return Number of requests for which a new connection had to be opened
+	 */
+	public long getMissCount()
+	{
+		return missCount.get();
+	}
+
+	/**
+	 * @return Number of connections closed by pool because these were idle for more than configured time
+	 */
+	public long getEvictionCount()
+	{
+		return evictionCount.get();
+	}
+
+	/**
+	 * @return Total number of requests sent through the pool
+	 */
+	public long getRequestCount()
+	{
+		return getHitCount() + getMissCount();
+	}
+
+	/**
+	 * @return Ratio of hits to total requests, between 0 and 1. Returns 0 if no request has been sent yet.
+	 */
+	public double getHitRatio()
+	{
+		long requestCount = getRequestCount();
+		return requestCount == 0 ? 0 : (double) getHitCount() / requestCount;
+	}
+
+	public String toString()
+	{
+		return "ConnectionPoolStatistics@" + hashCode() + ": hits[" + getHitCount() + "] misses[" + getMissCount()
+				+ "] evictions[" + getEvictionCount() + "] hitRatio[" + getHitRatio() + "]";
+	}
+
+}
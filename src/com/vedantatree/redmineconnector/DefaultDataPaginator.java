@@ -1,19 +1,51 @@
 package com.vedantatree.redmineconnector;
 
 import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.LinkedList;
 import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
 
 import org.apache.commons.logging.Log;
 import org.apache.commons.logging.LogFactory;
 
 import com.vedantatree.redmineconnector.bdo.RedmineBDO;
 import com.vedantatree.redmineconnector.bdo.RedmineBDOContainer;
+import com.vedantatree.redmineconnector.utils.LongHashSet;
 import com.vedantatree.redmineconnector.utils.Utilities;
 
 
 /**
  * This class provides the default implementation of RedmineDataPaginator interface.
  * 
+ * <p>
+ * By default, pages are fetched one after another, when user asks for the next page. Optionally, parallel prefetch can
+ * be enabled using 'enableParallelPrefetch'. In this mode, once the first page tells the total record count, paginator
+ * requests the following pages concurrently, keeping at most the specified number of requests in flight. Pages are
+ * still returned to user in order. If paginator creates the prefetch executor itself, it is shut down once all pages are
+ * returned or a page fails. A caller which stops reading before that, like breaking out of a loop over the iterator,
+ * should call 'close' to cancel the pending page requests and release the executor.
+ * 
+ * <p>
+ * Paginator can also be used as Iterable. Its iterator fetches the pages lazily, so that only current page (and
+ * prefetched pages, if enabled) are held in memory at a time. For processing the records in parallel, 'split' divides
+ * the remaining records into independent paginators over separate offset ranges.
+ * 
+ * <p>
+ * A long scan can be resumed after a failure. 'getCheckpoint' tells how far records have been returned, and
+ * 'resumeFrom' starts a new paginator for same request from there. With 'setCheckpointStore', paginator writes the
+ * checkpoint to a file itself every few pages.
+ * 
+ * <p>
+ * With 'enableAdaptivePageSize', page size is adjusted after every page towards a target response size and/or response
+ * time, measured for the pages fetched so far.
+ * 
  * TODO should we change all int to long, as record count can go in long values.
  * 
  * @author Mohit Gupta [mohit.gupta@vedantatree.com]
@@ -22,12 +54,17 @@ import com.vedantatree.redmineconnector.utils.Utilities;
 public class DefaultDataPaginator implements RedmineDataPaginator
 {
 
-	private static Log	LOGGER				= LogFactory.getLog( DefaultDataPaginator.class );
+	private static Log								LOGGER					= LogFactory.getLog( DefaultDataPaginator.class );
+
+	/**
+	 * Time in seconds after which an idle thread of prefetch executor created by paginator ends
+	 */
+	private static long								PREFETCH_KEEP_ALIVE		= 30;
 
 	/**
 	 * It represents the type of RedmineBDO which this paginator will return for every user request.
 	 */
-	private Class		bdoContainerType;
+	private Class									bdoContainerType;
 
 	/**
 	 * It tells us the record count which this pagination component should return to end user as one page. It will be
@@ -41,19 +78,19 @@ public class DefaultDataPaginator implements RedmineDataPaginator
 	 * <p>
 	 * Alternatively, user can use 'getAllRecords' method to fetch all the records.
 	 */
-	private int			pageSize			= 25;
+	private int										pageSize				= 25;
 
 	/**
 	 * It is the index of start page. Pagination component will fetch the data starting from this page. It will be set
 	 * by user of API.
 	 */
-	private long		startRecordIndex;
+	private long									startRecordIndex;
 
 	/**
 	 * It will tell us the index of current page, which is being processed for user request. It will be set by component
 	 * itself whenever user will fetch the records using getNextPageRecords method.
 	 */
-	private long		recordIndexToStartRetrieval;
+	private long									recordIndexToStartRetrieval;
 
 	/**
 	 * It is the total number of records this pagination component can return for current data request by user. For
@@ -61,12 +98,91 @@ public class DefaultDataPaginator implements RedmineDataPaginator
 	 * of projects exist in Redmine. However, total number of records returned in one 'getNextPageRecords' method are
 	 * dependent on 'pageSize' attribute.
 	 */
-	private long		totalRecordCount	= Long.MIN_VALUE;
+	private long									totalRecordCount		= Long.MIN_VALUE;
 
 	/**
 	 * Redmine URL for calling restlet service
 	 */
-	private String		requestURL;
+	private String									requestURL;
+
+	/**
+	 * RedmineConnector which is used to fetch the pages. If it is not specified, shared instance is used.
+	 */
+	private RedmineConnector						redmineConnector;
+
+	/**
+	 * Maximum number of page requests which can be in flight at a time in parallel prefetch mode. Value one or less
+	 * means pages are fetched serially.
+	 */
+	private int										prefetchParallelism		= 1;
+
+	/**
+	 * Whether parallel prefetch has been enabled for this paginator
+	 */
+	private boolean									prefetchEnabled;
+
+	/**
+	 * Executor used to fetch the pages in parallel prefetch mode. If it is owned by paginator, it is created only when
+	 * first page is prefetched.
+	 */
+	private ExecutorService							prefetchExecutorService;
+
+	/**
+	 * Whether prefetch executor was created by this paginator, and hence should be shut down by it
+	 */
+	private boolean									ownPrefetchExecutorService;
+
+	/**
+	 * Whether prefetch has been stopped, after last page or after a failure. Pages are fetched serially after that.
+	 */
+	private boolean									prefetchStopped;
+
+	/**
+	 * Pages which have been requested in parallel prefetch mode but not yet returned to user, in order of offset
+	 */
+	private LinkedList<Future<RedmineBDOContainer>>	prefetchedPages			= new LinkedList<Future<RedmineBDOContainer>>();
+
+	/**
+	 * Offsets of the pages in 'prefetchedPages', in same order
+	 */
+	private LinkedList<Long>						prefetchedOffsets		= new LinkedList<Long>();
+
+	/**
+	 * Offset of the next page to be requested in parallel prefetch mode
+	 */
+	private long									nextOffsetToPrefetch	= -1;
+
+	/**
+	 * Number of records per page as applied by Redmine Server for first page. It is used as distance between offsets
+	 * while prefetching pages.
+	 */
+	private int										serverPageSize;
+
+	/**
+	 * Index of record (exclusive) where this paginator should stop. It is set for paginators created by 'split', so
+	 * that every part covers its own offset range only. For other paginators, there is no limit.
+	 */
+	private long									endRecordIndex			= Long.MAX_VALUE;
+
+	/**
+	 * Store to write the checkpoint to, null if not set
+	 */
+	private FileCheckpointStore						checkpointStore;
+
+	/**
+	 * Checkpoint is written to store after every these many pages
+	 */
+	private int										pagesPerCheckpoint;
+
+	/**
+	 * Number of pages returned by this paginator
+	 */
+	private long									returnedPageCount;
+
+	/**
+	 * Computes the page size for next page if adaptive page size is enabled, null otherwise
+	 */
+	private AdaptivePageSizer						adaptivePageSizer;
 
 	public DefaultDataPaginator( Class bdoContainerType, String requestURL )
 	{
@@ -90,6 +206,192 @@ public class DefaultDataPaginator implements RedmineDataPaginator
 		validate();
 	}
 
+	DefaultDataPaginator( RedmineConnector redmineConnector, Class bdoContainerType, String requestURL,
+			long startRecordIndex, int pageSize )
+	{
+		this( bdoContainerType, requestURL, startRecordIndex, pageSize );
+		this.redmineConnector = redmineConnector;
+	}
+
+	/**
+	 * It enables the parallel prefetch of pages with an executor created by this paginator. The executor is created
+	 * only when first page is prefetched, with 'parallelism' threads, and is shut down once all pages are returned or a
+	 * page fails. If records are not read till the end, 'close' should be called to shut it down. Its threads also end
+	 * after remaining idle for a while, so an abandoned paginator does not hold them.
+	 * 
+	 * @param parallelism Maximum number of page requests in flight at a time
+	 * @since 1.2.0
+	 */
+	public void enableParallelPrefetch( int parallelism )
+	{
+		enableParallelPrefetch( parallelism, null, true );
+	}
+
+	/**
+	 * It enables the parallel prefetch of pages with the given executor. Pages after the first one are requested
+	 * concurrently, keeping at most 'parallelism' requests in flight. Executor is owned by caller and is not shut down by
+	 * paginator.
+	 * 
+	 * @param parallelism Maximum number of page requests in flight at a time
+	 * @param executorService Executor to run the page requests
+	 * @since 1.2.0
+	 */
+	public void enableParallelPrefetch( int parallelism, ExecutorService executorService )
+	{
+		enableParallelPrefetch( parallelism, executorService, false );
+	}
+
+	private void enableParallelPrefetch( int parallelism, ExecutorService executorService,
+			boolean ownExecutorService )
+	{
+		if( !ownExecutorService )
+		{
+			Utilities.assertNotNullArgument( executorService, "executorService" );
+		}
+		if( parallelism < 1 )
+		{
+			throw new RCRuntimeException( RCRuntimeException.ILLEGAL_ARGUMENT,
+					"Prefetch parallelism must be one or more. parallelism[" + parallelism + "]" );
+		}
+		if( prefetchEnabled )
+		{
+			throw new RCRuntimeException( RCRuntimeException.ILLEGAL_STATE,
+					"Parallel prefetch has already been enabled for this paginator" );
+		}
+		if( adaptivePageSizer != null )
+		{
+			throw new RCRuntimeException( RCRuntimeException.ILLEGAL_STATE,
+					"Parallel prefetch can not be enabled with adaptive page size, as prefetch needs fixed page size" );
+		}
+		this.prefetchEnabled = true;
+		this.prefetchParallelism = parallelism;
+		this.prefetchExecutorService = executorService;
+		this.ownPrefetchExecutorService = ownExecutorService;
+	}
+
+	/**
+	 * It enables the adaptive page size. After every page, its response size in bytes and response time are measured,
+	 * and page size for next page is set so that pages remain near the given targets. Page size remains between given
+	 * min and max, and is not raised beyond the limit applied by server. Current page size is used for first page, or
+	 * Redmine default of 25 if it is not set.
+	 * 
+	 * <p>
+	 * It is useful when size of records is not known in advance, like issues with big descriptions or journals.
+	 * Adaptive page size can not be used with parallel prefetch, and parts created by 'split' use fixed page size.
+	 * 
+	 * @param minPageSize Smallest page size to use, one or more
+	 * @param maxPageSize Biggest page size to use, up to REDMINE_MAX_PAGE_SIZE
+	 * @param targetPageBytes Target size of response of one page in bytes, zero to not apply it
+	 * @param targetPageLatencyMillis Target response time of one page in milliseconds, zero to not apply it
+	 * @since 1.2.0
+	 */
+	public void enableAdaptivePageSize( int minPageSize, int maxPageSize, long targetPageBytes,
+			long targetPageLatencyMillis )
+	{
+		if( prefetchEnabled )
+		{
+			throw new RCRuntimeException( RCRuntimeException.ILLEGAL_STATE,
+					"Adaptive page size can not be enabled with parallel prefetch, as prefetch needs fixed page size" );
+		}
+		adaptivePageSizer = new AdaptivePageSizer( pageSize > 0 ? pageSize : 25, minPageSize, maxPageSize,
+				targetPageBytes, targetPageLatencyMillis );
+		pageSize = adaptivePageSizer.getPageSize();
+	}
+
+	/**
+	 * It returns the checkpoint for current state of paginator. Paginator resumed from it starts from the first record
+	 * which is not yet returned by this paginator.
+	 * 
+	 * @return Checkpoint of this paginator
+	 * @since 1.2.0
+	 */
+	public PaginatorCheckpoint getCheckpoint()
+	{
+		return new PaginatorCheckpoint( bdoContainerType, requestURL, endRecordIndex, recordIndexToStartRetrieval,
+				totalRecordCount );
+	}
+
+	/**
+	 * It moves this paginator to the given checkpoint, so that it returns the records from where the paginator of
+	 * checkpoint had stopped. Checkpoint must be of the same request, i.e. same type, filters and includes. It should
+	 * be called before fetching any record from this paginator.
+	 * 
+	 * <p>
+	 * Offsets are used as such, so if records have been created or deleted on server meanwhile, some records may be
+	 * skipped or returned again, same as for an uninterrupted scan.
+	 * 
+	 * @param checkpoint Checkpoint to resume from
+	 * @throws RCException If checkpoint is not of the same request, or if records have already been fetched
+	 * @since 1.2.0
+	 */
+	public void resumeFrom( PaginatorCheckpoint checkpoint ) throws RCException
+	{
+		LOGGER.trace( "resumeFrom: checkpoint[" + checkpoint + "]" );
+		Utilities.assertNotNullArgument( checkpoint, "checkpoint" );
+
+		if( returnedPageCount > 0 || nextOffsetToPrefetch >= 0 )
+		{
+			throw new RCException( RCException.ILLEGAL_STATE,
+					"Paginator can be resumed only before fetching any record. recordIndexToStartRetrieval["
+							+ recordIndexToStartRetrieval + "]" );
+		}
+		if( !bdoContainerType.getName().equals( checkpoint.getBdoContainerTypeName() )
+				|| !URLBuilder.removeSecurityKey( requestURL ).equals( checkpoint.getRequestURL() )
+				|| endRecordIndex != checkpoint.getEndRecordIndex() )
+		{
+			throw new RCException( RCException.ILLEGAL_ARGUMENT,
+					"Checkpoint is not of the request of this paginator. checkpoint[" + checkpoint
+							+ "] bdoContainerType[" + bdoContainerType.getName() + "] endRecordIndex["
+							+ endRecordIndex + "]" );
+		}
+		if( checkpoint.getRecordIndexToStartRetrieval() < startRecordIndex )
+		{
+			throw new RCException( RCException.ILLEGAL_ARGUMENT,
+					"Checkpoint is before the start record index of this paginator. checkpoint[" + checkpoint
+							+ "] startRecordIndex[" + startRecordIndex + "]" );
+		}
+
+		recordIndexToStartRetrieval = checkpoint.getRecordIndexToStartRetrieval();
+		totalRecordCount = checkpoint.getTotalRecordCount();
+	}
+
+	/**
+	 * It sets the store to which paginator writes its checkpoint every 'pagesPerCheckpoint' pages. Checkpoint is
+	 * written when next page is asked for, so it covers only the pages which caller has finished with. It is deleted
+	 * from store when 'hasMoreRecords' is asked for after the last page.
+	 * 
+	 * @param checkpointStore Store for checkpoint, null to stop writing the checkpoints
+	 * @param pagesPerCheckpoint Number of pages after which checkpoint is written
+	 * @since 1.2.0
+	 */
+	public void setCheckpointStore( FileCheckpointStore checkpointStore, int pagesPerCheckpoint )
+	{
+		if( pagesPerCheckpoint < 1 )
+		{
+			throw new RCRuntimeException( RCRuntimeException.ILLEGAL_ARGUMENT,
+					"Pages per checkpoint must be one or more. pagesPerCheckpoint[" + pagesPerCheckpoint + "]" );
+		}
+		this.checkpointStore = checkpointStore;
+		this.pagesPerCheckpoint = pagesPerCheckpoint;
+	}
+
+	/**
+	 * Writes the checkpoint to store, if set, before the next page is fetched. At this point, caller has finished with
+	 * all the pages returned so far.
+	 */
+	private void saveCheckpoint() throws RCException
+	{
+		if( checkpointStore != null && returnedPageCount > 0 && returnedPageCount % pagesPerCheckpoint == 0 )
+		{
+			checkpointStore.save( getCheckpoint() );
+		}
+	}
+
+	private RedmineConnector getRedmineConnector()
+	{
+		return redmineConnector != null ? redmineConnector : RedmineConnector.getSharedInstance();
+	}
+
 	private void validate()
 	{
 		RCRuntimeException rcrException = null;
@@ -122,8 +424,38 @@ public class DefaultDataPaginator implements RedmineDataPaginator
 
 	private String prepareRequestURL()
 	{
+		return prepareRequestURL( getRecordIndexToStartRetrieval() );
+	}
+
+	private String prepareRequestURL( long offset )
+	{
+		return requestURL + "&offset=" + offset + "&limit=" + getPageSize();
+	}
+
+	private RedmineBDOContainer fetchPage( long offset ) throws RCException
+	{
+		return (RedmineBDOContainer) getRedmineConnector().getRedmineObject( prepareRequestURL( offset ),
+				bdoContainerType );
+	}
+
+	/**
+	 * It fetches the page while measuring its response size and time, and sets the page size for next page as computed
+	 * by adaptive page sizer. Response time is measured by transport for the successful attempt only, so waits for
+	 * limiters and retries do not make the pages look slow.
+	 */
+	private RedmineBDOContainer fetchAdaptivePage( long offset ) throws RCException
+	{
+		RedmineConnector connector = getRedmineConnector();
+		AdaptivePageSizer.PageMeasuringResponseHandler responseHandler = new AdaptivePageSizer.PageMeasuringResponseHandler(
+				connector.newXMLResponseHandler( bdoContainerType ) );
+
+		RedmineBDOContainer page = (RedmineBDOContainer) connector.getRedmineResponse( prepareRequestURL( offset ),
+				responseHandler );
 
-		return requestURL + "&offset=" + getRecordIndexToStartRetrieval() + "&limit=" + getPageSize();
+		List<RedmineBDO> records = page.getRedmineDataObjects();
+		pageSize = adaptivePageSizer.recordPage( page.getLimit(), records == null ? 0 : records.size(),
+				responseHandler.getByteCount(), responseHandler.getLatency() );
+		return page;
 	}
 
 	// @Override
@@ -161,6 +493,22 @@ public class DefaultDataPaginator implements RedmineDataPaginator
 		LOGGER.trace( "hasMoreRecords: totalRecordCount[" + totalRecordCount + "] recordIndexToStartRetrieval["
 				+ recordIndexToStartRetrieval + "]" );
 
+		boolean hasMoreRecords = hasPendingRecords();
+
+		// caller asks it after finishing with the last page, so checkpoint is no more required
+		if( !hasMoreRecords && checkpointStore != null && returnedPageCount > 0 )
+		{
+			checkpointStore.delete();
+		}
+		return hasMoreRecords;
+	}
+
+	private boolean hasPendingRecords()
+	{
+		if( recordIndexToStartRetrieval >= endRecordIndex )
+		{
+			return false;
+		}
 		long pendingRecords = totalRecordCount;
 		if( pendingRecords != Long.MIN_VALUE )
 		{
@@ -169,12 +517,24 @@ public class DefaultDataPaginator implements RedmineDataPaginator
 		return pendingRecords == Long.MIN_VALUE || pendingRecords > 0;
 	}
 
+	/**
+	 * @return Index of record (exclusive) up to which this paginator will return the records, considering the total
+	 *         record count (if known) and the end of range (if split)
+	 */
+	private long getLastRecordIndex()
+	{
+		return totalRecordCount == Long.MIN_VALUE ? endRecordIndex : Math.min( totalRecordCount, endRecordIndex );
+	}
+
 	// @Override
 	public List<RedmineBDO> nextPageRecords() throws RCException
 	{
-		LOGGER.trace( "nextPageRecords: preparedRequestURL[" + prepareRequestURL() + "]" );
+		if( LOGGER.isTraceEnabled() )
+		{
+			LOGGER.trace( "nextPageRecords: preparedRequestURL[" + prepareRequestURL() + "]" );
+		}
 
-		if( totalRecordCount != Long.MIN_VALUE && recordIndexToStartRetrieval >= totalRecordCount )
+		if( recordIndexToStartRetrieval >= getLastRecordIndex() )
 		{
 			throw new RCException(
 					RCException.ILLEGAL_STATE,
@@ -182,27 +542,68 @@ public class DefaultDataPaginator implements RedmineDataPaginator
 							+ recordIndexToStartRetrieval + "] totalRecordCount[" + totalRecordCount + "]" );
 		}
 
-		RedmineBDOContainer redmineBDOContainer = (RedmineBDOContainer) RedmineConnector.getSharedInstance()
-				.getRedmineObject( prepareRequestURL(), bdoContainerType );
+		saveCheckpoint();
 
-		LOGGER.debug( "nextPageRecord-Container[" + redmineBDOContainer + "]" );
+		// page size may be changed by adaptive page sizer while fetching the page
+		int requestedPageSize = getPageSize();
+		RedmineBDOContainer redmineBDOContainer;
+		if( isPrefetching() )
+		{
+			redmineBDOContainer = nextPrefetchedPage();
+		}
+		else if( adaptivePageSizer != null )
+		{
+			redmineBDOContainer = fetchAdaptivePage( recordIndexToStartRetrieval );
+		}
+		else
+		{
+			redmineBDOContainer = fetchPage( recordIndexToStartRetrieval );
+		}
+
+		if( LOGGER.isDebugEnabled() )
+		{
+			LOGGER.debug( "nextPageRecord-Container[" + WireLogger.abbreviate( redmineBDOContainer ) + "]" );
+		}
 
 		List<RedmineBDO> objectsToReturn = redmineBDOContainer.getRedmineDataObjects();
 
 		if( objectsToReturn == null )
 		{
 			totalRecordCount = 0;
+			stopPrefetch();
 			return null;
 		}
 
-		if( objectsToReturn.size() > getPageSize() )
+		if( objectsToReturn.size() > requestedPageSize )
 		{
 			throw new RCException( RCException.ILLEGAL_STATE, "size of list of objects returned is not correct. size["
 					+ ( objectsToReturn == null ? "null" : "" + objectsToReturn.size() ) + "]" );
 		}
 
-		recordIndexToStartRetrieval += objectsToReturn.size();
 		totalRecordCount = redmineBDOContainer.getTotalCount();
+		if( objectsToReturn.size() == 0 )
+		{
+			// records have been deleted on server after total count was computed. Nothing more to return.
+			totalRecordCount = recordIndexToStartRetrieval;
+		}
+
+		// last page of a split range may contain records of next range
+		if( recordIndexToStartRetrieval + objectsToReturn.size() > endRecordIndex )
+		{
+			objectsToReturn = new ArrayList<RedmineBDO>( objectsToReturn.subList( 0,
+					(int) ( endRecordIndex - recordIndexToStartRetrieval ) ) );
+		}
+		recordIndexToStartRetrieval += objectsToReturn.size();
+		if( serverPageSize <= 0 )
+		{
+			serverPageSize = redmineBDOContainer.getLimit() > 0 ? redmineBDOContainer.getLimit() : objectsToReturn
+					.size();
+		}
+		returnedPageCount++;
+		if( !hasPendingRecords() )
+		{
+			stopPrefetch();
+		}
 
 		LOGGER.debug( "objectsToReturn[" + objectsToReturn.size() + "] totalRecordCount[" + totalRecordCount
 				+ "] recordIndexToStartRetrieval[" + recordIndexToStartRetrieval + "]" );
@@ -210,21 +611,281 @@ public class DefaultDataPaginator implements RedmineDataPaginator
 		return objectsToReturn;
 	}
 
+	/**
+	 * Prefetch is started only after first page is fetched, as total count and page size applied by server are known
+	 * only after that. Once stopped, like after a failed page, it is not started again.
+	 */
+	private boolean isPrefetching()
+	{
+		return prefetchEnabled && !prefetchStopped && prefetchParallelism > 1
+				&& totalRecordCount != Long.MIN_VALUE && serverPageSize > 0;
+	}
+
+	/**
+	 * It returns the next page from prefetched pages, in order of offset. Before and after waiting for the page, it
+	 * submits requests for following pages so that configured number of requests remain in flight.
+	 * 
+	 * <p>
+	 * If records have been deleted on server, a page may have less records than server page size, and next record does
+	 * not start at the offset of next prefetched page. In that case, prefetched pages are dropped and next page is
+	 * fetched directly from the offset of next record. Prefetch continues after that page.
+	 */
+	private RedmineBDOContainer nextPrefetchedPage() throws RCException
+	{
+		if( nextOffsetToPrefetch < 0 )
+		{
+			nextOffsetToPrefetch = recordIndexToStartRetrieval;
+		}
+		submitPrefetchRequests();
+
+		if( prefetchedPages.isEmpty() || prefetchedOffsets.getFirst().longValue() != recordIndexToStartRetrieval )
+		{
+			LOGGER.debug( "prefetched pages do not start at next record, fetching it directly. recordIndexToStartRetrieval["
+					+ recordIndexToStartRetrieval + "] prefetchedOffsets" + prefetchedOffsets );
+			cancelPrefetchedPages();
+			nextOffsetToPrefetch = recordIndexToStartRetrieval + serverPageSize;
+			return fetchPage( recordIndexToStartRetrieval );
+		}
+
+		prefetchedOffsets.removeFirst();
+		Future<RedmineBDOContainer> pageFuture = prefetchedPages.removeFirst();
+		try
+		{
+			RedmineBDOContainer page = pageFuture.get();
+			submitPrefetchRequests();
+			return page;
+		}
+		catch( InterruptedException e )
+		{
+			stopPrefetch();
+			Thread.currentThread().interrupt();
+			throw new RCException( RCException.ILLEGAL_STATE, "Interrupted while waiting for prefetched page", e );
+		}
+		catch( ExecutionException e )
+		{
+			stopPrefetch();
+			if( e.getCause() instanceof RCException )
+			{
+				throw (RCException) e.getCause();
+			}
+			throw new RCException( RCException.ILLEGAL_STATE, "Problem while prefetching page", e.getCause() );
+		}
+	}
+
+	private void submitPrefetchRequests()
+	{
+		if( prefetchExecutorService == null && nextOffsetToPrefetch < getLastRecordIndex() )
+		{
+			prefetchExecutorService = newPrefetchExecutorService( prefetchParallelism );
+		}
+		while( prefetchedPages.size() < prefetchParallelism && nextOffsetToPrefetch < getLastRecordIndex() )
+		{
+			final long offset = nextOffsetToPrefetch;
+			LOGGER.trace( "submitPrefetchRequests: offset[" + offset + "]" );
+
+			prefetchedPages.addLast( prefetchExecutorService.submit( new Callable<RedmineBDOContainer>()
+			{
+
+				public RedmineBDOContainer call() throws RCException
+				{
+					return fetchPage( offset );
+				}
+			} ) );
+			prefetchedOffsets.addLast( Long.valueOf( offset ) );
+			nextOffsetToPrefetch += serverPageSize;
+		}
+	}
+
+	/**
+	 * It cancels the pending prefetch requests and releases the executor if it is owned by this paginator. Next pages,
+	 * if asked for after a failure, are fetched serially.
+	 */
+	/**
+	 * It creates the executor owned by paginator, with one thread for each page request which can be in flight. Idle
+	 * threads end after a while, so threads are not held by a paginator which is not read further and not closed.
+	 */
+	private static ExecutorService newPrefetchExecutorService( int parallelism )
+	{
+		ThreadPoolExecutor executorService = new ThreadPoolExecutor( parallelism, parallelism,
+				PREFETCH_KEEP_ALIVE, TimeUnit.SECONDS, new LinkedBlockingQueue<Runnable>(),
+				AsyncRedmineConnector.newDaemonThreadFactory( "redmine-prefetch" ) );
+		executorService.allowCoreThreadTimeOut( true );
+		return executorService;
+	}
+
+	/**
+	 * It stops the parallel prefetch. Pending page requests are cancelled and executor is shut down, if it was created
+	 * by this paginator. It should be called if records are not read till the end, as prefetch stops by itself only
+	 * after last page or a failure. Next pages, if asked for after closing, are fetched serially. Calling it again has
+	 * no effect.
+	 * 
+	 * @since 1.2.0
+	 */
+	public void close()
+	{
+		if( prefetchEnabled && !prefetchStopped )
+		{
+			stopPrefetch();
+		}
+	}
+
+	private void stopPrefetch()
+	{
+		prefetchStopped = true;
+		cancelPrefetchedPages();
+
+		if( ownPrefetchExecutorService && prefetchExecutorService != null )
+		{
+			prefetchExecutorService.shutdown();
+		}
+	}
+
+	private void cancelPrefetchedPages()
+	{
+		for( Future<RedmineBDOContainer> pageFuture : prefetchedPages )
+		{
+			pageFuture.cancel( true );
+		}
+		prefetchedPages.clear();
+		prefetchedOffsets.clear();
+	}
+
 	// @Override
 	public List<RedmineBDO> getAllRecords() throws RCException
 	{
-
-		RedmineDataPaginator issuePaginator = RedmineConnector.getSharedInstance().getIssues();
+		// fetching with a new paginator for same criteria, so that state of this paginator is not disturbed
+		DefaultDataPaginator paginator = newPaginatorForRange( startRecordIndex, endRecordIndex );
 		List<RedmineBDO> bdos = new ArrayList<RedmineBDO>();
-		while( issuePaginator.hasMoreRecords() )
+		while( paginator.hasMoreRecords() )
 		{
-			List<RedmineBDO> issues = issuePaginator.nextPageRecords();
-			bdos.addAll( issues );
+			List<RedmineBDO> records = paginator.nextPageRecords();
+			if( records == null )
+			{
+				break;
+			}
+			bdos.addAll( records );
 		}
 
 		return bdos;
 	}
 
+	/**
+	 * It returns an iterator over the records of this paginator. Iterator fetches the next page only when records of
+	 * current page are consumed, so only one page is held by it at a time. Iterator uses this paginator for fetching
+	 * the pages, hence paginator should not be used directly while iterating.
+	 * 
+	 * <p>
+	 * Iterator methods can not throw RCException. Any problem while fetching the page is thrown as RCRuntimeException
+	 * with RCException as cause.
+	 * 
+	 * @return Lazy iterator over the remaining records of this paginator
+	 * @since 1.2.0
+	 */
+	public Iterator<RedmineBDO> iterator()
+	{
+		return new PaginatedRecordIterator( this );
+	}
+
+	/**
+	 * It divides the remaining records of this paginator into given number of independent paginators, each covering
+	 * a separate range of offsets. Ranges are aligned to page boundaries, so no record is fetched twice. Parts can be
+	 * iterated concurrently by different threads. Records of part N come before the records of part N+1.
+	 * 
+	 * <p>
+	 * If total record count is not known yet, a request for single record is sent to Redmine to find it. This
+	 * paginator itself should not be used for fetching records after splitting.
+	 * 
+	 * @param numberOfParts Maximum number of parts to divide the records in. Lesser parts are returned if there are not
+	 *        enough pages.
+	 * @return List of paginators covering remaining records, in order of offset. Empty list if there is no record.
+	 * @throws RCException If there is any problem while finding total record count
+	 * @since 1.2.0
+	 */
+	public List<DefaultDataPaginator> split( int numberOfParts ) throws RCException
+	{
+		LOGGER.trace( "split: numberOfParts[" + numberOfParts + "]" );
+
+		if( numberOfParts < 1 )
+		{
+			throw new RCException( RCException.ILLEGAL_ARGUMENT, "Number of parts must be one or more. numberOfParts["
+					+ numberOfParts + "]" );
+		}
+		if( totalRecordCount == Long.MIN_VALUE )
+		{
+			RedmineBDOContainer probe = (RedmineBDOContainer) getRedmineConnector().getRedmineObject(
+					requestURL + "&offset=" + recordIndexToStartRetrieval + "&limit=1", bdoContainerType );
+			totalRecordCount = probe.getTotalCount();
+		}
+
+		List<DefaultDataPaginator> parts = new ArrayList<DefaultDataPaginator>( numberOfParts );
+		long firstRecordIndex = recordIndexToStartRetrieval;
+		long lastRecordIndex = getLastRecordIndex();
+		if( firstRecordIndex >= lastRecordIndex )
+		{
+			return parts;
+		}
+
+		// Redmine applies page size of 25 if no limit is specified
+		long recordsPerPage = getPageSize() > 0 ? getPageSize() : 25;
+		long pageCount = ( lastRecordIndex - firstRecordIndex + recordsPerPage - 1 ) / recordsPerPage;
+		long recordsPerPart = ( ( pageCount + numberOfParts - 1 ) / numberOfParts ) * recordsPerPage;
+
+		for( long partStart = firstRecordIndex; partStart < lastRecordIndex; partStart += recordsPerPart )
+		{
+			parts.add( newPaginatorForRange( partStart, Math.min( lastRecordIndex, partStart + recordsPerPart ) ) );
+		}
+
+		LOGGER.debug( "split-parts[" + parts.size() + "] firstRecordIndex[" + firstRecordIndex + "] lastRecordIndex["
+				+ lastRecordIndex + "] recordsPerPart[" + recordsPerPart + "]" );
+		return parts;
+	}
+
+	/**
+	 * It reads only the ids of records of this paginator, from start index to the end of range, and adds these to given
+	 * set. Records are requested in pages as for 'getAllRecords', but only the ids are read from response XML and no
+	 * object is created. State of this paginator is not changed.
+	 * 
+	 * @param recordIds Set to add the ids to
+	 * @return Number of records scanned
+	 * @throws RCException If there is any problem while fetching the pages
+	 * @since 1.2.0
+	 */
+	long collectRecordIds( LongHashSet recordIds ) throws RCException
+	{
+		LOGGER.trace( "collectRecordIds: requestURL[" + requestURL + "] startRecordIndex[" + startRecordIndex + "]" );
+
+		RecordIdCollector recordIdCollector = new RecordIdCollector( recordIds );
+		long lastRecordIndex = endRecordIndex;
+		long offset = startRecordIndex;
+		while( offset < lastRecordIndex )
+		{
+			getRedmineConnector().getRedmineResponse( prepareRequestURL( offset ), recordIdCollector );
+
+			int pageRecordCount = recordIdCollector.getPageRecordCount();
+			if( pageRecordCount == 0 )
+			{
+				break;
+			}
+			offset += pageRecordCount;
+			if( recordIdCollector.getTotalCount() >= 0 )
+			{
+				lastRecordIndex = Math.min( recordIdCollector.getTotalCount(), endRecordIndex );
+			}
+		}
+
+		long scannedCount = offset - startRecordIndex;
+		LOGGER.debug( "collectRecordIds-scanned[" + scannedCount + "] recordIds[" + recordIds.size() + "]" );
+		return scannedCount;
+	}
+
+	private DefaultDataPaginator newPaginatorForRange( long rangeStartIndex, long rangeEndIndex )
+	{
+		DefaultDataPaginator paginator = new DefaultDataPaginator( redmineConnector, bdoContainerType, requestURL,
+				rangeStartIndex, pageSize );
+		paginator.endRecordIndex = rangeEndIndex;
+		return paginator;
+	}
+
 	public static void main( String[] args ) throws RCException
 	{
 		RedmineDataPaginator issuePaginator = RedmineConnector.getSharedInstance().getIssues();
@@ -0,0 +1,25 @@
+package com.vedantatree.redmineconnector;
+
+import com.vedantatree.redmineconnector.bdo.Issue;
+
+
+/**
+ * Handler to receive the issues found by DeltaSynchronizer. Implementation generally saves the issue to local store.
+ *
+ * @author Mohit Gupta [mohit.gupta@vedantatree.com]
+ * @since 1.2.0
+ */
+public interface DeltaSyncHandler
+{
+
+	/**
+	 * It is called for every issue which has been created or updated since last synchronization. Issues are passed in
+	 * the order of their 'updated on' time. If it throws exception, synchronization stops and high water mark remains
+	 * at the last issue handled successfully.
+	 *
+	 * @param issue Created or updated issue
+	 * @throws RCException If issue could not be handled
+	 */
+	void issueChanged( Issue issue ) throws RCException;
+
+}
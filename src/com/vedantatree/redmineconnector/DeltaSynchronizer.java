@@ -0,0 +1,407 @@
+package com.vedantatree.redmineconnector;
+
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Date;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.apache.commons.logging.Log;
+import org.apache.commons.logging.LogFactory;
+
+import com.vedantatree.redmineconnector.bdo.Issue;
+import com.vedantatree.redmineconnector.bdo.RedmineBDO;
+import com.vedantatree.redmineconnector.utils.DateCodec;
+import com.vedantatree.redmineconnector.utils.LongHashSet;
+import com.vedantatree.redmineconnector.utils.Utilities;
+
+
+/**
+ * DeltaSynchronizer fetches only those issues of a project which have been created or updated since last
+ * synchronization. It keeps a high water mark of 'updated on' time of issues for every project. Next synchronization
+ * asks the server only for issues updated on or after this mark, sorted by 'updated on'. First synchronization of a
+ * project fetches all of its issues.
+ *
+ * <p>
+ * Query starts a little before the high water mark, as per the clock skew tolerance, so that issues saved on server
+ * with a slightly older time than already seen issues are not missed. Issues which are received again due to this
+ * overlap, or because many issues have same 'updated on' time, are recognized by their id and 'updated on' time and
+ * are not passed to handler again.
+ *
+ * <p>
+ * Instead of paging with increasing offset, every next page is queried from the 'updated on' time of last received
+ * issue. So an issue which is updated during synchronization, and hence moves to the end of the sorted list, does not
+ * shift the pages and cause other issues to be skipped.
+ *
+ * <p>
+ * High water marks are kept in memory. Application can persist these using 'getHighWaterMark' and restore with
+ * 'setHighWaterMark'. Different projects can be synchronized in parallel, same project is synchronized by one thread
+ * at a time.
+ *
+ * <p>
+ * Deleted issues are not returned by the 'updated on' query. To find these, 'findDeletedIssues' scans the ids of all
+ * issues of a project and compares these with the ids known to application. Scan reads only the ids from the response,
+ * without creating the issue objects, so it takes much less time and memory than fetching all the issues.
+ *
+ * @author Mohit Gupta [mohit.gupta@vedantatree.com]
+ * @since 1.2.0
+ */
+public class DeltaSynchronizer
+{
+
+	private static Log				LOGGER							= LogFactory.getLog( DeltaSynchronizer.class );
+
+	private static String			FILTER_PROJECT_ID				= "project_id";
+	private static String			FILTER_STATUS_ID				= "status_id";
+	private static String			FILTER_UPDATED_ON				= "updated_on";
+	private static String			FILTER_SORT						= "sort";
+	private static String			SORT_BY_ID						= "id";
+
+	/**
+	 * Default time in milliseconds by which the query starts before the high water mark
+	 */
+	static long						DEFAULT_CLOCK_SKEW_TOLERANCE	= 5 * 60 * 1000;
+
+	private RedmineConnector		redmineConnector;
+
+	private int						pageSize						= RedmineDataPaginator.REDMINE_MAX_PAGE_SIZE;
+
+	private long					clockSkewTolerance				= DEFAULT_CLOCK_SKEW_TOLERANCE;
+
+	/**
+	 * 'include' criteria to fetch the issues with
+	 */
+	private Collection<String>		includes;
+
+	/**
+	 * Additional filters applied to issues query, along with the filters used for synchronization
+	 */
+	private Map<String, String>		additionalFilters;
+
+	/**
+	 * Synchronization state for every project id
+	 */
+	private Map<Long, SyncState>	syncStates						= new ConcurrentHashMap<Long, SyncState>();
+
+	/**
+	 * @param redmineConnector Connector to fetch the issues from
+	 */
+	public DeltaSynchronizer( RedmineConnector redmineConnector )
+	{
+		Utilities.assertNotNullArgument( redmineConnector, "redmineConnector" );
+		this.redmineConnector = redmineConnector;
+	}
+
+	public int getPageSize()
+	{
+		return pageSize;
+	}
+
+	public void setPageSize( int pageSize )
+	{
+		if( pageSize <= 0 || pageSize > RedmineDataPaginator.REDMINE_MAX_PAGE_SIZE )
+		{
+			throw new IllegalArgumentException( "Page size must be between 1 and "
+					+ RedmineDataPaginator.REDMINE_MAX_PAGE_SIZE + ". pageSize[" + pageSize + "]" );
+		}
+		this.pageSize = pageSize;
+	}
+
+	public long getClockSkewTolerance()
+	{
+		return clockSkewTolerance;
+	}
+
+	/**
+	 * @param clockSkewTolerance Time in milliseconds by which the query starts before the high water mark
+	 */
+	public void setClockSkewTolerance( long clockSkewTolerance )
+	{
+		if( clockSkewTolerance < 0 )
+		{
+			throw new IllegalArgumentException( "Clock skew tolerance can not be negative. clockSkewTolerance["
+					+ clockSkewTolerance + "]" );
+		}
+		this.clockSkewTolerance = clockSkewTolerance;
+	}
+
+	/**
+	 * @param includes Collection of 'include' criteria to fetch the issues with
+	 */
+	public void setIncludes( Collection<String> includes )
+	{
+		this.includes = includes;
+	}
+
+	/**
+	 * @param additionalFilters Filters to apply to issues query, along with the filters used for synchronization. These
+	 *        should not contain project_id, status_id, updated_on or sort.
+	 */
+	public void setAdditionalFilters( Map<String, String> additionalFilters )
+	{
+		this.additionalFilters = additionalFilters;
+	}
+
+	/**
+	 * @param projectId Id of the project
+	 * @return 'updated on' time of the latest issue synchronized for the project, null if project is not synchronized
+	 *         yet
+	 */
+	public Date getHighWaterMark( long projectId )
+	{
+		SyncState syncState = syncStates.get( projectId );
+		if( syncState == null )
+		{
+			return null;
+		}
+		synchronized( syncState )
+		{
+			return syncState.highWaterMark;
+		}
+	}
+
+	/**
+	 * It sets the high water mark for a project, generally restored from an earlier persisted value. Next
+	 * synchronization will fetch the issues updated since this time.
+	 *
+	 * @param projectId Id of the project
+	 * @param highWaterMark 'updated on' time of latest synchronized issue, null to fetch all issues again
+	 */
+	public void setHighWaterMark( long projectId, Date highWaterMark )
+	{
+		SyncState syncState = getSyncState( projectId );
+		synchronized( syncState )
+		{
+			syncState.highWaterMark = highWaterMark;
+			syncState.seenIssues.clear();
+		}
+	}
+
+	/**
+	 * It fetches the issues of given project created or updated since last synchronization, and passes these to
+	 * handler in the order of 'updated on' time. High water mark of project is moved forward with every handled issue.
+	 *
+	 * @param projectId Id of the project to synchronize
+	 * @param handler Handler to receive the changed issues
+	 * @return Number of issues passed to handler
+	 * @throws RCException If there is any problem while fetching the issues, or if handler fails
+	 */
+	public int synchronize( long projectId, DeltaSyncHandler handler ) throws RCException
+	{
+		LOGGER.trace( "synchronize: projectId[" + projectId + "]" );
+		Utilities.assertNotNullArgument( handler, "handler" );
+
+		SyncState syncState = getSyncState( projectId );
+		synchronized( syncState )
+		{
+			String updatedSince = syncState.highWaterMark == null ? null : DateCodec.formatUTCDateTime( new Date(
+					syncState.highWaterMark.getTime() - clockSkewTolerance ) );
+			int offset = 0;
+			int changedCount = 0;
+
+			while( true )
+			{
+				List<RedmineBDO> page = fetchPage( projectId, updatedSince, offset );
+				if( page == null || page.isEmpty() )
+				{
+					break;
+				}
+
+				Date lastUpdatedOn = null;
+				for( Iterator<RedmineBDO> iterator = page.iterator(); iterator.hasNext(); )
+				{
+					Issue issue = (Issue) iterator.next();
+					if( issue.getUpdatedOn() != null )
+					{
+						lastUpdatedOn = issue.getUpdatedOn();
+					}
+					if( syncState.isSeen( issue ) )
+					{
+						continue;
+					}
+					handler.issueChanged( issue );
+					syncState.markSeen( issue );
+					changedCount++;
+				}
+
+				if( page.size() < pageSize )
+				{
+					break;
+				}
+
+				// next page is queried from the time of last issue. If time does not move, because all issues of page
+				// have same time, offset is used to move ahead
+				String nextUpdatedSince = lastUpdatedOn == null ? updatedSince : DateCodec
+						.formatUTCDateTime( lastUpdatedOn );
+				if( nextUpdatedSince == null || nextUpdatedSince.equals( updatedSince ) )
+				{
+					offset += page.size();
+				}
+				else
+				{
+					updatedSince = nextUpdatedSince;
+					offset = 0;
+					syncState.forgetSeenBefore( lastUpdatedOn.getTime() - clockSkewTolerance );
+				}
+			}
+
+			if( syncState.highWaterMark != null )
+			{
+				syncState.forgetSeenBefore( syncState.highWaterMark.getTime() - clockSkewTolerance );
+			}
+			LOGGER.debug( "synchronized project. projectId[" + projectId + "] changedIssues[" + changedCount
+					+ "] highWaterMark[" + syncState.highWaterMark + "]" );
+			return changedCount;
+		}
+	}
+
+	/**
+	 * It scans the ids of all issues of given project, including closed issues. Additional filters are applied to the
+	 * scan as well. Issues are requested with maximum page size and without any 'include', and only the ids are read
+	 * from the response.
+	 *
+	 * @param projectId Id of the project
+	 * @return Ids of issues of the project
+	 * @throws RCException If there is any problem while fetching the ids
+	 */
+	public LongHashSet getIssueIds( long projectId ) throws RCException
+	{
+		LOGGER.trace( "getIssueIds: projectId[" + projectId + "]" );
+
+		Map<String, String> filters = newFilters( projectId );
+		filters.put( FILTER_SORT, SORT_BY_ID );
+
+		LongHashSet issueIds = new LongHashSet();
+		DefaultDataPaginator paginator = (DefaultDataPaginator) redmineConnector.getIssuesIterator( 0,
+				RedmineDataPaginator.REDMINE_MAX_PAGE_SIZE, null, filters );
+		paginator.collectRecordIds( issueIds );
+		return issueIds;
+	}
+
+	/**
+	 * It finds the issues of given project which have been deleted on server. Ids of issues known to application are
+	 * compared with the ids scanned from server. An id missing from the scan may also be of an issue which is moved to
+	 * other project, or which no more matches the additional filters, or which is skipped by the scan because other
+	 * issues are deleted meanwhile. Hence every missing issue is requested by id, and is reported only if server
+	 * replies 'Not Found' for it.
+	 *
+	 * @param projectId Id of the project
+	 * @param localIssueIds Ids of the issues of project known to application
+	 * @return Ids of deleted issues, in ascending order
+	 * @throws RCException If there is any problem while fetching the ids or checking the issues
+	 */
+	public long[] findDeletedIssues( long projectId, LongHashSet localIssueIds ) throws RCException
+	{
+		LOGGER.trace( "findDeletedIssues: projectId[" + projectId + "] localIssueIds[" + localIssueIds + "]" );
+		Utilities.assertNotNullArgument( localIssueIds, "localIssueIds" );
+
+		long[] missingIssueIds = localIssueIds.difference( getIssueIds( projectId ) );
+		int deletedCount = 0;
+		for( int i = 0; i < missingIssueIds.length; i++ )
+		{
+			if( redmineConnector.isDeletedOnServer( Issue.class, missingIssueIds[i] ) )
+			{
+				missingIssueIds[deletedCount++] = missingIssueIds[i];
+			}
+		}
+
+		LOGGER.debug( "found deleted issues. projectId[" + projectId + "] localIssues[" + localIssueIds.size()
+				+ "] deletedIssues[" + deletedCount + "]" );
+		return deletedCount == missingIssueIds.length ? missingIssueIds : Arrays.copyOf( missingIssueIds,
+				deletedCount );
+	}
+
+	private List<RedmineBDO> fetchPage( long projectId, String updatedSince, int offset ) throws RCException
+	{
+		Map<String, String> filters = newFilters( projectId );
+		filters.put( FILTER_SORT, FILTER_UPDATED_ON );
+		if( updatedSince != null )
+		{
+			filters.put( FILTER_UPDATED_ON, ">=" + updatedSince );
+		}
+
+		return redmineConnector.getIssuesIterator( offset, pageSize, includes, filters ).nextPageRecords();
+	}
+
+	private Map<String, String> newFilters( long projectId )
+	{
+		Map<String, String> filters = new LinkedHashMap<String, String>();
+		if( additionalFilters != null )
+		{
+			filters.putAll( additionalFilters );
+		}
+		filters.put( FILTER_PROJECT_ID, String.valueOf( projectId ) );
+
+		// closed issues are also required, Redmine returns only open issues by default
+		filters.put( FILTER_STATUS_ID, "*" );
+		return filters;
+	}
+
+	private SyncState getSyncState( long projectId )
+	{
+		synchronized( syncStates )
+		{
+			SyncState syncState = syncStates.get( projectId );
+			if( syncState == null )
+			{
+				syncState = new SyncState();
+				syncStates.put( projectId, syncState );
+			}
+			return syncState;
+		}
+	}
+
+	/**
+	 * High water mark of a project, and the issues recently passed to handler
+	 */
+	private static class SyncState
+	{
+
+		private Date			highWaterMark;
+
+		/**
+		 * 'updated on' time of issues passed to handler, by issue id. Only issues within clock skew tolerance of high
+		 * water mark are kept.
+		 */
+		private Map<Long, Long>	seenIssues	= new HashMap<Long, Long>();
+
+		boolean isSeen( Issue issue )
+		{
+			if( issue.getId() == null || issue.getUpdatedOn() == null )
+			{
+				return false;
+			}
+			Long seenUpdatedOn = seenIssues.get( issue.getId() );
+			return seenUpdatedOn != null && seenUpdatedOn.longValue() == issue.getUpdatedOn().getTime();
+		}
+
+		void markSeen( Issue issue )
+		{
+			if( issue.getId() == null || issue.getUpdatedOn() == null )
+			{
+				return;
+			}
+			seenIssues.put( issue.getId(), issue.getUpdatedOn().getTime() );
+			if( highWaterMark == null || issue.getUpdatedOn().after( highWaterMark ) )
+			{
+				highWaterMark = issue.getUpdatedOn();
+			}
+		}
+
+		void forgetSeenBefore( long time )
+		{
+			for( Iterator<Long> iterator = seenIssues.values().iterator(); iterator.hasNext(); )
+			{
+				if( iterator.next().longValue() < time )
+				{
+					iterator.remove();
+				}
+			}
+		}
+	}
+
+}
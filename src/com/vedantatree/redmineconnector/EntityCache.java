@@ -0,0 +1,322 @@
+package com.vedantatree.redmineconnector;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+
+/**
+ * This cache keeps the projects, issues and users fetched by id, so that repeated lookup of same object does not need
+ * a request to Redmine Server. It is a read through cache, RedmineConnector looks into it before sending the request
+ * and puts the fetched object into it.
+ *
+ * <p>
+ * Objects are keyed by type, id and the set of 'includes', as object fetched with different includes has different
+ * data. Cache keeps at most the configured number of objects and removes the least recently used object first. An
+ * object is also removed once it is older than the configured time to live, so changes done by other clients are
+ * picked up after that time. Objects updated or deleted through the same RedmineConnector are removed immediately.
+ *
+ * <p>
+ * RedmineConnector keeps the objects in it as XML, and builds a new object from it for every hit. So every caller gets
+ * its own object, which it can change and update on Redmine Server without affecting other callers.
+ *
+ * @author Mohit Gupta [mohit.gupta@vedantatree.com]
+ * @since 1.2.0
+ */
+public class EntityCache
+{
+
+	private static String						KEY_SEPARATOR		= "#";
+
+	/**
+	 * Number of invalidation generations kept. Objects are spread over these by hash of type and id.
+	 */
+	private static int							GENERATION_SLOTS	= 256;
+
+	/**
+	 * Entries in least recently used order. Access is synchronized on this map.
+	 */
+	private LinkedHashMap<String, CachedEntity>	entries;
+
+	/**
+	 * Invalidation generations, incremented when an object mapped to the slot is invalidated. Object fetched before an
+	 * invalidation is not put in cache after it. Objects sharing a slot only make such put skip more often. Access is
+	 * synchronized on 'entries'.
+	 */
+	private long[]								generations			= new long[GENERATION_SLOTS];
+
+	private int									maxEntries;
+
+	/**
+	 * Time in milliseconds for which an object is kept in cache after it is fetched
+	 */
+	private long								timeToLive;
+
+	private AtomicLong							hitCount			= new AtomicLong();
+	private AtomicLong							missCount			= new AtomicLong();
+	private AtomicLong							evictionCount		= new AtomicLong();
+	private AtomicLong							expirationCount		= new AtomicLong();
+
+	/**
+	 * @param maxEntries Maximum number of objects to keep in cache
+	 * @param timeToLive Time in milliseconds for which an object is kept in cache after it is fetched
+	 */
+	public EntityCache( final int maxEntries, long timeToLive )
+	{
+		if( maxEntries <= 0 )
+		{
+			throw new IllegalArgumentException( "Max entries must be greater than zero. maxEntries[" + maxEntries + "]" );
+		}
+		if( timeToLive <= 0 )
+		{
+			throw new IllegalArgumentException( "Time to live must be greater than zero. timeToLive[" + timeToLive + "]" );
+		}
+		this.maxEntries = maxEntries;
+		this.timeToLive = timeToLive;
+		this.entries = new LinkedHashMap<String, CachedEntity>( 16, 0.75f, true )
+		{
+
+			protected boolean removeEldestEntry( Map.Entry<String, CachedEntity> eldest )
+			{
+				if( size() > maxEntries )
+				{
+					evictionCount.incrementAndGet();
+					return true;
+				}
+				return false;
+			}
+		};
+	}
+
+	/**
+	 * Returns the cached object for given type, id and includes. Hit or miss is recorded in statistics.
+	 *
+	 * @return Cached object, or null if it is not cached or has expired
+	 */
+	Object get( Class<?> objectType, Object objectId, Collection<String> includes )
+	{
+		String key = buildKey( objectType, objectId, includes );
+		synchronized( entries )
+		{
+			CachedEntity cachedEntity = entries.get( key );
+			if( cachedEntity != null && cachedEntity.isExpired( System.nanoTime() ) )
+			{
+				entries.remove( key );
+				expirationCount.incrementAndGet();
+				cachedEntity = null;
+			}
+			if( cachedEntity == null )
+			{
+				missCount.incrementAndGet();
+				return null;
+			}
+			hitCount.incrementAndGet();
+			return cachedEntity.getValue();
+		}
+	}
+
+	/**
+	 * Returns the invalidation generation of given object. It should be read before fetching the object, and passed to
+	 * 'put' with fetched object.
+	 */
+	long getGeneration( Class<?> objectType, Object objectId )
+	{
+		synchronized( entries )
+		{
+			return generations[getGenerationSlot( objectType, objectId )];
+		}
+	}
+
+	/**
+	 * Puts the object in cache, if it has not been invalidated since given generation was read. So an object fetched
+	 * while it was being updated or deleted is not cached after the invalidation.
+	 *
+	 * @param generation Invalidation generation of object as read before fetching it
+	 * @return true if object is put in cache
+	 */
+	boolean put( Class<?> objectType, Object objectId, Collection<String> includes, Object value, long generation )
+	{
+		if( value == null )
+		{
+			return false;
+		}
+		String key = buildKey( objectType, objectId, includes );
+		long expiryTime = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos( timeToLive );
+		synchronized( entries )
+		{
+			if( generations[getGenerationSlot( objectType, objectId )] != generation )
+			{
+				return false;
+			}
+			entries.put( key, new CachedEntity( value, expiryTime ) );
+			return true;
+		}
+	}
+
+	/**
+	 * Removes the cached copies of given object, fetched with any includes. Objects being fetched at this time are not
+	 * put in cache afterwards.
+	 */
+	void invalidate( Class<?> objectType, Object objectId )
+	{
+		String keyPrefix = objectType.getName() + KEY_SEPARATOR + objectId + KEY_SEPARATOR;
+		synchronized( entries )
+		{
+			generations[getGenerationSlot( objectType, objectId )]++;
+			for( Iterator<String> iterator = entries.keySet().iterator(); iterator.hasNext(); )
+			{
+				if( iterator.next().startsWith( keyPrefix ) )
+				{
+					iterator.remove();
+				}
+			}
+		}
+	}
+
+	private int getGenerationSlot( Class<?> objectType, Object objectId )
+	{
+		int hash = objectType.getName().hashCode() * 31 + String.valueOf( objectId ).hashCode();
+		return ( hash & Integer.MAX_VALUE ) % GENERATION_SLOTS;
+	}
+
+	/**
+	 * Key is built from type, id and sorted includes, so that order of includes does not matter
+	 */
+	private String buildKey( Class<?> objectType, Object objectId, Collection<String> includes )
+	{
+		StringBuilder key = new StringBuilder( objectType.getName() ).append( KEY_SEPARATOR ).append( objectId )
+				.append( KEY_SEPARATOR );
+		if( includes != null && includes.size() > 0 )
+		{
+			List<String> sortedIncludes = new ArrayList<String>( includes );
+			Collections.sort( sortedIncludes );
+			for( Iterator<String> iterator = sortedIncludes.iterator(); iterator.hasNext(); )
+			{
+				key.append( iterator.next().trim() );
+				if( iterator.hasNext() )
+				{
+					key.append( ',' );
+				}
+			}
+		}
+		return key.toString();
+	}
+
+	/**
+	 * Removes all the objects from cache
+	 */
+	public void clear()
+	{
+		synchronized( entries )
+		{
+			entries.clear();
+		}
+	}
+
+	/**
+	 * @return Number of objects currently kept in cache. It may include expired objects which have not been accessed
+	 *         after expiry.
+	 */
+	public int size()
+	{
+		synchronized( entries )
+		{
+			return entries.size();
+		}
+	}
+
+	public int getMaxEntries()
+	{
+		return maxEntries;
+	}
+
+	public long getTimeToLive()
+	{
+		return timeToLive;
+	}
+
+	/**
+	 * @return Number of lookups for which object was found in cache
+	 */
+	public long getHitCount()
+	{
+		return hitCount.get();
+	}
+
+	/**
+	 * @return Number of lookups for which object was not found in cache, or had expired
+	 */
+	public long getMissCount()
+	{
+		return missCount.get();
+	}
+
+	/**
+	 * @return Number of objects removed because cache was full
+	 */
+	public long getEvictionCount()
+	{
+		return evictionCount.get();
+	}
+
+	/**
+	 * @return Number of objects removed because these were older than time to live
+	 */
+	public long getExpirationCount()
+	{
+		return expirationCount.get();
+	}
+
+	/**
+	 * @return Ratio of hits to total lookups, between 0 and 1. Returns 0 if no lookup has been done yet.
+	 */
+	public double getHitRatio()
+	{
+		long lookupCount = getHitCount() + getMissCount();
+		return lookupCount == 0 ? 0 : (double) getHitCount() / lookupCount;
+	}
+
+	public String toString()
+	{
+		return "EntityCache@" + hashCode() + ": size[" + size() + "] maxEntries[" + maxEntries + "] timeToLive["
+				+ timeToLive + "] hits[" + getHitCount() + "] misses[" + getMissCount() + "] evictions["
+				+ getEvictionCount() + "] expirations[" + getExpirationCount() + "] hitRatio[" + getHitRatio() + "]";
+	}
+
+	/**
+	 * Object kept in cache with its expiry time
+	 */
+	private static class CachedEntity
+	{
+
+		private Object	value;
+
+		/**
+		 * Expiry time as per System.nanoTime
+		 */
+		private long	expiryTime;
+
+		CachedEntity( Object value, long expiryTime )
+		{
+			this.value = value;
+			this.expiryTime = expiryTime;
+		}
+
+		Object getValue()
+		{
+			return value;
+		}
+
+		boolean isExpired( long currentTime )
+		{
+			return currentTime - expiryTime >= 0;
+		}
+	}
+
+}
@@ -0,0 +1,168 @@
+package com.vedantatree.redmineconnector;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.Closeable;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+
+import org.apache.commons.logging.Log;
+import org.apache.commons.logging.LogFactory;
+
+import com.vedantatree.redmineconnector.utils.Utilities;
+
+
+/**
+ * This object keeps the checkpoint of a paginator in a file, so that a scan can be resumed after the process is
+ * restarted. Checkpoint is written in a temporary file first, which then replaces the checkpoint file, so a failure
+ * while writing does not leave a broken checkpoint.
+ * 
+ * <p>
+ * Paginator writes the checkpoint to store every few pages, if store is set with 'setCheckpointStore', and deletes it
+ * once all records are returned. Application reads it with 'load' at start, and resumes the paginator from it if
+ * found. One store should be used by one paginator at a time.
+ * 
+ * @author Mohit Gupta [mohit.gupta@vedantatree.com]
+ * @since 1.2.0
+ */
+public class FileCheckpointStore
+{
+
+	private static Log		LOGGER				= LogFactory.getLog( FileCheckpointStore.class );
+
+	private static String	TEMP_FILE_SUFFIX	= ".tmp";
+
+	private File			checkpointFile;
+
+	/**
+	 * @param checkpointFile File to keep the checkpoint in. Its directory should exist.
+	 */
+	public FileCheckpointStore( File checkpointFile )
+	{
+		Utilities.assertNotNullArgument( checkpointFile, "checkpointFile" );
+		this.checkpointFile = checkpointFile;
+	}
+
+	public File getCheckpointFile()
+	{
+		return checkpointFile;
+	}
+
+	/**
+	 * It writes the checkpoint to file, replacing the earlier one
+	 * 
+	 * @param checkpoint Checkpoint to write
+	 * @throws RCException If checkpoint could not be written
+	 */
+	public void save( PaginatorCheckpoint checkpoint ) throws RCException
+	{
+		Utilities.assertNotNullArgument( checkpoint, "checkpoint" );
+		if( LOGGER.isTraceEnabled() )
+		{
+			LOGGER.trace( "save: checkpointFile[" + checkpointFile + "] checkpoint[" + checkpoint + "]" );
+		}
+
+		File tempFile = new File( checkpointFile.getPath() + TEMP_FILE_SUFFIX );
+		ObjectOutputStream outputStream = null;
+		try
+		{
+			outputStream = new ObjectOutputStream( new BufferedOutputStream( new FileOutputStream( tempFile ) ) );
+			outputStream.writeObject( checkpoint );
+			outputStream.close();
+			outputStream = null;
+
+			// rename does not replace existing file on some platforms
+			if( !tempFile.renameTo( checkpointFile )
+					&& !( checkpointFile.delete() && tempFile.renameTo( checkpointFile ) ) )
+			{
+				throw new IOException( "Could not rename temporary file to checkpoint file. tempFile[" + tempFile + "]" );
+			}
+		}
+		catch( IOException e )
+		{
+			throw new RCException( RCException.IO_ERROR, "Problem while writing the checkpoint. checkpointFile["
+					+ checkpointFile + "]", e );
+		}
+		finally
+		{
+			close( outputStream );
+		}
+	}
+
+	/**
+	 * @return Checkpoint read from file, null if there is no checkpoint file
+	 * @throws RCException If checkpoint file could not be read
+	 */
+	public PaginatorCheckpoint load() throws RCException
+	{
+		LOGGER.trace( "load: checkpointFile[" + checkpointFile + "]" );
+		if( !checkpointFile.exists() )
+		{
+			return null;
+		}
+
+		ObjectInputStream inputStream = null;
+		try
+		{
+			inputStream = new ObjectInputStream( new BufferedInputStream( new FileInputStream( checkpointFile ) ) );
+			return (PaginatorCheckpoint) inputStream.readObject();
+		}
+		catch( IOException e )
+		{
+			throw new RCException( RCException.IO_ERROR, "Problem while reading the checkpoint. checkpointFile["
+					+ checkpointFile + "]", e );
+		}
+		catch( ClassNotFoundException e )
+		{
+			throw new RCException( RCException.DATA_CONVERSION_ERROR,
+					"Checkpoint file does not contain a paginator checkpoint. checkpointFile[" + checkpointFile + "]", e );
+		}
+		catch( ClassCastException e )
+		{
+			throw new RCException( RCException.DATA_CONVERSION_ERROR,
+					"Checkpoint file does not contain a paginator checkpoint. checkpointFile[" + checkpointFile + "]", e );
+		}
+		finally
+		{
+			close( inputStream );
+		}
+	}
+
+	/**
+	 * It deletes the checkpoint file, if exists
+	 */
+	public void delete()
+	{
+		LOGGER.trace( "delete: checkpointFile[" + checkpointFile + "]" );
+		if( checkpointFile.exists() && !checkpointFile.delete() )
+		{
+			LOGGER.warn( "Could not delete the checkpoint file. checkpointFile[" + checkpointFile + "]" );
+		}
+	}
+
+	private void close( Closeable stream )
+	{
+		if( stream == null )
+		{
+			return;
+		}
+		try
+		{
+			stream.close();
+		}
+		catch( IOException e )
+		{
+			LOGGER.debug( "Problem while closing the checkpoint file", e );
+		}
+	}
+
+	public String toString()
+	{
+		return "FileCheckpointStore@" + hashCode() + ": checkpointFile[" + checkpointFile + "]";
+	}
+
+}
@@ -1,11 +1,14 @@
 package com.vedantatree.redmineconnector;
 
+import java.io.InputStream;
 import java.io.StringReader;
 import java.io.StringWriter;
-import java.text.ParseException;
-import java.text.SimpleDateFormat;
 import java.util.Date;
+import java.util.HashMap;
+import java.util.Iterator;
 import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
 
 import org.apache.commons.logging.Log;
 import org.apache.commons.logging.LogFactory;
@@ -16,9 +19,16 @@ import org.jibx.runtime.IUnmarshallingContext;
 import org.jibx.runtime.JiBXException;
 import org.jibx.runtime.Utility;
 
+import com.vedantatree.redmineconnector.bdo.ErrorsContainer;
 import com.vedantatree.redmineconnector.bdo.Issue;
+import com.vedantatree.redmineconnector.bdo.IssuesContainer;
 import com.vedantatree.redmineconnector.bdo.Project;
+import com.vedantatree.redmineconnector.bdo.ProjectsContainer;
+import com.vedantatree.redmineconnector.bdo.RedmineBDO;
+import com.vedantatree.redmineconnector.bdo.RedmineBDOContainer;
 import com.vedantatree.redmineconnector.bdo.User;
+import com.vedantatree.redmineconnector.bdo.UsersContainer;
+import com.vedantatree.redmineconnector.utils.DateCodec;
 import com.vedantatree.redmineconnector.utils.Utilities;
 
 
@@ -26,20 +36,159 @@ import com.vedantatree.redmineconnector.utils.Utilities;
  * This object is used to convert the Java Object to XML format and vice versa. For implementation, it is using JIBX
  * library. The mapping for conversion can be found in 'binding.xml' file
  * 
+ * <p>
+ * Binding factories are looked up once per class and cached. Marshalling and unmarshalling contexts are not thread
+ * safe, hence these are cached per thread and are reset before every use. 'warmUp' can be called at startup to load
+ * the bindings before first request.
+ * 
  * @author Mohit Gupta [mohit.gupta@vedantatree.com]
  */
 
 public class JIBXXMLJavaConvertor
 {
 
-	private static Log				LOGGER				= LogFactory.getLog( JIBXXMLJavaConvertor.class );
-	private static SimpleDateFormat	dateFormat_simple	= new SimpleDateFormat( "yyyy-MM-dd" );
-	private static SimpleDateFormat	dateFormat_Redmine	= new SimpleDateFormat( "EEE MMM dd HH:mm:ss Z yyyy" );
+	private static Log														LOGGER					= LogFactory.getLog( JIBXXMLJavaConvertor.class );
+
+	/**
+	 * Classes which are mapped in binding.xml. Bindings for these are loaded by 'warmUp'.
+	 */
+	private static Class<?>[]												BOUND_CLASSES			= { Issue.class, IssuesContainer.class, Project.class, ProjectsContainer.class, User.class, UsersContainer.class, ErrorsContainer.class };
+
+	/**
+	 * Binding factory for every class. Lookup of factory uses reflection, hence it is done only once per class.
+	 */
+	private static Map<Class<?>, IBindingFactory>							bindingFactories		= new ConcurrentHashMap<Class<?>, IBindingFactory>();
+
+	/**
+	 * Unmarshalling contexts of current thread for every binding factory. Contexts are not thread safe.
+	 */
+	private static ThreadLocal<Map<IBindingFactory, IUnmarshallingContext>>	unmarshallingContexts	= new ThreadLocal<Map<IBindingFactory, IUnmarshallingContext>>();
+
+	/**
+	 * Marshalling contexts of current thread for every binding factory. Contexts are not thread safe.
+	 */
+	private static ThreadLocal<Map<IBindingFactory, IMarshallingContext>>	marshallingContexts		= new ThreadLocal<Map<IBindingFactory, IMarshallingContext>>();
+
+	/**
+	 * Writer of current thread to collect the marshalled XML. Its buffer is cleared and reused for every conversion.
+	 */
+	private static ThreadLocal<StringWriter>								marshallingWriters		= new ThreadLocal<StringWriter>();
+
+	/**
+	 * Registry to replace the trackers, statuses and priorities of converted objects with shared instances. It is null
+	 * if not required.
+	 */
+	private ReferenceDataRegistry											referenceDataRegistry;
 
 	JIBXXMLJavaConvertor()
 	{
 	}
 
+	/**
+	 * @param referenceDataRegistry Registry to share the trackers, statuses and priorities among converted objects
+	 */
+	JIBXXMLJavaConvertor( ReferenceDataRegistry referenceDataRegistry )
+	{
+		this.referenceDataRegistry = referenceDataRegistry;
+	}
+
+	/**
+	 * It loads the binding factories for all bound classes and creates the conversion contexts for calling thread, so
+	 * that the first request after startup does not pay for reflective binding lookup. Calling it is optional.
+	 * 
+	 * @throws RCException If binding for any class is not found
+	 * @since 1.2.0
+	 */
+	public static void warmUp() throws RCException
+	{
+		LOGGER.trace( "warmUp" );
+		for( int i = 0; i < BOUND_CLASSES.length; i++ )
+		{
+			try
+			{
+				IBindingFactory bindingFactory = getBindingFactory( BOUND_CLASSES[i] );
+				getUnmarshallingContext( bindingFactory );
+				getMarshallingContext( bindingFactory );
+			}
+			catch( JiBXException e )
+			{
+				RCException ex = new RCException( RCException.DATA_CONVERSION_ERROR,
+						"Problem while loading the binding. class[" + BOUND_CLASSES[i] + "]", e );
+				LOGGER.error( ex );
+				throw ex;
+			}
+		}
+	}
+
+	private static IBindingFactory getBindingFactory( Class<?> clazz ) throws JiBXException
+	{
+		IBindingFactory bindingFactory = bindingFactories.get( clazz );
+		if( bindingFactory == null )
+		{
+			// note that you can use multiple bindings with the same class, in
+			// which case you need to use the getFactory() call that takes the
+			// binding name as the first parameter
+			bindingFactory = BindingDirectory.getFactory( clazz );
+			bindingFactories.put( clazz, bindingFactory );
+		}
+		return bindingFactory;
+	}
+
+	private static IUnmarshallingContext getUnmarshallingContext( IBindingFactory bindingFactory )
+			throws JiBXException
+	{
+		Map<IBindingFactory, IUnmarshallingContext> threadContexts = unmarshallingContexts.get();
+		if( threadContexts == null )
+		{
+			threadContexts = new HashMap<IBindingFactory, IUnmarshallingContext>();
+			unmarshallingContexts.set( threadContexts );
+		}
+		IUnmarshallingContext context = threadContexts.get( bindingFactory );
+		if( context == null )
+		{
+			context = bindingFactory.createUnmarshallingContext();
+			threadContexts.put( bindingFactory, context );
+		}
+		else
+		{
+			context.reset();
+		}
+		return context;
+	}
+
+	private static IMarshallingContext getMarshallingContext( IBindingFactory bindingFactory ) throws JiBXException
+	{
+		Map<IBindingFactory, IMarshallingContext> threadContexts = marshallingContexts.get();
+		if( threadContexts == null )
+		{
+			threadContexts = new HashMap<IBindingFactory, IMarshallingContext>();
+			marshallingContexts.set( threadContexts );
+		}
+		IMarshallingContext context = threadContexts.get( bindingFactory );
+		if( context == null )
+		{
+			context = bindingFactory.createMarshallingContext();
+			threadContexts.put( bindingFactory, context );
+		}
+		else
+		{
+			context.reset();
+		}
+		return context;
+	}
+
+	private static StringWriter getMarshallingWriter()
+	{
+		StringWriter writer = marshallingWriters.get();
+		if( writer == null )
+		{
+			writer = new StringWriter();
+			marshallingWriters.set( writer );
+		}
+		writer.getBuffer().setLength( 0 );
+		return writer;
+	}
+
 	/**
 	 * This method converts the specified XML to Issue object. It is assumed that specified XML will be for Issue Object
 	 * only, otherwise there will be an exception.
@@ -102,25 +251,66 @@ public class JIBXXMLJavaConvertor
 	 */
 	public Object xmlToJava( String XML, Class clazz ) throws RCException
 	{
-		LOGGER.trace( "xmlToJava: XMLLength[" + ( XML != null ? XML.length() : -1 ) + "] clazz[" + clazz + "]" );
-		LOGGER.debug( "XML >> \n" + XML + "\n\n" );
+		if( LOGGER.isTraceEnabled() )
+		{
+			LOGGER.trace( "xmlToJava: XMLLength[" + ( XML != null ? XML.length() : -1 ) + "] clazz[" + clazz + "]" );
+		}
+		if( LOGGER.isDebugEnabled() )
+		{
+			LOGGER.debug( "XML >> \n" + WireLogger.abbreviate( XML ) + "\n\n" );
+		}
 		try
 		{
-			// note that you can use multiple bindings with the same class, in
-			// which case you need to use the getFactory() call that takes the
-			// binding name as the first parameter
-
 			// TODO: need to handle create issue case using a different binding name. XML to create the issue is
 			// different
-			IBindingFactory bfact = BindingDirectory.getFactory( clazz );
+			IBindingFactory bfact = getBindingFactory( clazz );
 
 			// unmarshal customer information from file
-			IUnmarshallingContext uctx = bfact.createUnmarshallingContext();
+			IUnmarshallingContext uctx = getUnmarshallingContext( bfact );
 
 			StringReader sr = new StringReader( XML );
 			Object convertedObject = uctx.unmarshalDocument( sr, null );
-			LOGGER.debug( "XML-Java-Object[" + convertedObject + "]" );
-			return convertedObject;
+			if( LOGGER.isDebugEnabled() )
+			{
+				LOGGER.debug( "XML-Java-Object[" + WireLogger.abbreviate( convertedObject ) + "]" );
+			}
+			return prepareConvertedObject( convertedObject );
+		}
+		catch( JiBXException e )
+		{
+			RCException ex = new RCException( RCException.DATA_CONVERSION_ERROR,
+					"Problem while converting XML data from Redmine Server to Java Object.", e );
+			LOGGER.error( ex );
+			throw ex;
+		}
+	}
+
+	/**
+	 * This method converts the XML read from given stream to object of specified class. XML is parsed while it is read
+	 * from the stream, so whole XML is never kept in memory.
+	 * 
+	 * @param XMLStream Stream to read the XML representation of object/s
+	 * @param encoding Character encoding of stream. If null, it is detected from XML declaration
+	 * @param clazz Type of object/s
+	 * @return Converted Object/s from XML
+	 * @throws RCException Throw Exception if there is any problem during conversion
+	 * @since 1.2.0
+	 */
+	public Object xmlToJava( InputStream XMLStream, String encoding, Class clazz ) throws RCException
+	{
+		LOGGER.trace( "xmlToJava: encoding[" + encoding + "] clazz[" + clazz + "]" );
+		Utilities.assertNotNullArgument( XMLStream, "XMLStream" );
+		try
+		{
+			IBindingFactory bfact = getBindingFactory( clazz );
+			IUnmarshallingContext uctx = getUnmarshallingContext( bfact );
+
+			Object convertedObject = uctx.unmarshalDocument( XMLStream, encoding );
+			if( LOGGER.isDebugEnabled() )
+			{
+				LOGGER.debug( "XML-Java-Object[" + WireLogger.abbreviate( convertedObject ) + "]" );
+			}
+			return prepareConvertedObject( convertedObject );
 		}
 		catch( JiBXException e )
 		{
@@ -131,6 +321,34 @@ public class JIBXXMLJavaConvertor
 		}
 	}
 
+	/**
+	 * It replaces the reference data in converted object with shared instances, if registry is set, and marks the
+	 * objects as unchanged since these are as received from server
+	 */
+	private Object prepareConvertedObject( Object convertedObject )
+	{
+		if( referenceDataRegistry != null )
+		{
+			referenceDataRegistry.resolveReferences( convertedObject );
+		}
+		if( convertedObject instanceof RedmineBDO )
+		{
+			( (RedmineBDO) convertedObject ).clearDirtyFields();
+		}
+		else if( convertedObject instanceof RedmineBDOContainer )
+		{
+			List<RedmineBDO> redmineObjects = ( (RedmineBDOContainer) convertedObject ).getRedmineDataObjects();
+			if( redmineObjects != null )
+			{
+				for( Iterator<RedmineBDO> iterator = redmineObjects.iterator(); iterator.hasNext(); )
+				{
+					iterator.next().clearDirtyFields();
+				}
+			}
+		}
+		return convertedObject;
+	}
+
 	/**
 	 * This method converts the given Java object to corresponding XML format. The format has been specified with
 	 * binding.xml file.
@@ -141,22 +359,24 @@ public class JIBXXMLJavaConvertor
 	 */
 	public String javaToXML( Object javaObject ) throws RCException
 	{
-		LOGGER.trace( "javaToXML: javaObject[" + javaObject + "]" );
+		if( LOGGER.isTraceEnabled() )
+		{
+			LOGGER.trace( "javaToXML: javaObject[" + javaObject + "]" );
+		}
 		try
 		{
-
-			// note that you can use multiple bindings with the same class, in
-			// which case you need to use the getFactory() call that takes the
-			// binding name as the first parameter
-			IBindingFactory bfact = BindingDirectory.getFactory( javaObject.getClass() );
+			IBindingFactory bfact = getBindingFactory( javaObject.getClass() );
 
 			// marshal object back out to file (with nice indentation, as UTF-8)
-			IMarshallingContext mctx = bfact.createMarshallingContext();
+			IMarshallingContext mctx = getMarshallingContext( bfact );
 			mctx.setIndent( 2 );
-			StringWriter sw = new StringWriter();
+			StringWriter sw = getMarshallingWriter();
 			mctx.marshalDocument( javaObject, "UTF-8", null, sw );
 			String objectXML = sw.toString();
-			LOGGER.debug( "objectXML[" + objectXML + "]" );
+			if( LOGGER.isDebugEnabled() )
+			{
+				LOGGER.debug( "objectXML[" + WireLogger.abbreviate( objectXML ) + "]" );
+			}
 			return objectXML;
 		}
 		catch( JiBXException e )
@@ -178,7 +398,10 @@ public class JIBXXMLJavaConvertor
 	 */
 	public String issueXMLToCreateIssue( Issue issue )
 	{
-		LOGGER.trace( "issueXMLToCreateIssue: issue[" + issue + "]" );
+		if( LOGGER.isTraceEnabled() )
+		{
+			LOGGER.trace( "issueXMLToCreateIssue: issue[" + issue + "]" );
+		}
 
 		Utilities.assertNotNullArgument( issue, "issue" );
 		List<String> errors = issue.validate( null );
@@ -210,12 +433,12 @@ public class JIBXXMLJavaConvertor
 
 		if( issue.getStartDate() != null )
 		{
-			issueXML = issueXML.append( "<start_date>" ).append( dateFormat_simple.format( issue.getStartDate() ) )
+			issueXML = issueXML.append( "<start_date>" ).append( DateCodec.formatLocalDate( issue.getStartDate() ) )
 					.append( "</start_date>" );
 		}
 		if( issue.getDueDate() != null )
 		{
-			issueXML = issueXML.append( "<due_date>" ).append( dateFormat_simple.format( issue.getDueDate() ) ).append(
+			issueXML = issueXML.append( "<due_date>" ).append( DateCodec.formatLocalDate( issue.getDueDate() ) ).append(
 					"</due_date>" );
 		}
 
@@ -243,12 +466,250 @@ public class JIBXXMLJavaConvertor
 		}
 		issueXML = issueXML.append( "</issue>" );
 
-		LOGGER.debug( "issue-xml[" + issueXML.toString() + "]" );
+		if( LOGGER.isDebugEnabled() )
+		{
+			LOGGER.debug( "issue-xml[" + WireLogger.abbreviate( issueXML ) + "]" );
+		}
 
 		return issueXML.toString();
 
 	}
 
+	/**
+	 * This method creates the XML to update the given object with only those properties which have been set since it
+	 * was received from Redmine Server. Properties which can not be updated, like 'createdOn', are left out.
+	 * 
+	 * <p>
+	 * It returns null if no property has been marked as set, like for an object created by application without using
+	 * setters, or if a changed property can not be sent partially, like project trackers. It also returns null if only
+	 * the properties which can not be updated have been marked as set, like id of a nested project set by JIBX, so that
+	 * an empty update is not sent. Whole object should be sent in these cases.
+	 * 
+	 * @param redmineObject Issue, Project or User to update
+	 * @return XML with changed properties, or null if whole object should be sent
+	 * @since 1.2.0
+	 */
+	public String javaToPartialXML( Object redmineObject )
+	{
+		if( LOGGER.isTraceEnabled() )
+		{
+			LOGGER.trace( "javaToPartialXML: redmineObject[" + redmineObject + "]" );
+		}
+
+		if( !( redmineObject instanceof RedmineBDO ) || ( (RedmineBDO) redmineObject ).getDirtyFields().isEmpty() )
+		{
+			return null;
+		}
+
+		String elementName;
+		if( redmineObject instanceof Issue )
+		{
+			elementName = "issue";
+		}
+		else if( redmineObject instanceof Project )
+		{
+			elementName = "project";
+		}
+		else if( redmineObject instanceof User )
+		{
+			elementName = "user";
+		}
+		else
+		{
+			return null;
+		}
+
+		StringBuffer objectXML = new StringBuffer();
+		objectXML.append( '<' ).append( elementName ).append( '>' );
+		int emptyLength = objectXML.length();
+
+		boolean partial;
+		if( redmineObject instanceof Issue )
+		{
+			partial = appendIssueChanges( (Issue) redmineObject, objectXML );
+		}
+		else if( redmineObject instanceof Project )
+		{
+			partial = appendProjectChanges( (Project) redmineObject, objectXML );
+		}
+		else
+		{
+			partial = appendUserChanges( (User) redmineObject, objectXML );
+		}
+		// nothing appended if only the properties which can not be updated are marked as set
+		partial = partial && objectXML.length() > emptyLength;
+		objectXML.append( "</" ).append( elementName ).append( '>' );
+
+		if( LOGGER.isDebugEnabled() )
+		{
+			LOGGER.debug( "partial-xml[" + ( partial ? WireLogger.abbreviate( objectXML ) : null ) + "]" );
+		}
+		return partial ? objectXML.toString() : null;
+	}
+
+	private boolean appendIssueChanges( Issue issue, StringBuffer issueXML )
+	{
+		for( Iterator<String> iterator = issue.getDirtyFields().iterator(); iterator.hasNext(); )
+		{
+			String fieldName = iterator.next();
+			if( "project".equals( fieldName ) )
+			{
+				appendElement( issueXML, "project_id", issue.getProject() == null ? null : issue.getProject().getId() );
+			}
+			else if( "parent".equals( fieldName ) )
+			{
+				appendElement( issueXML, "parent_issue_id", issue.getParent() == null ? null : issue.getParent()
+						.getId() );
+			}
+			else if( "subject".equals( fieldName ) )
+			{
+				appendElement( issueXML, "subject", issue.getSubject() );
+			}
+			else if( "description".equals( fieldName ) )
+			{
+				appendElement( issueXML, "description", issue.getDescription() );
+			}
+			else if( "tracker".equals( fieldName ) )
+			{
+				appendElement( issueXML, "tracker_id", issue.getTracker() == null ? null : issue.getTracker().getId() );
+			}
+			else if( "status".equals( fieldName ) )
+			{
+				appendElement( issueXML, "status_id", issue.getStatus() == null ? null : issue.getStatus().getId() );
+			}
+			else if( "priority".equals( fieldName ) )
+			{
+				appendElement( issueXML, "priority_id", issue.getPriority() == null ? null : issue.getPriority()
+						.getId() );
+			}
+			else if( "startDate".equals( fieldName ) )
+			{
+				appendElement( issueXML, "start_date", issue.getStartDate() == null ? null : DateCodec
+						.formatLocalDate( issue.getStartDate() ) );
+			}
+			else if( "dueDate".equals( fieldName ) )
+			{
+				appendElement( issueXML, "due_date", issue.getDueDate() == null ? null : DateCodec
+						.formatLocalDate( issue.getDueDate() ) );
+			}
+			else if( "assignedTo".equals( fieldName ) )
+			{
+				appendElement( issueXML, "assigned_to_id", issue.getAssignedTo() == null ? null : issue
+						.getAssignedTo().getId() );
+			}
+			else if( "estimatedEfforts".equals( fieldName ) )
+			{
+				appendElement( issueXML, "estimated_hours", issue.getEstimatedEfforts() );
+			}
+			else if( "percentageDone".equals( fieldName ) )
+			{
+				appendElement( issueXML, "done_ratio", issue.getPercentageDone() );
+			}
+			// others like id, author and dates managed by server are not updatable
+		}
+		return true;
+	}
+
+	private boolean appendProjectChanges( Project project, StringBuffer projectXML )
+	{
+		for( Iterator<String> iterator = project.getDirtyFields().iterator(); iterator.hasNext(); )
+		{
+			String fieldName = iterator.next();
+			if( "name".equals( fieldName ) )
+			{
+				appendElement( projectXML, "name", project.getName() );
+			}
+			else if( "identifier".equals( fieldName ) )
+			{
+				appendElement( projectXML, "identifier", project.getIdentifier() );
+			}
+			else if( "description".equals( fieldName ) )
+			{
+				appendElement( projectXML, "description", project.getDescription() );
+			}
+			else if( "homePage".equals( fieldName ) )
+			{
+				appendElement( projectXML, "homepage", project.getHomePage() );
+			}
+			else if( "trackers".equals( fieldName ) )
+			{
+				return false;
+			}
+		}
+		return true;
+	}
+
+	private boolean appendUserChanges( User user, StringBuffer userXML )
+	{
+		for( Iterator<String> iterator = user.getDirtyFields().iterator(); iterator.hasNext(); )
+		{
+			String fieldName = iterator.next();
+			if( "login".equals( fieldName ) )
+			{
+				appendElement( userXML, "login", user.getLogin() );
+			}
+			else if( "firstName".equals( fieldName ) )
+			{
+				appendElement( userXML, "firstname", user.getFirstName() );
+			}
+			else if( "lastName".equals( fieldName ) )
+			{
+				appendElement( userXML, "lastname", user.getLastName() );
+			}
+			else if( "password".equals( fieldName ) )
+			{
+				appendElement( userXML, "password", user.getPassword() );
+			}
+			else if( "email".equals( fieldName ) )
+			{
+				appendElement( userXML, "mail", user.getEmail() );
+			}
+			else if( "authenticationSourceType".equals( fieldName ) )
+			{
+				appendElement( userXML, "auth_source_id", user.getAuthenticationSourceType() < 0 ? null : user
+						.getAuthenticationSourceType() );
+			}
+			else if( "projectMemberships".equals( fieldName ) || "userGroups".equals( fieldName ) )
+			{
+				return false;
+			}
+		}
+		return true;
+	}
+
+	/**
+	 * Appends the element with escaped value. Null value is sent as empty element, which clears the property on server.
+	 */
+	private void appendElement( StringBuffer objectXML, String elementName, Object value )
+	{
+		objectXML.append( '<' ).append( elementName ).append( '>' );
+		if( value != null )
+		{
+			String text = value.toString();
+			for( int i = 0; i < text.length(); i++ )
+			{
+				char ch = text.charAt( i );
+				if( ch == '<' )
+				{
+					objectXML.append( "&lt;" );
+				}
+				else if( ch == '>' )
+				{
+					objectXML.append( "&gt;" );
+				}
+				else if( ch == '&' )
+				{
+					objectXML.append( "&amp;" );
+				}
+				else
+				{
+					objectXML.append( ch );
+				}
+			}
+		}
+		objectXML.append( "</" ).append( elementName ).append( '>' );
+	}
+
 	/**
 	 * This method is used by JIBX to serialize the float value. A custom implementation has been provided to handle the
 	 * case of null object.
@@ -297,12 +758,13 @@ public class JIBXXMLJavaConvertor
 		{
 			return "";
 		}
-		return Utility.serializeDate( dateValue );
+		return DateCodec.formatUTCDate( dateValue );
 	}
 
 	/**
 	 * This method is used by JIBX to de-serialize the date value. A custom implementation has been provided to handle
 	 * the case of null object or empty string and to handle the special date format sent by Redmine.
+	 * Parsing is done by thread safe DateCodec. JiBX is used only for the formats not known to it.
 	 * 
 	 * @param text date value to de-serialize
 	 * @return Date converted Date value
@@ -318,27 +780,14 @@ public class JIBXXMLJavaConvertor
 			return null;
 		}
 
-		// EEE, d MMM yyyy HH:mm:ss Z >> Wed, 4 Jul 2001 12:08:56 -0700
-		// Format for createdOn and updatedOn >> Sun Feb 13 17:59:24 +0200 2011
-
-		try
+		Date date = DateCodec.parse( text );
+		if( date != null )
 		{
-			// LOGGER.debug( "trying to parse date with format[yyyy-mm-dd]" );
-			return dateFormat_simple.parse( text );
-		}
-		catch( ParseException e )
-		{
-			try
-			{
-				// LOGGER.debug( "trying to parse date with format[EEE MMM dd HH:mm:ss Z YYYY]" );
-				return dateFormat_Redmine.parse( text );
-			}
-			catch( ParseException e1 )
-			{
-				// LOGGER.debug( "Passing call to JiBX for parsing" );
-				return Utility.deserializeDate( text );
-			}
+			return date;
 		}
+
+		// LOGGER.debug( "Passing call to JiBX for parsing" );
+		return Utility.deserializeDate( text );
 	}
 
 }
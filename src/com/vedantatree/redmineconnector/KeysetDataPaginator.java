@@ -0,0 +1,269 @@
+package com.vedantatree.redmineconnector;
+
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+
+import org.apache.commons.logging.Log;
+import org.apache.commons.logging.LogFactory;
+
+import com.vedantatree.redmineconnector.bdo.Issue;
+import com.vedantatree.redmineconnector.bdo.IssuesContainer;
+import com.vedantatree.redmineconnector.bdo.RedmineBDO;
+import com.vedantatree.redmineconnector.bdo.RedmineBDOContainer;
+import com.vedantatree.redmineconnector.utils.Utilities;
+
+
+/**
+ * Paginator over issues which walks the records by id, instead of by offset like DefaultDataPaginator. Issues are
+ * requested sorted by id, and every page asks for the issues with id greater than the last id of previous page, always
+ * from offset zero.
+ *
+ * <p>
+ * So Redmine Server does not have to skip the records of previous pages, and cost of a page remains same however deep
+ * the scan goes. Also, records created or deleted on server during the scan do not shift the records between pages.
+ * Every issue which exists for whole scan is returned exactly once, and issues created during the scan are returned if
+ * their id is not yet reached.
+ *
+ * <p>
+ * Redmine supports the range filter on id for issues only, i.e. 'issue_id', hence this paginator is available for
+ * issues only. Use RedmineConnector.getIssuesKeysetIterator to create it. Filters of the request should not contain
+ * 'issue_id' or 'sort', as these are set by paginator itself.
+ *
+ * <p>
+ * Total record count is the number of records returned so far, plus the count of remaining records as told by last
+ * page. Hence it may change during the scan if issues are created or deleted on server.
+ *
+ * @author Mohit Gupta [mohit.gupta@vedantatree.com]
+ * @since 1.2.0
+ */
+public class KeysetDataPaginator implements RedmineDataPaginator
+{
+
+	private static Log			LOGGER						= LogFactory.getLog( KeysetDataPaginator.class );
+
+	/**
+	 * Name of filter used for the range of ids
+	 */
+	static String				ID_FILTER					= "issue_id";
+
+	/**
+	 * Parameter used to sort the records by id, in ascending order
+	 */
+	static String				SORT_PARAMETER				= "sort";
+	static String				SORT_BY_ID					= "id";
+
+	/**
+	 * URL encoded form of '>=' operator for the id filter
+	 */
+	private static String		ENCODED_GREATER_OR_EQUAL	= "%3E%3D";
+
+	/**
+	 * Redmine URL for the list of issues, including the sort on id but not the id filter
+	 */
+	private String				requestURL;
+
+	/**
+	 * Number of records to fetch in one page. Redmine applies page size of 25 if it is zero.
+	 */
+	private int					pageSize;
+
+	/**
+	 * RedmineConnector which is used to fetch the pages
+	 */
+	private RedmineConnector	redmineConnector;
+
+	/**
+	 * Smallest id of issue to start the scan with
+	 */
+	private long				startId;
+
+	/**
+	 * Smallest id of issue which is to be fetched in next page
+	 */
+	private long				nextId;
+
+	/**
+	 * Number of records returned so far by this paginator
+	 */
+	private long				returnedRecordCount;
+
+	/**
+	 * Records returned so far plus the records remaining as per the total count of last page. It is Long.MIN_VALUE
+	 * till the first page is fetched.
+	 */
+	private long				totalRecordCount			= Long.MIN_VALUE;
+
+	/**
+	 * @param redmineConnector Connector to fetch the pages with
+	 * @param requestURL URL for the list of issues, sorted by id
+	 * @param startId Smallest id of issue to return
+	 * @param pageSize Number of records in one page
+	 */
+	KeysetDataPaginator( RedmineConnector redmineConnector, String requestURL, long startId, int pageSize )
+	{
+		Utilities.assertNotNullArgument( redmineConnector, "redmineConnector" );
+		if( !Utilities.isQualifiedString( requestURL ) )
+		{
+			throw new RCRuntimeException( RCRuntimeException.ILLEGAL_ARGUMENT,
+					"Request URL must be a qualified string while initializing Data Paginator" );
+		}
+		if( pageSize < 0 || pageSize > REDMINE_MAX_PAGE_SIZE )
+		{
+			throw new RCRuntimeException( RCRuntimeException.ILLEGAL_ARGUMENT, "Page size must be between 0 and "
+					+ REDMINE_MAX_PAGE_SIZE + " while initializing Data Paginator. pageSize[" + pageSize + "]" );
+		}
+		this.redmineConnector = redmineConnector;
+		this.requestURL = requestURL;
+		this.startId = startId;
+		this.nextId = startId;
+		this.pageSize = pageSize;
+	}
+
+	private String prepareRequestURL()
+	{
+		return requestURL + "&" + ID_FILTER + "=" + ENCODED_GREATER_OR_EQUAL + nextId + "&offset=0&limit="
+				+ getPageSize();
+	}
+
+	// @Override
+	public int getPageSize()
+	{
+		return pageSize;
+	}
+
+	/**
+	 * Paginator walks the records by id, not by offset, hence it always starts from first record matching the request
+	 *
+	 * @return Zero
+	 */
+	// @Override
+	public long getStartRecordIndex()
+	{
+		return 0;
+	}
+
+	/**
+	 * @return Smallest id of issue which will be fetched in next page
+	 */
+	public long getNextId()
+	{
+		return nextId;
+	}
+
+	// @Override
+	public long getTotalRecordsCount() throws RCException
+	{
+		if( totalRecordCount == Long.MIN_VALUE )
+		{
+			throw new RCException(
+					RCException.ILLEGAL_STATE,
+					"Total Record count can be retrieved only after first call for records. It is not initialized before that. Hence first, fetch at least one page of records and then ask for Total Record Count" );
+		}
+		return totalRecordCount;
+	}
+
+	// @Override
+	public boolean hasMoreRecords() throws RCException
+	{
+		LOGGER.trace( "hasMoreRecords: totalRecordCount[" + totalRecordCount + "] returnedRecordCount["
+				+ returnedRecordCount + "] nextId[" + nextId + "]" );
+
+		return totalRecordCount == Long.MIN_VALUE || returnedRecordCount < totalRecordCount;
+	}
+
+	// @Override
+	public List<RedmineBDO> nextPageRecords() throws RCException
+	{
+		String pageURL = prepareRequestURL();
+		if( LOGGER.isTraceEnabled() )
+		{
+			LOGGER.trace( "nextPageRecords: preparedRequestURL[" + WireLogger.maskURL( pageURL ) + "]" );
+		}
+
+		if( !hasMoreRecords() )
+		{
+			throw new RCException(
+					RCException.ILLEGAL_STATE,
+					"Total Records are already returned. Please use 'hasMoreRecords()' method before calling next page records. returnedRecordCount["
+							+ returnedRecordCount + "] totalRecordCount[" + totalRecordCount + "]" );
+		}
+
+		RedmineBDOContainer redmineBDOContainer = (RedmineBDOContainer) redmineConnector.getRedmineObject(
+				pageURL, IssuesContainer.class );
+
+		if( LOGGER.isDebugEnabled() )
+		{
+			LOGGER.debug( "nextPageRecord-Container[" + WireLogger.abbreviate( redmineBDOContainer ) + "]" );
+		}
+
+		// container holds the issues only, so the list can be used as list of RedmineBDO
+		@SuppressWarnings( "unchecked" )
+		List<RedmineBDO> objectsToReturn = redmineBDOContainer.getRedmineDataObjects();
+		if( objectsToReturn == null || objectsToReturn.size() == 0 )
+		{
+			// no issue left with id greater than the last one
+			totalRecordCount = returnedRecordCount;
+			return objectsToReturn;
+		}
+
+		long lastId = nextId;
+		for( RedmineBDO redmineBDO : objectsToReturn )
+		{
+			Long issueId = ( (Issue) redmineBDO ).getId();
+			if( issueId == null || issueId.longValue() < lastId )
+			{
+				throw new RCException( RCException.DATA_CONVERSION_ERROR,
+						"Issues returned by server are not sorted by id. issueId[" + issueId + "] lastId[" + lastId
+								+ "]" );
+			}
+			lastId = issueId.longValue();
+		}
+
+		nextId = lastId + 1;
+		totalRecordCount = returnedRecordCount + redmineBDOContainer.getTotalCount();
+		returnedRecordCount += objectsToReturn.size();
+
+		LOGGER.debug( "objectsToReturn[" + objectsToReturn.size() + "] totalRecordCount[" + totalRecordCount
+				+ "] nextId[" + nextId + "]" );
+
+		return objectsToReturn;
+	}
+
+	// @Override
+	public List<RedmineBDO> getAllRecords() throws RCException
+	{
+		// fetching with a new paginator for same criteria, so that state of this paginator is not disturbed
+		KeysetDataPaginator paginator = new KeysetDataPaginator( redmineConnector, requestURL, startId, pageSize );
+		List<RedmineBDO> bdos = new ArrayList<RedmineBDO>();
+		while( paginator.hasMoreRecords() )
+		{
+			List<RedmineBDO> records = paginator.nextPageRecords();
+			if( records == null )
+			{
+				break;
+			}
+			bdos.addAll( records );
+		}
+		return bdos;
+	}
+
+	/**
+	 * It returns an iterator over the records of this paginator, which fetches the pages lazily. Paginator should not be
+	 * used directly while iterating.
+	 *
+	 * @return Lazy iterator over the remaining records of this paginator
+	 */
+	public Iterator<RedmineBDO> iterator()
+	{
+		return new PaginatedRecordIterator( this );
+	}
+
+	public String toString()
+	{
+		return "KeysetDataPaginator@" + hashCode() + ": requestURL[" + WireLogger.maskURL( requestURL )
+				+ "] pageSize[" + pageSize + "] nextId[" + nextId + "] returnedRecordCount[" + returnedRecordCount
+				+ "] totalRecordCount[" + totalRecordCount + "]";
+	}
+
+}
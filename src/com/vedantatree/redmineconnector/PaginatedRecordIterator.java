@@ -0,0 +1,96 @@
+package com.vedantatree.redmineconnector;
+
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+
+import com.vedantatree.redmineconnector.bdo.RedmineBDO;
+import com.vedantatree.redmineconnector.utils.Utilities;
+
+
+/**
+ * Iterator over the records of a RedmineDataPaginator. It asks paginator for next page only when all records of the
+ * current page are returned, so at most one page is referred by it at a time.
+ *
+ * <p>
+ * Iterator methods can not throw checked exceptions, hence RCException from paginator is thrown as RCRuntimeException.
+ * Once records are over or a page fails, DefaultDataPaginator is closed so that its prefetch executor is released.
+ *
+ * @author Mohit Gupta [mohit.gupta@vedantatree.com]
+ * @since 1.2.0
+ */
+class PaginatedRecordIterator implements Iterator<RedmineBDO>
+{
+
+	private RedmineDataPaginator	paginator;
+
+	/**
+	 * Records of the page which is being iterated currently
+	 */
+	private List<RedmineBDO>		currentPage;
+
+	/**
+	 * Index of next record to return from current page
+	 */
+	private int						indexInPage;
+
+	PaginatedRecordIterator( RedmineDataPaginator paginator )
+	{
+		Utilities.assertNotNullArgument( paginator, "paginator" );
+		this.paginator = paginator;
+	}
+
+	public boolean hasNext()
+	{
+		try
+		{
+			while( currentPage == null || indexInPage >= currentPage.size() )
+			{
+				// releasing the consumed page before fetching next one
+				currentPage = null;
+				indexInPage = 0;
+
+				if( !paginator.hasMoreRecords() )
+				{
+					closePaginator();
+					return false;
+				}
+				currentPage = paginator.nextPageRecords();
+				if( currentPage == null )
+				{
+					closePaginator();
+					return false;
+				}
+			}
+			return true;
+		}
+		catch( RCException e )
+		{
+			closePaginator();
+			throw new RCRuntimeException( e.getErrorCode(), "Problem while fetching next page of records", e );
+		}
+	}
+
+	public RedmineBDO next()
+	{
+		if( !hasNext() )
+		{
+			throw new NoSuchElementException( "No more records are available with paginator" );
+		}
+		return currentPage.get( indexInPage++ );
+	}
+
+	private void closePaginator()
+	{
+		if( paginator instanceof DefaultDataPaginator )
+		{
+			( (DefaultDataPaginator) paginator ).close();
+		}
+	}
+
+	public void remove()
+	{
+		throw new UnsupportedOperationException( "Records can not be removed using paginator iterator" );
+	}
+
+}
@@ -0,0 +1,107 @@
+package com.vedantatree.redmineconnector;
+
+import java.io.Serializable;
+import java.util.Date;
+
+
+/**
+ * This object records how far a DefaultDataPaginator has returned the records, so that a long scan can be resumed
+ * from there after a failure, even by another process. It is created by 'getCheckpoint' of paginator and is passed to
+ * 'resumeFrom' of a paginator created for the same request.
+ * 
+ * <p>
+ * Request URL is kept without the security key, so a checkpoint can be stored in a file without exposing the key.
+ * 
+ * @author Mohit Gupta [mohit.gupta@vedantatree.com]
+ * @since 1.2.0
+ */
+public class PaginatorCheckpoint implements Serializable
+{
+
+	private static final long	serialVersionUID	= 1L;
+
+	/**
+	 * Name of container type of paginator, like IssuesContainer
+	 */
+	private String				bdoContainerTypeName;
+
+	/**
+	 * Request URL of paginator, without security key
+	 */
+	private String				requestURL;
+
+	/**
+	 * Index of record (exclusive) where paginator stops. It is Long.MAX_VALUE if paginator is not created by split.
+	 */
+	private long				endRecordIndex;
+
+	/**
+	 * Index of first record which is not yet returned by paginator
+	 */
+	private long				recordIndexToStartRetrieval;
+
+	/**
+	 * Total record count last seen by paginator, Long.MIN_VALUE if no page was fetched
+	 */
+	private long				totalRecordCount;
+
+	private Date				creationTime;
+
+	PaginatorCheckpoint( Class<?> bdoContainerType, String requestURL, long endRecordIndex,
+			long recordIndexToStartRetrieval, long totalRecordCount )
+	{
+		this.bdoContainerTypeName = bdoContainerType.getName();
+		this.requestURL = URLBuilder.removeSecurityKey( requestURL );
+		this.endRecordIndex = endRecordIndex;
+		this.recordIndexToStartRetrieval = recordIndexToStartRetrieval;
+		this.totalRecordCount = totalRecordCount;
+		this.creationTime = new Date();
+	}
+
+	public String getBdoContainerTypeName()
+	{
+		return bdoContainerTypeName;
+	}
+
+	/**
+	 * @return Request URL of paginator, without security key
+	 */
+	public String getRequestURL()
+	{
+		return requestURL;
+	}
+
+	public long getEndRecordIndex()
+	{
+		return endRecordIndex;
+	}
+
+	/**
+	 * @return Index of first record which is not yet returned by paginator. Resumed paginator starts from it.
+	 */
+	public long getRecordIndexToStartRetrieval()
+	{
+		return recordIndexToStartRetrieval;
+	}
+
+	/**
+	 * @return Total record count last seen by paginator, Long.MIN_VALUE if no page was fetched
+	 */
+	public long getTotalRecordCount()
+	{
+		return totalRecordCount;
+	}
+
+	public Date getCreationTime()
+	{
+		return creationTime;
+	}
+
+	public String toString()
+	{
+		return "PaginatorCheckpoint@" + hashCode() + ": bdoContainerType[" + bdoContainerTypeName + "] requestURL["
+				+ requestURL + "] recordIndexToStartRetrieval[" + recordIndexToStartRetrieval + "] totalRecordCount["
+				+ totalRecordCount + "] endRecordIndex[" + endRecordIndex + "] creationTime[" + creationTime + "]";
+	}
+
+}
@@ -0,0 +1,135 @@
+package com.vedantatree.redmineconnector;
+
+import java.io.IOException;
+import java.net.UnknownHostException;
+import java.util.Collections;
+import java.util.IdentityHashMap;
+import java.util.Iterator;
+import java.util.Map;
+
+import org.apache.commons.logging.Log;
+import org.apache.commons.logging.LogFactory;
+import org.restlet.Client;
+import org.restlet.Request;
+import org.restlet.engine.http.connector.Connection;
+import org.restlet.engine.http.connector.ConnectionState;
+import org.restlet.engine.http.connector.HttpClientHelper;
+
+
+/**
+ * Restlet client connector helper which is used by RestletClient to keep a pool of persistent connections to Redmine
+ * Server. It extends the default internal HTTP connector of Restlet, which already reuses the open connections, and
+ * adds eviction of idle connections and the statistics of connection reuse.
+ *
+ * <p>
+ * Restlet creates this helper by reflection, hence it needs to be public. It is not supposed to be used directly by
+ * users of API. Configuration and statistics objects are passed to it through attributes of Client context.
+ *
+ * @author Mohit Gupta [mohit.gupta@vedantatree.com]
+ * @since 1.2.0
+ */
+public class PooledHttpClientHelper extends HttpClientHelper
+{
+
+	private static Log							LOGGER							= LogFactory.getLog( PooledHttpClientHelper.class );
+
+	static final String							ATTRIBUTE_POOL_CONFIGURATION	= "com.vedantatree.redmineconnector.poolConfiguration";
+	static final String							ATTRIBUTE_POOL_STATISTICS		= "com.vedantatree.redmineconnector.poolStatistics";
+
+	/**
+	 * Time of last use for every connection opened by this helper. It is used to find out the idle connections.
+	 */
+	private Map<Connection<Client>, Long>		lastUsedTimes					= Collections
+																					.synchronizedMap( new IdentityHashMap<Connection<Client>, Long>() );
+
+	public PooledHttpClientHelper( Client client )
+	{
+		super( client );
+	}
+
+	protected Connection<Client> getBestConnection( Request request ) throws UnknownHostException, IOException
+	{
+		evictIdleConnections();
+
+		Connection<Client> connection = super.getBestConnection( request );
+		if( connection == null )
+		{
+			return null;
+		}
+
+		// if connection is not known to us yet, it has just been opened by super class for this request
+		Long lastUsedTime = lastUsedTimes.put( connection, Long.valueOf( System.currentTimeMillis() ) );
+		ConnectionPoolStatistics statistics = getPoolStatistics();
+		if( statistics != null )
+		{
+			if( lastUsedTime != null )
+			{
+				statistics.recordHit();
+			}
+			else
+			{
+				statistics.recordMiss();
+			}
+		}
+		return connection;
+	}
+
+	/**
+	 * Closes the connections which are not used by any request for more than configured idle time, and forgets about the
+	 * connections which are already closed by server or by connector.
+	 */
+	private void evictIdleConnections()
+	{
+		ConnectionPoolConfiguration configuration = getPoolConfiguration();
+		long idleTimeout = configuration != null ? configuration.getIdleConnectionTimeout() : 0;
+		long now = System.currentTimeMillis();
+
+		synchronized( lastUsedTimes )
+		{
+			for( Iterator<Map.Entry<Connection<Client>, Long>> iterator = lastUsedTimes.entrySet().iterator(); iterator
+					.hasNext(); )
+			{
+				Map.Entry<Connection<Client>, Long> entry = iterator.next();
+				Connection<Client> connection = entry.getKey();
+
+				if( connection.getState() == ConnectionState.CLOSED || connection.getState() == ConnectionState.CLOSING )
+				{
+					iterator.remove();
+					continue;
+				}
+				if( connection.isBusy() || !connection.getOutboundMessages().isEmpty()
+						|| !connection.getInboundMessages().isEmpty() )
+				{
+					// connection is still serving a request, so idle time starts only after that
+					entry.setValue( Long.valueOf( now ) );
+					continue;
+				}
+				if( idleTimeout > 0 && now - entry.getValue().longValue() > idleTimeout )
+				{
+					LOGGER.debug( "closing idle connection. address[" + connection.getAddress() + "] idleTime["
+							+ ( now - entry.getValue().longValue() ) + "]" );
+					connection.close();
+					getConnections().remove( connection );
+					iterator.remove();
+
+					ConnectionPoolStatistics statistics = getPoolStatistics();
+					if( statistics != null )
+					{
+						statistics.recordEviction();
+					}
+				}
+			}
+		}
+	}
+
+	private ConnectionPoolConfiguration getPoolConfiguration()
+	{
+		return (ConnectionPoolConfiguration) getContext().getAttributes().get( ATTRIBUTE_POOL_CONFIGURATION );
+	}
+
+	private ConnectionPoolStatistics getPoolStatistics()
+	{
+		return (ConnectionPoolStatistics) getContext().getAttributes().get( ATTRIBUTE_POOL_STATISTICS );
+	}
+
+}
@@ -1,6 +1,7 @@
 package com.vedantatree.redmineconnector;
 
 import java.util.ArrayList;
+import java.util.Date;
 import java.util.Iterator;
 import java.util.List;
 
@@ -24,6 +25,11 @@ public class RCException extends Exception
 	public static int											DATA_CONVERSION_ERROR	= 2;
 	public static int											ILLEGAL_ARGUMENT		= 3;
 	public static int											ILLEGAL_STATE			= 4;
+
+	/**
+	 * Request is not sent as circuit breaker is open, i.e. Redmine Server has been failing
+	 */
+	public static int											CIRCUIT_OPEN			= 5;
 	public static int											OBJECT_NOT_FOUND		= 404;
 	public static int											UNPROCESSABLE_ENTITY	= 422;
 
@@ -35,6 +41,11 @@ public class RCException extends Exception
 	private String												responseXML;
 	private List<com.vedantatree.redmineconnector.bdo.Error>	errors;
 
+	/**
+	 * Time after which server asked to retry the request, with Retry-After header
+	 */
+	private Date												retryAfter;
+
 	public RCException( int errorCode, String message )
 	{
 		super( message );
@@ -70,6 +81,21 @@ public class RCException extends Exception
 		return responseXML;
 	}
 
+	/**
+	 * @return Time after which server asked to retry the request, as per Retry-After header of response. Null if server
+	 *         did not specify it.
+	 * @since 1.2.0
+	 */
+	public Date getRetryAfter()
+	{
+		return retryAfter;
+	}
+
+	void setRetryAfter( Date retryAfter )
+	{
+		this.retryAfter = retryAfter;
+	}
+
 	public List<com.vedantatree.redmineconnector.bdo.Error> getErrors() throws RCException
 	{
 		if( errors == null )
@@ -0,0 +1,132 @@
+package com.vedantatree.redmineconnector;
+
+import java.util.concurrent.TimeUnit;
+
+
+/**
+ * Token bucket rate limiter for requests sent to Redmine Server. Bucket is filled with 'requestsPerSecond' tokens
+ * every second, up to 'burst' tokens. Every request takes one token. If bucket is empty, request waits till its token
+ * is available, so requests are spread evenly instead of hitting the server together.
+ * 
+ * <p>
+ * Waiting requests are served in the order these arrive, as every request reserves its token before waiting. Same
+ * limiter can be set to more than one RedmineConnector, to limit all the requests sent to one server.
+ * 
+ * @author Mohit Gupta [mohit.gupta@vedantatree.com]
+ * @since 1.2.0
+ */
+public class RateLimiter
+{
+
+	private static long	NANOS_PER_SECOND	= TimeUnit.SECONDS.toNanos( 1 );
+
+	private double		requestsPerSecond;
+
+	/**
+	 * Maximum number of tokens kept in bucket, i.e. number of requests which can be sent together after an idle time
+	 */
+	private int			burst;
+
+	/**
+	 * Tokens in bucket. It goes negative when requests have reserved the tokens which are not yet available.
+	 */
+	private double		tokens;
+
+	private long		lastRefillTime;
+
+	private long		requestCount;
+	private long		delayedCount;
+	private long		totalDelay;
+
+	/**
+	 * @param requestsPerSecond Number of requests allowed per second on an average
+	 * @param burst Number of requests which can be sent together without waiting, after an idle time
+	 */
+	public RateLimiter( double requestsPerSecond, int burst )
+	{
+		if( requestsPerSecond <= 0 )
+		{
+			throw new IllegalArgumentException( "Requests per second must be greater than zero. requestsPerSecond["
+					+ requestsPerSecond + "]" );
+		}
+		if( burst <= 0 )
+		{
+			throw new IllegalArgumentException( "Burst must be greater than zero. burst[" + burst + "]" );
+		}
+		this.requestsPerSecond = requestsPerSecond;
+		this.burst = burst;
+		this.tokens = burst;
+		this.lastRefillTime = System.nanoTime();
+	}
+
+	/**
+	 * It takes a token for a request, waiting till the token is available
+	 * 
+	 * @throws InterruptedException If interrupted while waiting
+	 */
+	void acquire() throws InterruptedException
+	{
+		long delay;
+		synchronized( this )
+		{
+			long now = System.nanoTime();
+			tokens = Math.min( burst, tokens + ( now - lastRefillTime ) * requestsPerSecond / NANOS_PER_SECOND );
+			lastRefillTime = now;
+			tokens--;
+			requestCount++;
+
+			delay = tokens >= 0 ? 0 : (long) ( -tokens * NANOS_PER_SECOND / requestsPerSecond );
+			if( delay > 0 )
+			{
+				delayedCount++;
+				totalDelay += delay;
+			}
+		}
+		if( delay > 0 )
+		{
+			TimeUnit.NANOSECONDS.sleep( delay );
+		}
+	}
+
+	public double getRequestsPerSecond()
+	{
+		return requestsPerSecond;
+	}
+
+	public int getBurst()
+	{
+		return burst;
+	}
+
+	/**
+	 * @return Number of requests passed through this limiter
+	 */
+	public synchronized long getRequestCount()
+	{
+		return requestCount;
+	}
+
+	/**
+	 * @return Number of requests which had to wait for a token
+	 */
+	public synchronized long getDelayedCount()
+	{
+		return delayedCount;
+	}
+
+	/**
+	 * @return Total time in milliseconds for which requests waited for tokens
+	 */
+	public synchronized long getTotalDelay()
+	{
+		return TimeUnit.NANOSECONDS.toMillis( totalDelay );
+	}
+
+	public String toString()
+	{
+		return "RateLimiter@" + hashCode() + ": requestsPerSecond[" + requestsPerSecond + "] burst[" + burst
+				+ "] requests[" + getRequestCount() + "] delayed[" + getDelayedCount() + "] totalDelay["
+				+ getTotalDelay() + "]";
+	}
+
+}
@@ -0,0 +1,125 @@
+package com.vedantatree.redmineconnector;
+
+import java.io.IOException;
+import java.io.InputStream;
+
+import org.xmlpull.mxp1.MXParser;
+import org.xmlpull.v1.XmlPullParser;
+import org.xmlpull.v1.XmlPullParserException;
+
+import com.vedantatree.redmineconnector.utils.LongHashSet;
+import com.vedantatree.redmineconnector.utils.Utilities;
+
+
+/**
+ * Response handler which reads only the ids from the XML of a list of Redmine objects, like
+ * &lt;issues total_count="..."&gt;&lt;issue&gt;&lt;id&gt;...&lt;/id&gt;...&lt;/issue&gt;&lt;/issues&gt;. Ids are
+ * added to a primitive long set and rest of the XML is skipped, so no object is created for the records. It is used
+ * to scan a large number of records for their ids, like to find the objects deleted on server.
+ *
+ * <p>
+ * Same collector is used for all pages of a scan. After every page, it tells the total count and the number of records
+ * in that page. It is not thread safe.
+ *
+ * @author Mohit Gupta [mohit.gupta@vedantatree.com]
+ * @since 1.2.0
+ */
+class RecordIdCollector implements ResponseHandler
+{
+
+	private static String	ELEMENT_ID				= "id";
+	private static String	ATTRIBUTE_TOTAL_COUNT	= "total_count";
+
+	/**
+	 * Depth of the elements of records, and of their id elements, in the list XML
+	 */
+	private static int		RECORD_DEPTH			= 2;
+	private static int		ID_DEPTH				= 3;
+
+	private LongHashSet		recordIds;
+
+	/**
+	 * Total count of records as specified in last page, -1 if not specified
+	 */
+	private long			totalCount;
+
+	/**
+	 * Number of records in last page
+	 */
+	private int				pageRecordCount;
+
+	/**
+	 * @param recordIds Set to add the ids to
+	 */
+	RecordIdCollector( LongHashSet recordIds )
+	{
+		Utilities.assertNotNullArgument( recordIds, "recordIds" );
+		this.recordIds = recordIds;
+	}
+
+	public Object handleResponse( InputStream responseStream, String characterSet ) throws RCException
+	{
+		totalCount = -1;
+		pageRecordCount = 0;
+		try
+		{
+			XmlPullParser parser = new MXParser();
+			parser.setInput( responseStream, characterSet );
+
+			for( int eventType = parser.next(); eventType != XmlPullParser.END_DOCUMENT; eventType = parser.next() )
+			{
+				if( eventType != XmlPullParser.START_TAG )
+				{
+					continue;
+				}
+				int depth = parser.getDepth();
+				if( depth == 1 )
+				{
+					String totalCountValue = parser.getAttributeValue( null, ATTRIBUTE_TOTAL_COUNT );
+					if( totalCountValue != null )
+					{
+						totalCount = Long.parseLong( totalCountValue.trim() );
+					}
+				}
+				else if( depth == RECORD_DEPTH )
+				{
+					pageRecordCount++;
+				}
+				else if( depth == ID_DEPTH && ELEMENT_ID.equals( parser.getName() ) )
+				{
+					recordIds.add( Long.parseLong( parser.nextText().trim() ) );
+				}
+			}
+			return this;
+		}
+		catch( XmlPullParserException e )
+		{
+			throw new RCException( RCException.DATA_CONVERSION_ERROR, "Error while reading ids from response XML", e );
+		}
+		catch( NumberFormatException e )
+		{
+			throw new RCException( RCException.DATA_CONVERSION_ERROR, "Invalid id or total count in response XML", e );
+		}
+		catch( IOException e )
+		{
+			throw new RCException( RCException.IO_ERROR, "Error while reading the response stream", e );
+		}
+	}
+
+	/**
+	 * @return Total count of records as specified in last page, -1 if it was not specified
+	 */
+	long getTotalCount()
+	{
+		return totalCount;
+	}
+
+	/**
+	 * @return Number of records in last page
+	 */
+	int getPageRecordCount()
+	{
+		return pageRecordCount;
+	}
+
+}
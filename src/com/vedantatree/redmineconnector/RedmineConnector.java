@@ -1,7 +1,10 @@
 package com.vedantatree.redmineconnector;
 
+import java.io.InputStream;
 import java.util.Collection;
+import java.util.LinkedHashMap;
 import java.util.Map;
+import java.util.concurrent.Callable;
 
 import org.apache.commons.logging.Log;
 import org.apache.commons.logging.LogFactory;
@@ -10,6 +13,7 @@ import com.vedantatree.redmineconnector.bdo.Issue;
 import com.vedantatree.redmineconnector.bdo.IssuesContainer;
 import com.vedantatree.redmineconnector.bdo.Project;
 import com.vedantatree.redmineconnector.bdo.ProjectsContainer;
+import com.vedantatree.redmineconnector.bdo.RedmineBDO;
 import com.vedantatree.redmineconnector.bdo.User;
 import com.vedantatree.redmineconnector.utils.ConfigurationManager;
 import com.vedantatree.redmineconnector.utils.Utilities;
@@ -42,9 +46,9 @@ import com.vedantatree.redmineconnector.utils.Utilities;
 public class RedmineConnector
 {
 
-	private static Log				LOGGER					= LogFactory.getLog( RedmineConnector.class );
-	private static String			SECURITY_KEY			= "security.key";
-	private static String			REDMINE_SERVER_ADDRESS	= "redmine.server";
+	private static Log						LOGGER					= LogFactory.getLog( RedmineConnector.class );
+	private static String					SECURITY_KEY			= "security.key";
+	private static String					REDMINE_SERVER_ADDRESS	= "redmine.server";
 
 	/**
 	 * Shared Singleton instance of Redmine Connector
@@ -52,22 +56,42 @@ public class RedmineConnector
 	 * @deprecated RedmineConnector has been upgraded from Singleton pattern to normal object pattern. Use Constructor
 	 *             to create a new instance with parameters.
 	 */
-	private static RedmineConnector	SHARED_INSTANCE			= new RedmineConnector();
+	private static RedmineConnector			SHARED_INSTANCE			= new RedmineConnector();
 
 	/**
 	 * Component to build the URL for various kind of requests, for different objects
 	 */
-	private URLBuilder				urlBuilder;
+	private URLBuilder						urlBuilder;
 
 	/**
 	 * Client for consuming the Redmine Rest services. It is developed using 'Restlet' API
 	 */
-	private RestletClient			restletClient;
+	private RestletClient					restletClient;
 
 	/**
 	 * Object which is used to perform Java to XML and XML to Java transformations. It is developed using 'JIBX' API
 	 */
-	private JIBXXMLJavaConvertor	xmlJavaConvertor;
+	private JIBXXMLJavaConvertor			xmlJavaConvertor;
+
+	/**
+	 * Registry of shared trackers, statuses and priorities for the objects received by this connector
+	 */
+	private ReferenceDataRegistry			referenceDataRegistry;
+
+	/**
+	 * Cache of objects fetched by id, used to send conditional GET requests. It is null if not enabled.
+	 */
+	private volatile ConditionalGetCache	conditionalGetCache;
+
+	/**
+	 * Read through cache of objects fetched by id. It is null if not enabled.
+	 */
+	private volatile EntityCache			entityCache;
+
+	/**
+	 * De-duplicates the identical 'get by id' requests running at the same time. It is null if not enabled.
+	 */
+	private volatile RequestCoalescer		requestCoalescer;
 
 	/**
 	 * @deprecated RedmineConnector has been upgraded from Singleton pattern to normal object pattern. Use Constructor
@@ -81,15 +105,30 @@ public class RedmineConnector
 		// pick security key from configuration file
 		String confSecurityKey = ConfigurationManager.getSharedInstance().getPropertyValue( SECURITY_KEY );
 
-		initialize( confServerAddress, confSecurityKey );
+		initialize( confServerAddress, confSecurityKey, new ConnectionPoolConfiguration() );
 	}
 
 	public RedmineConnector( String redmineServerHost, String apiAccessKey )
+	{
+		this( redmineServerHost, apiAccessKey, new ConnectionPoolConfiguration() );
+	}
+
+	/**
+	 * Creates the RedmineConnector with specified settings for HTTP connection pool. The pool is owned by this instance
+	 * and is shared by all requests sent through it.
+	 * 
+	 * @param redmineServerHost Address of the server
+	 * @param apiAccessKey API Access Key for Redmine
+	 * @param poolConfiguration Settings for connection pool
+	 * @since 1.2.0
+	 */
+	public RedmineConnector( String redmineServerHost, String apiAccessKey, ConnectionPoolConfiguration poolConfiguration )
 	{
 		Utilities.assertQualifiedString( redmineServerHost, "Redmine Server Host" );
 		Utilities.assertQualifiedString( apiAccessKey, "API Access Key" );
+		Utilities.assertNotNullArgument( poolConfiguration, "poolConfiguration" );
 
-		initialize( redmineServerHost, apiAccessKey );
+		initialize( redmineServerHost, apiAccessKey, poolConfiguration );
 	}
 
 	/**
@@ -110,19 +149,266 @@ public class RedmineConnector
 	 * 
 	 * @param serverHostAddress Address of the server
 	 * @param securityKey API Access Key for Redmine
+	 * @param poolConfiguration Settings for HTTP connection pool
 	 */
-	private void initialize( String serverHostAddress, String securityKey )
+	private void initialize( String serverHostAddress, String securityKey, ConnectionPoolConfiguration poolConfiguration )
 	{
-		// instantiate restlet client, picking redmine server address from configuration file
-		restletClient = new RestletClient();
+		// instantiate restlet client, which keeps the pool of connections to redmine server
+		restletClient = new RestletClient( poolConfiguration );
 
-		// instantiate XML 2 Java / Java 2 XML converter
-		xmlJavaConvertor = new JIBXXMLJavaConvertor();
+		// instantiate XML 2 Java / Java 2 XML converter. Converted objects share the reference data from registry
+		referenceDataRegistry = new ReferenceDataRegistry();
+		xmlJavaConvertor = new JIBXXMLJavaConvertor( referenceDataRegistry );
 
 		// instantiate URL Builder
 		urlBuilder = new URLBuilder( serverHostAddress, securityKey );
 	}
 
+	/**
+	 * It returns the statistics of HTTP connection pool used by this connector
+	 * 
+	 * @return Statistics of connection reuse
+	 * @since 1.2.0
+	 */
+	public ConnectionPoolStatistics getConnectionPoolStatistics()
+	{
+		return restletClient.getConnectionPoolStatistics();
+	}
+
+	/**
+	 * It closes the pooled connections and releases the resources held by this connector. Connector should not be used
+	 * after this call.
+	 * 
+	 * @since 1.2.0
+	 */
+	public void shutdown()
+	{
+		LOGGER.trace( "shutdown" );
+		restletClient.stop();
+	}
+
+	/**
+	 * It loads the XML bindings and prepares the conversion contexts for the calling thread in advance. Application can
+	 * call it at startup, so that first request does not pay the cost of loading the bindings.
+	 * 
+	 * @throws RCException If bindings could not be loaded
+	 * @since 1.2.0
+	 */
+	public void warmUp() throws RCException
+	{
+		LOGGER.trace( "warmUp" );
+		JIBXXMLJavaConvertor.warmUp();
+	}
+
+	/**
+	 * It enables the conditional GET for 'get by id' requests of projects, issues and users. Objects are cached with
+	 * the ETag and Last-Modified values returned by server. Next request for same object asks the server to send the
+	 * object only if it has been modified, otherwise cached object is returned. Please refer to ConditionalGetCache for
+	 * detail.
+	 * 
+	 * @param maxEntries Maximum number of objects to keep in cache
+	 * @since 1.2.0
+	 */
+	public void enableConditionalGetCache( int maxEntries )
+	{
+		LOGGER.trace( "enableConditionalGetCache: maxEntries[" + maxEntries + "]" );
+		conditionalGetCache = new ConditionalGetCache( maxEntries );
+	}
+
+	/**
+	 * It disables the conditional GET and releases the cached objects
+	 * 
+	 * @since 1.2.0
+	 */
+	public void disableConditionalGetCache()
+	{
+		LOGGER.trace( "disableConditionalGetCache" );
+		conditionalGetCache = null;
+	}
+
+	/**
+	 * @return Cache used for conditional GET requests, null if it is not enabled
+	 * @since 1.2.0
+	 */
+	public ConditionalGetCache getConditionalGetCache()
+	{
+		return conditionalGetCache;
+	}
+
+	/**
+	 * It enables the read through cache for 'get by id' requests of projects, issues and users. Object found in cache
+	 * is returned without any request to server. Please refer to EntityCache for detail.
+	 * 
+	 * @param maxEntries Maximum number of objects to keep in cache
+	 * @param timeToLive Time in milliseconds for which an object is kept in cache after it is fetched
+	 * @since 1.2.0
+	 */
+	public void enableEntityCache( int maxEntries, long timeToLive )
+	{
+		LOGGER.trace( "enableEntityCache: maxEntries[" + maxEntries + "] timeToLive[" + timeToLive + "]" );
+		entityCache = new EntityCache( maxEntries, timeToLive );
+	}
+
+	/**
+	 * It disables the entity cache and releases the cached objects
+	 * 
+	 * @since 1.2.0
+	 */
+	public void disableEntityCache()
+	{
+		LOGGER.trace( "disableEntityCache" );
+		entityCache = null;
+	}
+
+	/**
+	 * @return Read through cache of objects, null if it is not enabled
+	 * @since 1.2.0
+	 */
+	public EntityCache getEntityCache()
+	{
+		return entityCache;
+	}
+
+	/**
+	 * It enables the coalescing of identical 'get by id' requests of projects, issues and users. If many threads ask
+	 * for the same object at the same time, only one request is sent to server and all threads get its result. It works
+	 * with or without the caches. Please refer to RequestCoalescer for detail.
+	 * 
+	 * @since 1.2.0
+	 */
+	public void enableRequestCoalescing()
+	{
+		LOGGER.trace( "enableRequestCoalescing" );
+		requestCoalescer = new RequestCoalescer();
+	}
+
+	/**
+	 * It disables the coalescing of identical requests. Requests already in flight are completed as such.
+	 * 
+	 * @since 1.2.0
+	 */
+	public void disableRequestCoalescing()
+	{
+		LOGGER.trace( "disableRequestCoalescing" );
+		requestCoalescer = null;
+	}
+
+	/**
+	 * @return Coalescer of identical requests, null if it is not enabled
+	 * @since 1.2.0
+	 */
+	public RequestCoalescer getRequestCoalescer()
+	{
+		return requestCoalescer;
+	}
+
+	/**
+	 * It sets the token bucket rate limiter for requests sent by this connector. Requests wait for a token before
+	 * these are sent, so that server is not flooded when many threads use the connector. Same limiter can be set to
+	 * all connectors for one server. Please refer to RateLimiter for detail.
+	 * 
+	 * @param rateLimiter Rate limiter, null to send requests without any rate limit
+	 * @since 1.2.0
+	 */
+	public void setRateLimiter( RateLimiter rateLimiter )
+	{
+		LOGGER.trace( "setRateLimiter: rateLimiter[" + rateLimiter + "]" );
+		restletClient.setRateLimiter( rateLimiter );
+	}
+
+	/**
+	 * @return Rate limiter for requests, null if not set
+	 * @since 1.2.0
+	 */
+	public RateLimiter getRateLimiter()
+	{
+		return restletClient.getRateLimiter();
+	}
+
+	/**
+	 * It sets the adaptive limiter for number of requests in flight from this connector. Limit is increased while
+	 * server responds well, and is decreased when server shows overload, like 503 status, or growing response time if
+	 * enabled on limiter. Same limiter can be set to all connectors for one server. Please refer to ConcurrencyLimiter
+	 * for detail.
+	 * 
+	 * @param concurrencyLimiter Concurrency limiter, null to send requests without any such limit
+	 * @since 1.2.0
+	 */
+	public void setConcurrencyLimiter( ConcurrencyLimiter concurrencyLimiter )
+	{
+		LOGGER.trace( "setConcurrencyLimiter: concurrencyLimiter[" + concurrencyLimiter + "]" );
+		restletClient.setConcurrencyLimiter( concurrencyLimiter );
+	}
+
+	/**
+	 * @return Limiter for requests in flight, null if not set
+	 * @since 1.2.0
+	 */
+	public ConcurrencyLimiter getConcurrencyLimiter()
+	{
+		return restletClient.getConcurrencyLimiter();
+	}
+
+	/**
+	 * It sets the policy to retry the requests which fail due to transient problems, like connection error or 503
+	 * status. GET, PUT and DELETE requests are retried, POST only if policy allows it. Paginators of this connector use
+	 * the same requests, so a long scan survives the short failures of server. Please refer to RetryPolicy for detail.
+	 * 
+	 * @param retryPolicy Retry policy, null to fail the request at first failure
+	 * @since 1.2.0
+	 */
+	public void setRetryPolicy( RetryPolicy retryPolicy )
+	{
+		LOGGER.trace( "setRetryPolicy: retryPolicy[" + retryPolicy + "]" );
+		restletClient.setRetryPolicy( retryPolicy );
+	}
+
+	/**
+	 * @return Policy to retry the failed requests, null if not set
+	 * @since 1.2.0
+	 */
+	public RetryPolicy getRetryPolicy()
+	{
+		return restletClient.getRetryPolicy();
+	}
+
+	/**
+	 * It sets the circuit breaker for requests to Redmine Server. Once server fails for the configured number of requests
+	 * in a row, breaker opens and requests fail at once with error code CIRCUIT_OPEN, instead of waiting for connection
+	 * timeout. After some time, a few trial requests are sent to find if server is working again. Same breaker can be set
+	 * to all connectors for one server. Please refer to CircuitBreaker for detail.
+	 * 
+	 * @param circuitBreaker Circuit breaker, null to always send the requests
+	 * @since 1.2.0
+	 */
+	public void setCircuitBreaker( CircuitBreaker circuitBreaker )
+	{
+		LOGGER.trace( "setCircuitBreaker: circuitBreaker[" + circuitBreaker + "]" );
+		restletClient.setCircuitBreaker( circuitBreaker );
+	}
+
+	/**
+	 * @return Circuit breaker for requests, null if not set. Its state and counts of transitions and rejected requests
+	 *         can be read from it, along with 'getConnectionPoolStatistics'.
+	 * @since 1.2.0
+	 */
+	public CircuitBreaker getCircuitBreaker()
+	{
+		return restletClient.getCircuitBreaker();
+	}
+
+	/**
+	 * It returns the registry of trackers, statuses and priorities. Objects received by this connector refer to the
+	 * shared instances from this registry. Please refer to ReferenceDataRegistry for detail.
+	 * 
+	 * @return Registry of reference data
+	 * @since 1.2.0
+	 */
+	public ReferenceDataRegistry getReferenceDataRegistry()
+	{
+		return referenceDataRegistry;
+	}
+
 	/**
 	 * It is used to create the Redmine Project in Redmine Server.
 	 * 
@@ -132,7 +418,10 @@ public class RedmineConnector
 	 */
 	public Project createProject( Project newProject ) throws RCException
 	{
-		LOGGER.trace( "createProject: newProject[" + newProject + "]" );
+		if( LOGGER.isTraceEnabled() )
+		{
+			LOGGER.trace( "createProject: newProject[" + newProject + "]" );
+		}
 		Utilities.assertNotNullArgument( newProject, "newProject" );
 
 		try
@@ -155,13 +444,23 @@ public class RedmineConnector
 	 */
 	public void updateProject( Project updatedProject ) throws RCException
 	{
-		LOGGER.trace( "updateProject: chanegdProject[" + updatedProject + "]" );
+		if( LOGGER.isTraceEnabled() )
+		{
+			LOGGER.trace( "updateProject: chanegdProject[" + updatedProject + "]" );
+		}
 		Utilities.assertNotNullArgument( updatedProject, "updatedProject" );
 
 		try
 		{
 			String requestURL = urlBuilder.buildURLToUpdateObject( Project.class, updatedProject.getId() );
-			createOrUpdateRedmineObject( requestURL, updatedProject, false );
+			try
+			{
+				createOrUpdateRedmineObject( requestURL, updatedProject, false );
+			}
+			finally
+			{
+				invalidateCachedObject( Project.class, updatedProject.getId(), requestURL );
+			}
 		}
 		catch( Exception ex )
 		{
@@ -185,7 +484,14 @@ public class RedmineConnector
 		try
 		{
 			String requestURL = urlBuilder.buildURLToDeleteObject( Project.class, projectId );
-			return deleteRedmineObject( requestURL );
+			try
+			{
+				return deleteRedmineObject( requestURL );
+			}
+			finally
+			{
+				invalidateCachedObject( Project.class, projectId, requestURL );
+			}
 		}
 		catch( Exception ex )
 		{
@@ -224,8 +530,7 @@ public class RedmineConnector
 
 		try
 		{
-			String requestURL = urlBuilder.buildURLToGetObjectById( Project.class, projectId, includes );
-			return (Project) getRedmineObject( requestURL, Project.class );
+			return (Project) getRedmineObjectById( Project.class, projectId, includes );
 		}
 		catch( Exception ex )
 		{
@@ -269,7 +574,7 @@ public class RedmineConnector
 								+ RedmineDataPaginator.REDMINE_MAX_PAGE_SIZE + "]" );
 			}
 
-			return new DefaultDataPaginator( ProjectsContainer.class, urlBuilder.buildURLToGetObjectsList(
+			return new DefaultDataPaginator( this, ProjectsContainer.class, urlBuilder.buildURLToGetObjectsList(
 					Project.class, includes, filterCritera ), startRecordIndex, pageSize );
 		}
 		catch( Exception ex )
@@ -287,7 +592,10 @@ public class RedmineConnector
 	 */
 	public Issue createIssue( Issue newIssue ) throws RCException
 	{
-		LOGGER.trace( "createIssue: newIssue[" + newIssue + "]" );
+		if( LOGGER.isTraceEnabled() )
+		{
+			LOGGER.trace( "createIssue: newIssue[" + newIssue + "]" );
+		}
 		Utilities.assertNotNullArgument( newIssue, "newIssue" );
 		try
 		{
@@ -309,12 +617,22 @@ public class RedmineConnector
 	 */
 	public void updateIssue( Issue updatedIssue ) throws RCException
 	{
-		LOGGER.trace( "updateIssue: updatedIssue[" + updatedIssue + "]" );
+		if( LOGGER.isTraceEnabled() )
+		{
+			LOGGER.trace( "updateIssue: updatedIssue[" + updatedIssue + "]" );
+		}
 		Utilities.assertNotNullArgument( updatedIssue, "updatedIssue" );
 		try
 		{
 			String requestURL = urlBuilder.buildURLToUpdateObject( Issue.class, updatedIssue.getId() );
-			createOrUpdateRedmineObject( requestURL, updatedIssue, false );
+			try
+			{
+				createOrUpdateRedmineObject( requestURL, updatedIssue, false );
+			}
+			finally
+			{
+				invalidateCachedObject( Issue.class, updatedIssue.getId(), requestURL );
+			}
 		}
 		catch( Exception ex )
 		{
@@ -334,7 +652,14 @@ public class RedmineConnector
 		try
 		{
 			String requestURL = urlBuilder.buildURLToDeleteObject( Issue.class, issueId );
-			return deleteRedmineObject( requestURL );
+			try
+			{
+				return deleteRedmineObject( requestURL );
+			}
+			finally
+			{
+				invalidateCachedObject( Issue.class, issueId, requestURL );
+			}
 		}
 		catch( Exception ex )
 		{
@@ -373,8 +698,7 @@ public class RedmineConnector
 
 		try
 		{
-			String requestURL = urlBuilder.buildURLToGetObjectById( Issue.class, issueId, includes );
-			return (Issue) getRedmineObject( requestURL, Issue.class );
+			return (Issue) getRedmineObjectById( Issue.class, issueId, includes );
 		}
 		catch( Exception ex )
 		{
@@ -444,7 +768,7 @@ public class RedmineConnector
 								+ RedmineDataPaginator.REDMINE_MAX_PAGE_SIZE + "]" );
 			}
 
-			return new DefaultDataPaginator( IssuesContainer.class, urlBuilder.buildURLToGetObjectsList( Issue.class,
+			return new DefaultDataPaginator( this, IssuesContainer.class, urlBuilder.buildURLToGetObjectsList( Issue.class,
 					includes, filterCritera ), startRecordIndex, pageSize );
 		}
 		catch( Exception ex )
@@ -453,6 +777,59 @@ public class RedmineConnector
 		}
 	}
 
+	/**
+	 * It returns a paginator over issues which walks the issues in order of id, using a filter on id instead of offset
+	 * for every page. It is recommended for scanning a large number of issues. Cost of a page does not grow with the
+	 * depth of scan, and issues are not skipped or repeated if other issues are created or deleted during the scan.
+	 * Refer to KeysetDataPaginator for details.
+	 * 
+	 * @param startId Smallest id of issue to return, zero to start from first issue
+	 * @param pageSize size of one page fetched in one request to Redmine Server
+	 * @param includes Collection of 'include' criteria, based on this, sub-objects will be included with returned Issue
+	 *        objects
+	 * @param filterCriteria Various possible filter criteria in key<>value form, except 'issue_id' and 'sort' which
+	 *        are set by paginator
+	 * @return A data paginator which will help to iterate over list of issues in order of id
+	 * @throws RCException If there is any problem
+	 * @since 1.2.0
+	 */
+	public KeysetDataPaginator getIssuesKeysetIterator( long startId, int pageSize, Collection<String> includes,
+			Map<String, String> filterCriteria ) throws RCException
+	{
+		LOGGER.trace( "getIssuesKeysetIterator" );
+
+		try
+		{
+			if( pageSize > RedmineDataPaginator.REDMINE_MAX_PAGE_SIZE )
+			{
+				throw new RCException( RCException.ILLEGAL_ARGUMENT,
+						"Specified Page size is greater than the supported maximum page size by Redmine. supported-Size["
+								+ RedmineDataPaginator.REDMINE_MAX_PAGE_SIZE + "]" );
+			}
+
+			Map<String, String> filters = new LinkedHashMap<String, String>();
+			if( filterCriteria != null )
+			{
+				if( filterCriteria.containsKey( KeysetDataPaginator.ID_FILTER )
+						|| filterCriteria.containsKey( KeysetDataPaginator.SORT_PARAMETER ) )
+				{
+					throw new RCException( RCException.ILLEGAL_ARGUMENT, "Filters must not contain '"
+							+ KeysetDataPaginator.ID_FILTER + "' or '" + KeysetDataPaginator.SORT_PARAMETER
+							+ "', as these are set by paginator. filterCriteria" + filterCriteria );
+				}
+				filters.putAll( filterCriteria );
+			}
+			filters.put( KeysetDataPaginator.SORT_PARAMETER, KeysetDataPaginator.SORT_BY_ID );
+
+			return new KeysetDataPaginator( this, urlBuilder.buildURLToGetObjectsList( Issue.class, includes, filters ),
+					startId, pageSize );
+		}
+		catch( Exception ex )
+		{
+			throw handleException( ex );
+		}
+	}
+
 	/**
 	 * It is used to create the Redmine User in Redmine Server.
 	 * 
@@ -463,7 +840,10 @@ public class RedmineConnector
 	 */
 	public User createUser( User newUser ) throws RCException
 	{
-		LOGGER.trace( "createUser: newUser[" + newUser + "]" );
+		if( LOGGER.isTraceEnabled() )
+		{
+			LOGGER.trace( "createUser: newUser[" + newUser + "]" );
+		}
 		Utilities.assertNotNullArgument( newUser, "newUser" );
 
 		try
@@ -487,13 +867,23 @@ public class RedmineConnector
 	 */
 	public void updateUser( User updatedUser ) throws RCException
 	{
-		LOGGER.trace( "updateUser: chanegdUser[" + updatedUser + "]" );
+		if( LOGGER.isTraceEnabled() )
+		{
+			LOGGER.trace( "updateUser: chanegdUser[" + updatedUser + "]" );
+		}
 		Utilities.assertNotNullArgument( updatedUser, "updatedUser" );
 
 		try
 		{
 			String requestURL = urlBuilder.buildURLToUpdateObject( User.class, updatedUser.getId() );
-			createOrUpdateRedmineObject( requestURL, updatedUser, false );
+			try
+			{
+				createOrUpdateRedmineObject( requestURL, updatedUser, false );
+			}
+			finally
+			{
+				invalidateCachedObject( User.class, updatedUser.getId(), requestURL );
+			}
 		}
 		catch( Exception ex )
 		{
@@ -521,7 +911,14 @@ public class RedmineConnector
 		try
 		{
 			String requestURL = urlBuilder.buildURLToDeleteObject( User.class, userId );
-			return deleteRedmineObject( requestURL );
+			try
+			{
+				return deleteRedmineObject( requestURL );
+			}
+			finally
+			{
+				invalidateCachedObject( User.class, userId, requestURL );
+			}
 		}
 		catch( Exception ex )
 		{
@@ -546,8 +943,7 @@ public class RedmineConnector
 
 		try
 		{
-			String requestURL = urlBuilder.buildURLToGetObjectById( User.class, userId, includes );
-			return (User) getRedmineObject( requestURL, User.class );
+			return (User) getRedmineObjectById( User.class, userId, includes );
 		}
 		catch( Exception ex )
 		{
@@ -577,7 +973,7 @@ public class RedmineConnector
 								+ RedmineDataPaginator.REDMINE_MAX_PAGE_SIZE + "]" );
 			}
 
-			return new DefaultDataPaginator( ProjectsContainer.class, urlBuilder.buildURLToGetObjectsList( User.class,
+			return new DefaultDataPaginator( this, ProjectsContainer.class, urlBuilder.buildURLToGetObjectsList( User.class,
 					includes, filterCritera ), startRecordIndex, pageSize );
 		}
 		catch( Exception ex )
@@ -589,11 +985,23 @@ public class RedmineConnector
 	private Object createOrUpdateRedmineObject( String requestURL, Object redmineObject, boolean create )
 			throws RCException
 	{
-		LOGGER.trace( "createOrUpdateRedmineObject: requestURL[" + requestURL + "] redmineObject[" + redmineObject
-				+ "] create[" + create + "]" );
+		if( LOGGER.isTraceEnabled() )
+		{
+			LOGGER.trace( "createOrUpdateRedmineObject: requestURL[" + requestURL + "] redmineObject[" + redmineObject
+					+ "] create[" + create + "]" );
+		}
 
-		String contents = null;
-		if( redmineObject instanceof Issue )
+		// update sends only the properties changed since object was fetched, if these are known
+		String contents = create ? null : xmlJavaConvertor.javaToPartialXML( redmineObject );
+		if( contents != null )
+		{
+			if( LOGGER.isDebugEnabled() )
+			{
+				LOGGER.debug( "sending changed properties. dirtyFields["
+						+ ( (RedmineBDO) redmineObject ).getDirtyFields() + "]" );
+			}
+		}
+		else if( redmineObject instanceof Issue )
 		{
 			contents = xmlJavaConvertor.issueXMLToCreateIssue( (Issue) redmineObject );
 		}
@@ -604,35 +1012,317 @@ public class RedmineConnector
 
 		String redmineResponse = create ? restletClient.executePostRequest( requestURL, contents ) : restletClient
 				.executePutRequest( requestURL, contents );
+		if( !create && redmineObject instanceof RedmineBDO )
+		{
+			( (RedmineBDO) redmineObject ).clearDirtyFields();
+		}
 
 		// update does not return any value
 		Object newRedmineObject = create ? xmlJavaConvertor.xmlToJava( redmineResponse, redmineObject.getClass() )
 				: null;
-		LOGGER.debug( "response-object-from-redmine[" + newRedmineObject + "]" );
+		if( LOGGER.isDebugEnabled() )
+		{
+			LOGGER.debug( "response-object-from-redmine[" + WireLogger.abbreviate( newRedmineObject ) + "]" );
+		}
 		return newRedmineObject;
 	}
 
 	private boolean deleteRedmineObject( String requestURL ) throws RCException
 	{
-		LOGGER.trace( "deleteRedmineObject: requestURL[" + requestURL + "]" );
+		if( LOGGER.isTraceEnabled() )
+		{
+			LOGGER.trace( "deleteRedmineObject: requestURL[" + requestURL + "]" );
+		}
 
 		String redmineResponse = restletClient.executeDeleteRequest( requestURL );
-		LOGGER.debug( "response-from-server[" + redmineResponse + "]" );
+		if( LOGGER.isDebugEnabled() )
+		{
+			LOGGER.debug( "response-from-server[" + WireLogger.abbreviate( redmineResponse ) + "]" );
+		}
 		// TODO: handle response
 		return true;
 	}
 
 	Object getRedmineObject( String requestURL, Class objectType ) throws RCException
 	{
-		LOGGER.trace( "getRedmineObject: requestURL[" + requestURL + "] objectType[" + objectType + "]" );
+		if( LOGGER.isTraceEnabled() )
+		{
+			LOGGER.trace( "getRedmineObject: requestURL[" + requestURL + "] objectType[" + objectType + "]" );
+		}
 
-		String redmineResponse = restletClient.executeGetRequest( requestURL );
-		Object redmineResponseObject = xmlJavaConvertor.xmlToJava( redmineResponse, objectType );
+		Object redmineResponseObject = restletClient.executeGetRequest( requestURL, newXMLResponseHandler( objectType ) );
 
-		LOGGER.debug( "object-from-server[" + redmineResponseObject + "]" );
+		if( LOGGER.isDebugEnabled() )
+		{
+			LOGGER.debug( "object-from-server[" + WireLogger.abbreviate( redmineResponseObject ) + "]" );
+		}
 		return redmineResponseObject;
 	}
 
+	/**
+	 * Sends the GET request and passes the response to given handler, instead of converting it to an object
+	 * 
+	 * @return Object returned by handler
+	 */
+	Object getRedmineResponse( String requestURL, ResponseHandler responseHandler ) throws RCException
+	{
+		if( LOGGER.isTraceEnabled() )
+		{
+			LOGGER.trace( "getRedmineResponse: requestURL[" + requestURL + "]" );
+		}
+
+		return restletClient.executeGetRequest( requestURL, responseHandler );
+	}
+
+	/**
+	 * It checks whether the object exists on Redmine Server. Request is sent to server even if caches are enabled, and
+	 * response is not parsed. Cached copies of object are removed if it does not exist.
+	 * 
+	 * @param objectType Type of object
+	 * @param objectId Id of object
+	 * @return true if server replies 'Not Found' for the object
+	 * @throws RCException If there is any other problem while fetching the object
+	 */
+	boolean isDeletedOnServer( Class objectType, Object objectId ) throws RCException
+	{
+		LOGGER.trace( "isDeletedOnServer: objectType[" + objectType + "] objectId[" + objectId + "]" );
+
+		String requestURL = urlBuilder.buildURLToGetObjectById( objectType, objectId, null );
+		try
+		{
+			restletClient.executeGetRequest( requestURL, new ResponseHandler()
+			{
+
+				public Object handleResponse( InputStream responseStream, String characterSet )
+				{
+					return null;
+				}
+			} );
+			return false;
+		}
+		catch( RCException rce )
+		{
+			if( rce.getErrorCode() != RCException.OBJECT_NOT_FOUND )
+			{
+				throw rce;
+			}
+			invalidateCachedObject( objectType, objectId, requestURL );
+			return true;
+		}
+	}
+
+	/**
+	 * Fetches the object by id. Object is looked up in entity cache first, if enabled. Request is sent as conditional
+	 * GET if conditional GET cache is enabled. If request coalescing is enabled, request for same URL already in flight
+	 * is joined instead of sending a new one.
+	 */
+	private Object getRedmineObjectById( Class objectType, Object objectId, Collection<String> includes )
+			throws RCException
+	{
+		EntityCache entityCache = this.entityCache;
+		if( entityCache != null )
+		{
+			// object is cached as XML, and every caller gets its own object built from it, as caller may change it
+			String cachedXML = (String) entityCache.get( objectType, objectId, includes );
+			if( cachedXML != null )
+			{
+				Object cachedObject = xmlJavaConvertor.xmlToJava( cachedXML, objectType );
+				if( LOGGER.isDebugEnabled() )
+				{
+					LOGGER.debug( "object-from-entity-cache[" + WireLogger.abbreviate( cachedObject ) + "]" );
+				}
+				return cachedObject;
+			}
+		}
+
+		final String requestURL = urlBuilder.buildURLToGetObjectById( objectType, objectId, includes );
+
+		// object is not cached if it is invalidated while being fetched, like by a concurrent update
+		final long cacheGeneration = entityCache != null ? entityCache.getGeneration( objectType, objectId ) : 0;
+
+		RequestCoalescer requestCoalescer = this.requestCoalescer;
+		if( requestCoalescer == null )
+		{
+			Object redmineResponseObject = fetchRedmineObjectById( requestURL, objectType );
+			if( entityCache != null )
+			{
+				String objectXML = toCacheableXML( redmineResponseObject );
+				if( objectXML != null )
+				{
+					entityCache.put( objectType, objectId, includes, objectXML, cacheGeneration );
+				}
+			}
+			return redmineResponseObject;
+		}
+
+		final Class requestObjectType = objectType;
+		final Object requestObjectId = objectId;
+		final Collection<String> requestIncludes = includes;
+		final EntityCache requestEntityCache = entityCache;
+
+		// only the thread which sent the request caches the object, and not if it is updated meanwhile
+		FetchedObject fetchedObject = (FetchedObject) requestCoalescer.execute( requestURL, new Callable<Object>()
+		{
+
+			public Object call() throws RCException
+			{
+				Object redmineResponseObject = fetchRedmineObjectById( requestURL, requestObjectType );
+				return new FetchedObject( redmineResponseObject, toCacheableXML( redmineResponseObject ) );
+			}
+		}, requestEntityCache == null ? null : new RequestCoalescer.ResultStore()
+		{
+
+			public void store( Object result )
+			{
+				String objectXML = ( (FetchedObject) result ).objectXML;
+				if( objectXML != null )
+				{
+					requestEntityCache.put( requestObjectType, requestObjectId, requestIncludes, objectXML,
+							cacheGeneration );
+				}
+			}
+		} );
+
+		// first caller gets the fetched object, others get their own object built from its XML
+		Object redmineResponseObject = fetchedObject.claim();
+		if( redmineResponseObject != null || fetchedObject.redmineObject == null )
+		{
+			return redmineResponseObject;
+		}
+		if( fetchedObject.objectXML != null )
+		{
+			return xmlJavaConvertor.xmlToJava( fetchedObject.objectXML, objectType );
+		}
+		return fetchRedmineObjectById( requestURL, objectType );
+	}
+
+	/**
+	 * @return XML of object to keep in entity cache or to share with coalesced requests, null if object could not be
+	 *         converted to XML. It is created before object is returned to caller, so it has the data as received from
+	 *         server.
+	 */
+	private String toCacheableXML( Object redmineObject )
+	{
+		if( redmineObject == null )
+		{
+			return null;
+		}
+		try
+		{
+			return xmlJavaConvertor.javaToXML( redmineObject );
+		}
+		catch( RCException rce )
+		{
+			LOGGER.debug( "object can not be cached. redmineObject[" + WireLogger.abbreviate( redmineObject ) + "]",
+					rce );
+			return null;
+		}
+	}
+
+	/**
+	 * Fetches the object from server, sending conditional GET if conditional GET cache is enabled
+	 */
+	private Object fetchRedmineObjectById( String requestURL, Class objectType ) throws RCException
+	{
+		Object redmineResponseObject;
+
+		ConditionalGetCache conditionalGetCache = this.conditionalGetCache;
+		if( conditionalGetCache == null )
+		{
+			redmineResponseObject = getRedmineObject( requestURL, objectType );
+		}
+		else
+		{
+			if( LOGGER.isTraceEnabled() )
+			{
+				LOGGER.trace( "getRedmineObjectById: requestURL[" + requestURL + "] objectType[" + objectType + "]" );
+			}
+			redmineResponseObject = restletClient.executeConditionalGetRequest( requestURL,
+					newXMLResponseHandler( objectType ), conditionalGetCache );
+			if( LOGGER.isDebugEnabled() )
+			{
+				LOGGER.debug( "object-from-server[" + WireLogger.abbreviate( redmineResponseObject ) + "]" );
+			}
+		}
+		return redmineResponseObject;
+	}
+
+	/**
+	 * Creates the handler to convert the response XML to object of given type. Response is parsed from stream as it is
+	 * received, instead of collecting it as String first.
+	 */
+	ResponseHandler newXMLResponseHandler( final Class objectType )
+	{
+		return new ResponseHandler()
+		{
+
+			public Object handleResponse( InputStream responseStream, String characterSet ) throws RCException
+			{
+				return xmlJavaConvertor.xmlToJava( responseStream, characterSet, objectType );
+			}
+		};
+	}
+
+	/**
+	 * Removes the cached copies of object, and forgets the requests in flight for it, after it is updated or deleted.
+	 * It is called even if update or delete request fails, as server may have applied it, like when response times out.
+	 * 
+	 * @param objectType Type of object
+	 * @param objectId Id of object
+	 * @param objectURL URL of object as used for update or delete request
+	 */
+	private void invalidateCachedObject( Class objectType, Object objectId, String objectURL )
+	{
+		// flights are forgotten first, so that these can not cache the object after it is invalidated
+		RequestCoalescer requestCoalescer = this.requestCoalescer;
+		if( requestCoalescer != null )
+		{
+			requestCoalescer.forget( objectURL );
+		}
+		EntityCache entityCache = this.entityCache;
+		if( entityCache != null )
+		{
+			entityCache.invalidate( objectType, objectId );
+		}
+		ConditionalGetCache conditionalGetCache = this.conditionalGetCache;
+		if( conditionalGetCache != null )
+		{
+			conditionalGetCache.invalidate( objectURL );
+		}
+	}
+
+	/**
+	 * Object fetched by a coalesced request, with its XML. First caller gets the fetched object itself, and others get
+	 * their own object built from XML, so that changes done by one caller are not seen by others. If XML could not be
+	 * created, other callers fetch the object again.
+	 */
+	private static class FetchedObject
+	{
+
+		private Object	redmineObject;
+		private String	objectXML;
+		private boolean	claimed;
+
+		FetchedObject( Object redmineObject, String objectXML )
+		{
+			this.redmineObject = redmineObject;
+			this.objectXML = objectXML;
+		}
+
+		/**
+		 * @return Fetched object for first caller, null for others
+		 */
+		synchronized Object claim()
+		{
+			if( claimed )
+			{
+				return null;
+			}
+			claimed = true;
+			return redmineObject;
+		}
+	}
+
 	private RCException handleException( Exception ex )
 	{
 		LOGGER.error( ex );
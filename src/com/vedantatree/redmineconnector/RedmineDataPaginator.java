@@ -12,11 +12,15 @@ import com.vedantatree.redmineconnector.bdo.RedmineBDO;
  * Redmine provide maximum 100 records in one call, where we can define the page size. Object of this class will utilize
  * this feature of Redmine to provide a user friendly Pagination Interface to end user.
  * 
+ * <p>
+ * Paginator is also Iterable over its records. Iterator should fetch the pages lazily, so that whole data is never held
+ * in memory. Iteration and direct use of 'nextPageRecords' share the same state, hence should not be mixed.
+ * 
  * Refer to http://www.redmine.org/projects/redmine/wiki/Rest_api for more details.
  * 
  * @author Mohit Gupta [mohit.gupta@vedantatree.com]
  */
-public interface RedmineDataPaginator
+public interface RedmineDataPaginator extends Iterable<RedmineBDO>
 {
 
 	static int	REDMINE_MAX_PAGE_SIZE	= 100;
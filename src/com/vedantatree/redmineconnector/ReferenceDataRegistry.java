@@ -0,0 +1,281 @@
+package com.vedantatree.redmineconnector;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.apache.commons.logging.Log;
+import org.apache.commons.logging.LogFactory;
+
+import com.vedantatree.redmineconnector.bdo.Issue;
+import com.vedantatree.redmineconnector.bdo.Priority;
+import com.vedantatree.redmineconnector.bdo.Project;
+import com.vedantatree.redmineconnector.bdo.RedmineBDOContainer;
+import com.vedantatree.redmineconnector.bdo.Status;
+import com.vedantatree.redmineconnector.bdo.Tracker;
+
+
+/**
+ * This registry keeps one canonical instance for every tracker, status and priority received from Redmine Server.
+ * Every issue in the XML carries its own tracker, status and priority elements, though a Redmine deployment has only
+ * a few of these. Once XML is converted to objects, these are replaced with the canonical instances, so that a large
+ * set of issues in memory refers to a few shared objects instead of keeping a copy with every issue.
+ *
+ * <p>
+ * Registry is filled from the data received from server. An instance is taken as canonical for an id when it is seen
+ * first. It is replaced if a later instance has a different name, which means it has been renamed on server, or if it
+ * is older than the refresh interval. Hence registry always returns the same values as received from server.
+ *
+ * <p>
+ * Canonical instances are shared by many issues. These should not be changed. To change the status of an issue, set a
+ * different status object to the issue instead.
+ *
+ * @author Mohit Gupta [mohit.gupta@vedantatree.com]
+ * @since 1.2.0
+ */
+public class ReferenceDataRegistry
+{
+
+	private static Log							LOGGER						= LogFactory.getLog( ReferenceDataRegistry.class );
+
+	/**
+	 * Default time in milliseconds after which a canonical instance is replaced by a freshly received one
+	 */
+	static long									DEFAULT_REFRESH_INTERVAL	= 60 * 60 * 1000;
+
+	private Map<Long, ReferenceEntry<Tracker>>	trackers					= new ConcurrentHashMap<Long, ReferenceEntry<Tracker>>();
+	private Map<Long, ReferenceEntry<Status>>	statuses					= new ConcurrentHashMap<Long, ReferenceEntry<Status>>();
+	private Map<Long, ReferenceEntry<Priority>>	priorities					= new ConcurrentHashMap<Long, ReferenceEntry<Priority>>();
+
+	private volatile long						refreshInterval				= DEFAULT_REFRESH_INTERVAL;
+
+	/**
+	 * Number of received instances which were replaced by a canonical instance
+	 */
+	private AtomicLong							sharedCount					= new AtomicLong();
+
+	public ReferenceDataRegistry()
+	{
+	}
+
+	/**
+	 * @param refreshInterval Time in milliseconds after which a canonical instance is replaced by a freshly received one
+	 */
+	public void setRefreshInterval( long refreshInterval )
+	{
+		if( refreshInterval <= 0 )
+		{
+			throw new IllegalArgumentException( "Refresh interval must be greater than zero. refreshInterval["
+					+ refreshInterval + "]" );
+		}
+		this.refreshInterval = refreshInterval;
+	}
+
+	public long getRefreshInterval()
+	{
+		return refreshInterval;
+	}
+
+	/**
+	 * It replaces the trackers, statuses and priorities referred by given object with canonical instances. Object can
+	 * be an Issue, a Project or a container of these, as converted from XML.
+	 *
+	 * @param convertedObject Object converted from XML
+	 */
+	void resolveReferences( Object convertedObject )
+	{
+		if( convertedObject instanceof Issue )
+		{
+			resolveReferences( (Issue) convertedObject );
+		}
+		else if( convertedObject instanceof Project )
+		{
+			resolveReferences( (Project) convertedObject );
+		}
+		else if( convertedObject instanceof RedmineBDOContainer )
+		{
+			List<?> redmineObjects = ( (RedmineBDOContainer) convertedObject ).getRedmineDataObjects();
+			if( redmineObjects != null )
+			{
+				for( Iterator<?> iterator = redmineObjects.iterator(); iterator.hasNext(); )
+				{
+					resolveReferences( iterator.next() );
+				}
+			}
+		}
+	}
+
+	private void resolveReferences( Issue issue )
+	{
+		issue.setTracker( resolveTracker( issue.getTracker() ) );
+		issue.setStatus( resolveStatus( issue.getStatus() ) );
+		issue.setPriority( resolvePriority( issue.getPriority() ) );
+	}
+
+	private void resolveReferences( Project project )
+	{
+		List<Tracker> projectTrackers = project.getTrackers();
+		if( projectTrackers == null )
+		{
+			return;
+		}
+		for( int i = 0; i < projectTrackers.size(); i++ )
+		{
+			projectTrackers.set( i, resolveTracker( projectTrackers.get( i ) ) );
+		}
+	}
+
+	/**
+	 * @param tracker Tracker received from server
+	 * @return Canonical instance for the tracker
+	 */
+	public Tracker resolveTracker( Tracker tracker )
+	{
+		if( tracker == null )
+		{
+			return null;
+		}
+		return resolve( trackers, tracker.getId(), tracker.getName(), tracker );
+	}
+
+	/**
+	 * @param status Status received from server
+	 * @return Canonical instance for the status
+	 */
+	public Status resolveStatus( Status status )
+	{
+		if( status == null )
+		{
+			return null;
+		}
+		return resolve( statuses, status.getId(), status.getName(), status );
+	}
+
+	/**
+	 * @param priority Priority received from server
+	 * @return Canonical instance for the priority
+	 */
+	public Priority resolvePriority( Priority priority )
+	{
+		if( priority == null )
+		{
+			return null;
+		}
+		return resolve( priorities, priority.getId(), priority.getName(), priority );
+	}
+
+	private <T> T resolve( Map<Long, ReferenceEntry<T>> entries, Long id, String name, T instance )
+	{
+		if( id == null )
+		{
+			return instance;
+		}
+
+		long currentTime = System.currentTimeMillis();
+		ReferenceEntry<T> entry = entries.get( id );
+		if( entry != null && currentTime - entry.registrationTime < refreshInterval && entry.matches( name ) )
+		{
+			if( entry.instance != instance )
+			{
+				sharedCount.incrementAndGet();
+			}
+			return entry.instance;
+		}
+
+		LOGGER.debug( "registering reference data. type[" + instance.getClass().getName() + "] id[" + id + "] name["
+				+ name + "]" );
+		entries.put( id, new ReferenceEntry<T>( instance, name, currentTime ) );
+		return instance;
+	}
+
+	/**
+	 * @return Canonical trackers known to registry
+	 */
+	public Collection<Tracker> getTrackers()
+	{
+		return getInstances( trackers );
+	}
+
+	/**
+	 * @return Canonical statuses known to registry
+	 */
+	public Collection<Status> getStatuses()
+	{
+		return getInstances( statuses );
+	}
+
+	/**
+	 * @return Canonical priorities known to registry
+	 */
+	public Collection<Priority> getPriorities()
+	{
+		return getInstances( priorities );
+	}
+
+	private <T> Collection<T> getInstances( Map<Long, ReferenceEntry<T>> entries )
+	{
+		List<T> instances = new ArrayList<T>( entries.size() );
+		for( Iterator<ReferenceEntry<T>> iterator = entries.values().iterator(); iterator.hasNext(); )
+		{
+			instances.add( iterator.next().instance );
+		}
+		return instances;
+	}
+
+	/**
+	 * @return Number of received objects which were replaced by a shared canonical instance
+	 */
+	public long getSharedCount()
+	{
+		return sharedCount.get();
+	}
+
+	/**
+	 * Removes all the canonical instances. Registry is filled again from the next data received from server.
+	 */
+	public void clear()
+	{
+		trackers.clear();
+		statuses.clear();
+		priorities.clear();
+	}
+
+	public String toString()
+	{
+		return "ReferenceDataRegistry@" + hashCode() + ": trackers[" + trackers.size() + "] statuses["
+				+ statuses.size() + "] priorities[" + priorities.size() + "] shared[" + getSharedCount()
+				+ "] refreshInterval[" + refreshInterval + "]";
+	}
+
+	/**
+	 * Canonical instance with the name it had when it was registered
+	 */
+	private static class ReferenceEntry<T>
+	{
+
+		private T		instance;
+		private String	name;
+		private long	registrationTime;
+
+		ReferenceEntry( T instance, String name, long registrationTime )
+		{
+			this.instance = instance;
+			this.name = name;
+			this.registrationTime = registrationTime;
+		}
+
+		/**
+		 * Name is optional in some elements, like priority. Received instance without name matches any entry, and entry
+		 * without name is replaced by an instance having the name.
+		 */
+		boolean matches( String receivedName )
+		{
+			return receivedName == null || receivedName.equals( name );
+		}
+	}
+
+}
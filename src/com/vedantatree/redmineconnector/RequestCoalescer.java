@@ -0,0 +1,242 @@
+package com.vedantatree.redmineconnector;
+
+import java.util.Iterator;
+import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.FutureTask;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.apache.commons.logging.Log;
+import org.apache.commons.logging.LogFactory;
+
+
+/**
+ * This object de-duplicates the identical 'get by id' requests running at the same time. First request for a URL is
+ * sent to Redmine Server. Requests for same URL which come while it is in flight do not send another request, these
+ * wait for the first one and get its result, or its exception. Once the request completes, next request for that URL
+ * is sent to server again, so nothing is kept after the request. It works with or without the caches of
+ * RedmineConnector.
+ * 
+ * <p>
+ * All requests sharing a flight get the same result. RedmineConnector shares the XML of fetched object along with it,
+ * so that every caller gets its own object which it can change. If object is updated or deleted through the same
+ * RedmineConnector, the flight in progress for it is forgotten, so that later requests do not get the object read
+ * before the change. Result of a forgotten flight is not stored, like in entity cache, as it may have been read before
+ * the change.
+ * 
+ * @author Mohit Gupta [mohit.gupta@vedantatree.com]
+ * @since 1.2.0
+ */
+public class RequestCoalescer
+{
+
+	private static Log						LOGGER			= LogFactory.getLog( RequestCoalescer.class );
+
+	/**
+	 * Requests in flight, keyed by URL
+	 */
+	private ConcurrentMap<String, Flight>	flights			= new ConcurrentHashMap<String, Flight>();
+
+	private AtomicLong						requestCount	= new AtomicLong();
+	private AtomicLong						coalescedCount	= new AtomicLong();
+
+	/**
+	 * It runs the request for given URL, or waits for the same request if it is already in flight.
+	 * 
+	 * @param URL URL of request
+	 * @param request Request to run in current thread, if no request for URL is in flight
+	 * @return Result of request
+	 * @throws RCException Exception thrown by the request
+	 */
+	Object execute( String URL, Callable<Object> request ) throws RCException
+	{
+		return execute( URL, request, null );
+	}
+
+	/**
+	 * It runs the request for given URL, or waits for the same request if it is already in flight. Result is passed to
+	 * given store by the thread which ran the request, only if flight has not been forgotten meanwhile. Threads which
+	 * joined the flight do not store the result.
+	 * 
+	 * @param URL URL of request
+	 * @param request Request to run in current thread, if no request for URL is in flight
+	 * @param resultStore Store for the result of request, like entity cache. It can be null.
+	 * @return Result of request
+	 * @throws RCException Exception thrown by the request
+	 */
+	Object execute( String URL, Callable<Object> request, ResultStore resultStore ) throws RCException
+	{
+		requestCount.incrementAndGet();
+
+		Flight flight = new Flight( request );
+		Flight runningFlight = flights.putIfAbsent( URL, flight );
+		if( runningFlight != null )
+		{
+			coalescedCount.incrementAndGet();
+			if( LOGGER.isDebugEnabled() )
+			{
+				LOGGER.debug( "joining the request in flight. URL[" + URL + "]" );
+			}
+			return getResult( runningFlight );
+		}
+
+		try
+		{
+			flight.run();
+		}
+		finally
+		{
+			flights.remove( URL, flight );
+		}
+		Object result = getResult( flight );
+		if( resultStore != null && !flight.storeResult( result, resultStore ) && LOGGER.isDebugEnabled() )
+		{
+			LOGGER.debug( "not storing the result of forgotten request. URL[" + URL + "]" );
+		}
+		return result;
+	}
+
+	/**
+	 * Forgets the requests in flight for given object URL, including those with 'includes'. Requests which have already
+	 * joined these still get their result, but new requests are sent to server again, and result of forgotten requests
+	 * is not stored. Results stored before this should be removed after calling it.
+	 * 
+	 * @param objectURL URL of object without includes
+	 */
+	void forget( String objectURL )
+	{
+		String includesPrefix = objectURL + "&";
+		for( Iterator<Map.Entry<String, Flight>> iterator = flights.entrySet().iterator(); iterator.hasNext(); )
+		{
+			Map.Entry<String, Flight> entry = iterator.next();
+			String URL = entry.getKey();
+			if( URL.equals( objectURL ) || URL.startsWith( includesPrefix ) )
+			{
+				entry.getValue().forget();
+				iterator.remove();
+			}
+		}
+	}
+
+	private Object getResult( FutureTask<Object> flight ) throws RCException
+	{
+		boolean interrupted = false;
+		try
+		{
+			while( true )
+			{
+				try
+				{
+					return flight.get();
+				}
+				catch( InterruptedException e )
+				{
+					// request is run by other thread, which may need the result even if this thread is interrupted
+					interrupted = true;
+				}
+			}
+		}
+		catch( ExecutionException e )
+		{
+			Throwable cause = e.getCause();
+			if( cause instanceof RCException )
+			{
+				throw (RCException) cause;
+			}
+			if( cause instanceof RuntimeException )
+			{
+				throw (RuntimeException) cause;
+			}
+			if( cause instanceof Error )
+			{
+				throw (Error) cause;
+			}
+			throw new RCException( RCException.ILLEGAL_STATE, cause );
+		}
+		finally
+		{
+			if( interrupted )
+			{
+				Thread.currentThread().interrupt();
+			}
+		}
+	}
+
+	/**
+	 * @return Number of requests in flight at present
+	 */
+	public int getInFlightCount()
+	{
+		return flights.size();
+	}
+
+	/**
+	 * @return Number of requests received so far
+	 */
+	public long getRequestCount()
+	{
+		return requestCount.get();
+	}
+
+	/**
+	 * @return Number of requests which got the result of a request already in flight, instead of sending a new one
+	 */
+	public long getCoalescedCount()
+	{
+		return coalescedCount.get();
+	}
+
+	public String toString()
+	{
+		return "RequestCoalescer@" + hashCode() + ": inFlight[" + getInFlightCount() + "] requests["
+				+ getRequestCount() + "] coalesced[" + getCoalescedCount() + "]";
+	}
+
+	/**
+	 * Store for the result of a request, like entity cache
+	 */
+	interface ResultStore
+	{
+
+		void store( Object result );
+	}
+
+	/**
+	 * Request in flight, which knows whether it has been forgotten
+	 */
+	private static class Flight extends FutureTask<Object>
+	{
+
+		private boolean	forgotten;
+
+		Flight( Callable<Object> request )
+		{
+			super( request );
+		}
+
+		synchronized void forget()
+		{
+			forgotten = true;
+		}
+
+		/**
+		 * Stores the result, if flight has not been forgotten. It is done while holding the lock of flight, so result
+		 * is either stored before 'forget' returns, or not stored at all.
+		 * 
+		 * @return true if result is stored
+		 */
+		synchronized boolean storeResult( Object result, ResultStore resultStore )
+		{
+			if( forgotten )
+			{
+				return false;
+			}
+			resultStore.store( result );
+			return true;
+		}
+	}
+
+}
@@ -0,0 +1,26 @@
+package com.vedantatree.redmineconnector;
+
+import java.io.InputStream;
+
+
+/**
+ * Handler to consume the response of a Rest request directly from the response stream. It is used to pass the
+ * response to XML parser as it is received from Redmine Server, without first collecting it as a String.
+ *
+ * @author Mohit Gupta [mohit.gupta@vedantatree.com]
+ * @since 1.2.0
+ */
+interface ResponseHandler
+{
+
+	/**
+	 * It is called only for successful response. Stream is closed by caller after this method returns.
+	 *
+	 * @param responseStream Stream of response contents
+	 * @param characterSet Character set of response as specified by server, null if not specified
+	 * @return Object created from response
+	 * @throws RCException If response could not be handled
+	 */
+	Object handleResponse( InputStream responseStream, String characterSet ) throws RCException;
+
+}
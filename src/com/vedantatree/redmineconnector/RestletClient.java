@@ -1,16 +1,24 @@
 package com.vedantatree.redmineconnector;
 
+import java.io.ByteArrayOutputStream;
+import java.io.FilterInputStream;
 import java.io.IOException;
+import java.io.InputStream;
+import java.util.Arrays;
+import java.util.Collections;
 
 import org.apache.commons.logging.Log;
 import org.apache.commons.logging.LogFactory;
 import org.restlet.Client;
+import org.restlet.Context;
 import org.restlet.Request;
 import org.restlet.Response;
+import org.restlet.data.CharacterSet;
 import org.restlet.data.MediaType;
 import org.restlet.data.Method;
 import org.restlet.data.Protocol;
 import org.restlet.data.Status;
+import org.restlet.engine.Engine;
 import org.restlet.representation.Representation;
 
 import com.vedantatree.redmineconnector.utils.Utilities;
@@ -20,19 +28,183 @@ import com.vedantatree.redmineconnector.utils.Utilities;
  * This object works as client for Rest API. It is specifically designed for consuming the Redmine Rest API. For
  * implementation, it is using Restlet API.
  * 
+ * <p>
+ * One RestletClient owns one long lived Restlet Client, which keeps a pool of persistent connections to Redmine
+ * Server. All GET, PUT, POST and DELETE requests are sent over this pool. Settings of pool are specified by
+ * ConnectionPoolConfiguration.
+ * 
+ * <p>
+ * Request and response payloads are logged only if debug level is enabled, and are capped by WireLogger. Requests
+ * picked by sampled wire log of WireLogger are logged at info level.
+ * 
+ * <p>
+ * If a RetryPolicy is set, request failed due to a transient problem, like 503 status or connection error, is sent
+ * again as per the policy.
+ * 
  * @author Mohit Gupta [mohit.gupta@vedantatree.com]
  */
 public class RestletClient
 {
 
-	private static Log	LOGGER	= LogFactory.getLog( RestletClient.class );
+	private static Log					LOGGER						= LogFactory.getLog( RestletClient.class );
 
 	/**
-	 * Package Private Constructor
+	 * 429 'Too Many Requests' status, not defined by Restlet version in use
+	 */
+	static int							STATUS_TOO_MANY_REQUESTS	= 429;
+
+	/**
+	 * Attribute of response which holds the time taken by request in nanoseconds, excluding the waits for limiters
+	 */
+	private static String				ATTRIBUTE_REQUEST_TIME		= "com.vedantatree.redmineconnector.requestTime";
+
+	/**
+	 * Attribute of response which holds the permit of concurrency limiter, till the response contents are read
+	 */
+	private static String				ATTRIBUTE_LIMITER_PERMIT	= "com.vedantatree.redmineconnector.concurrencyPermit";
+
+	/**
+	 * Restlet Client which is shared by all requests. It keeps the connections to server alive, so that these can be
+	 * reused by next requests.
+	 */
+	private Client						client;
+
+	/**
+	 * Statistics of connection reuse for the pool of this client
+	 */
+	private ConnectionPoolStatistics	poolStatistics;
+
+	/**
+	 * Limits the rate of requests sent to server. It is null if not set.
+	 */
+	private volatile RateLimiter		rateLimiter;
+
+	/**
+	 * Limits the number of requests in flight to server. It is null if not set.
+	 */
+	private volatile ConcurrencyLimiter	concurrencyLimiter;
+
+	/**
+	 * Policy to retry the requests failed due to transient problems. It is null if not set.
+	 */
+	private volatile RetryPolicy		retryPolicy;
+
+	/**
+	 * Stops sending the requests for some time if server is failing. It is null if not set.
+	 */
+	private volatile CircuitBreaker		circuitBreaker;
+
+	static
+	{
+		// Restlet creates the connector helpers only from registered ones. It is added at the end, so that it is picked
+		// only when asked by name and other Restlet clients in the application keep using their default connector
+		Engine.getInstance().getRegisteredClients().add( new PooledHttpClientHelper( null ) );
+	}
+
+	/**
+	 * Package Private Constructor. It creates the client with default connection pool settings.
 	 * 
 	 */
 	RestletClient()
 	{
+		this( new ConnectionPoolConfiguration() );
+	}
+
+	/**
+	 * Package Private Constructor
+	 * 
+	 * @param poolConfiguration Settings for the connection pool of this client
+	 */
+	RestletClient( ConnectionPoolConfiguration poolConfiguration )
+	{
+		Utilities.assertNotNullArgument( poolConfiguration, "poolConfiguration" );
+
+		poolStatistics = new ConnectionPoolStatistics();
+
+		Context context = new Context();
+		context.getParameters().add( "maxConnectionsPerHost", "" + poolConfiguration.getMaxConnectionsPerHost() );
+		context.getParameters().add( "maxTotalConnections", "" + poolConfiguration.getMaxTotalConnections() );
+		context.getParameters().add( "persistingConnections", "" + poolConfiguration.isKeepAlive() );
+		context.getAttributes().put( PooledHttpClientHelper.ATTRIBUTE_POOL_CONFIGURATION, poolConfiguration );
+		context.getAttributes().put( PooledHttpClientHelper.ATTRIBUTE_POOL_STATISTICS, poolStatistics );
+
+		client = new Client( context, Arrays.asList( Protocol.HTTP, Protocol.HTTPS ), PooledHttpClientHelper.class
+				.getName() );
+		try
+		{
+			client.start();
+		}
+		catch( Exception e )
+		{
+			RCRuntimeException rcre = new RCRuntimeException( RCRuntimeException.ILLEGAL_STATE,
+					"Problem while starting the Restlet client. poolConfiguration[" + poolConfiguration + "]", e );
+			LOGGER.error( rcre );
+			throw rcre;
+		}
+		LOGGER.debug( "started restlet client. poolConfiguration[" + poolConfiguration + "]" );
+	}
+
+	/**
+	 * @return Statistics of connection reuse for the pool of this client
+	 */
+	public ConnectionPoolStatistics getConnectionPoolStatistics()
+	{
+		return poolStatistics;
+	}
+
+	void setRateLimiter( RateLimiter rateLimiter )
+	{
+		this.rateLimiter = rateLimiter;
+	}
+
+	RateLimiter getRateLimiter()
+	{
+		return rateLimiter;
+	}
+
+	void setConcurrencyLimiter( ConcurrencyLimiter concurrencyLimiter )
+	{
+		this.concurrencyLimiter = concurrencyLimiter;
+	}
+
+	ConcurrencyLimiter getConcurrencyLimiter()
+	{
+		return concurrencyLimiter;
+	}
+
+	void setRetryPolicy( RetryPolicy retryPolicy )
+	{
+		this.retryPolicy = retryPolicy;
+	}
+
+	RetryPolicy getRetryPolicy()
+	{
+		return retryPolicy;
+	}
+
+	void setCircuitBreaker( CircuitBreaker circuitBreaker )
+	{
+		this.circuitBreaker = circuitBreaker;
+	}
+
+	CircuitBreaker getCircuitBreaker()
+	{
+		return circuitBreaker;
+	}
+
+	/**
+	 * Stops the underlying Restlet client and closes all pooled connections. Client should not be used after this.
+	 */
+	void stop()
+	{
+		try
+		{
+			client.stop();
+		}
+		catch( Exception e )
+		{
+			LOGGER.error( "Problem while stopping the Restlet client", e );
+		}
 	}
 
 	/**
@@ -48,6 +220,258 @@ public class RestletClient
 		return executeRequest( Method.GET, URL, null );
 	}
 
+	/**
+	 * This method executes the get request for Rest API with given URL, and passes the response stream to given
+	 * handler. Response is not collected as String, so handler can start processing it while it is being received.
+	 * 
+	 * @param URL The URL for getting an information from server. It will be invoked with HTTP GET operation
+	 * @param responseHandler Handler to consume the response stream
+	 * @return Object returned by response handler
+	 * @throws RCException Throws Exception if there is any problem
+	 * @since 1.2.0
+	 */
+	Object executeGetRequest( final String URL, final ResponseHandler responseHandler ) throws RCException
+	{
+		Utilities.assertNotNullArgument( responseHandler, "responseHandler" );
+
+		return executeWithRetry( Method.GET, URL, new RequestAttempt<Object>()
+		{
+
+			public Object execute() throws RCException
+			{
+				return attemptGetRequest( URL, responseHandler );
+			}
+		} );
+	}
+
+	private Object attemptGetRequest( String URL, ResponseHandler responseHandler ) throws RCException
+	{
+		boolean sampled = WireLogger.isSampled();
+		Response response = sendRequest( newRequest( Method.GET, URL, null ), null, sampled );
+		try
+		{
+			if( sampled )
+			{
+				WireLogger.logResponse( URL, response.getStatus().getCode(), null );
+			}
+			return handleResponse( response, URL, responseHandler );
+		}
+		finally
+		{
+			releaseConcurrencyPermit( response );
+		}
+	}
+
+	/**
+	 * This method executes the get request as conditional GET, if a response for same URL is found in given cache.
+	 * Validators of cached response are sent to server. If server replies with 304 'Not Modified', cached object is
+	 * returned without reading any response. Otherwise response is passed to handler and the returned object is cached
+	 * for next request.
+	 * 
+	 * @param URL The URL for getting an information from server. It will be invoked with HTTP GET operation
+	 * @param responseHandler Handler to consume the response stream
+	 * @param cache Cache of earlier responses
+	 * @return Object returned by response handler, or the cached object if it is not modified on server
+	 * @throws RCException Throws Exception if there is any problem
+	 * @since 1.2.0
+	 */
+	Object executeConditionalGetRequest( final String URL, final ResponseHandler responseHandler,
+			final ConditionalGetCache cache ) throws RCException
+	{
+		Utilities.assertNotNullArgument( responseHandler, "responseHandler" );
+		Utilities.assertNotNullArgument( cache, "cache" );
+
+		return executeWithRetry( Method.GET, URL, new RequestAttempt<Object>()
+		{
+
+			public Object execute() throws RCException
+			{
+				return attemptConditionalGetRequest( URL, responseHandler, cache );
+			}
+		} );
+	}
+
+	private Object attemptConditionalGetRequest( String URL, ResponseHandler responseHandler, ConditionalGetCache cache )
+			throws RCException
+	{
+		Request request = newRequest( Method.GET, URL, null );
+		ConditionalGetCache.CachedResponse cachedResponse = cache.get( URL );
+		if( cachedResponse != null )
+		{
+			if( cachedResponse.getTag() != null )
+			{
+				request.getConditions().setNoneMatch( Collections.singletonList( cachedResponse.getTag() ) );
+			}
+			if( cachedResponse.getModificationDate() != null )
+			{
+				request.getConditions().setModifiedSince( cachedResponse.getModificationDate() );
+			}
+		}
+
+		boolean sampled = WireLogger.isSampled();
+		Response response = sendRequest( request, null, sampled );
+		try
+		{
+			return handleConditionalGetResponse( response, URL, responseHandler, cache, cachedResponse, sampled );
+		}
+		finally
+		{
+			releaseConcurrencyPermit( response );
+		}
+	}
+
+	private Object handleConditionalGetResponse( Response response, String URL, ResponseHandler responseHandler,
+			ConditionalGetCache cache, ConditionalGetCache.CachedResponse cachedResponse, boolean sampled )
+			throws RCException
+	{
+		if( sampled )
+		{
+			WireLogger.logResponse( URL, response.getStatus().getCode(), null );
+		}
+		if( cachedResponse != null && response.getStatus().getCode() == Status.REDIRECTION_NOT_MODIFIED.getCode() )
+		{
+			if( LOGGER.isDebugEnabled() )
+			{
+				LOGGER.debug( "not-modified, building object from cached response. URL[" + URL + "]" );
+			}
+			// 304 response does not have any contents
+			if( response.getEntity() != null )
+			{
+				response.getEntity().release();
+			}
+			cache.recordNotModified();
+
+			// every caller gets a new object, as caller may change it
+			return responseHandler.handleResponse( cachedResponse.getContents(), cachedResponse.getCharacterSet() );
+		}
+
+		ContentsRecordingResponseHandler recordingHandler = new ContentsRecordingResponseHandler( responseHandler );
+		Object result = handleResponse( response, URL, recordingHandler );
+		Representation output = response.getEntity();
+		cache.put( URL, output.getTag(), output.getModificationDate(), recordingHandler.getContents(),
+				recordingHandler.getCharacterSet() );
+		cache.recordModified();
+		return result;
+	}
+
+	/**
+	 * Response handler which keeps a copy of the contents read from response stream, and passes the stream to another
+	 * handler
+	 */
+	private static class ContentsRecordingResponseHandler implements ResponseHandler
+	{
+
+		private ResponseHandler			responseHandler;
+		private ByteArrayOutputStream	contents	= new ByteArrayOutputStream();
+		private String					characterSet;
+
+		ContentsRecordingResponseHandler( ResponseHandler responseHandler )
+		{
+			this.responseHandler = responseHandler;
+		}
+
+		public Object handleResponse( InputStream responseStream, String characterSet ) throws RCException
+		{
+			this.characterSet = characterSet;
+			return responseHandler.handleResponse( new FilterInputStream( responseStream )
+			{
+
+				public int read() throws IOException
+				{
+					int value = super.read();
+					if( value >= 0 )
+					{
+						contents.write( value );
+					}
+					return value;
+				}
+
+				public int read( byte[] buffer, int offset, int length ) throws IOException
+				{
+					int count = super.read( buffer, offset, length );
+					if( count > 0 )
+					{
+						contents.write( buffer, offset, count );
+					}
+					return count;
+				}
+
+				public long skip( long count ) throws IOException
+				{
+					// skipped contents are also kept, so that these are read again from cached contents
+					byte[] buffer = new byte[(int) Math.min( count, 512 )];
+					int read = read( buffer, 0, buffer.length );
+					return read < 0 ? 0 : read;
+				}
+
+				public boolean markSupported()
+				{
+					return false;
+				}
+			}, characterSet );
+		}
+
+		/**
+		 * @return Contents read by handler from response
+		 */
+		byte[] getContents()
+		{
+			return contents.toByteArray();
+		}
+
+		String getCharacterSet()
+		{
+			return characterSet;
+		}
+	}
+
+	/**
+	 * Passes the response stream to handler if response is successful. Remaining contents are discarded after handler
+	 * returns, so that connection can be reused. Timed handler is told the time taken by request before this.
+	 */
+	private Object handleResponse( Response response, String URL, ResponseHandler responseHandler )
+			throws RCException
+	{
+		Representation output = response.getEntity();
+
+		if( !Status.isSuccess( response.getStatus().getCode() ) )
+		{
+			handleStatus( response, readErrorText( response ) );
+		}
+		if( output == null || !output.isAvailable() )
+		{
+			throw new RCException( RCException.IO_ERROR, "No response contents received from Redmine Server. URL["
+					+ URL + "]" );
+		}
+
+		if( responseHandler instanceof TimedResponseHandler )
+		{
+			Long requestTime = (Long) response.getAttributes().get( ATTRIBUTE_REQUEST_TIME );
+			( (TimedResponseHandler) responseHandler ).setRequestTime( requestTime != null ? requestTime.longValue()
+					: 0 );
+		}
+
+		InputStream responseStream = null;
+		try
+		{
+			responseStream = output.getStream();
+			CharacterSet characterSet = output.getCharacterSet();
+			return responseHandler.handleResponse( responseStream, characterSet != null ? characterSet.getName()
+					: null );
+		}
+		catch( IOException e )
+		{
+			// request may be retried, so failure is logged by caller
+			LOGGER.debug( "Error while reading the response stream", e );
+			throw new RCException( RCException.IO_ERROR, "Error while reading the response stream. URL[" + URL + "]", e );
+		}
+		finally
+		{
+			// parser may stop at the end of root element. Rest of the stream is read, so that connection can be reused
+			discard( responseStream, output );
+		}
+	}
+
 	/**
 	 * This method executes the put request for Rest API with given URL. It is generally used to updated any existing
 	 * information on server
@@ -89,9 +513,111 @@ public class RestletClient
 		return executeRequest( Method.DELETE, URL, null );
 	}
 
-	private String executeRequest( Method operationMethod, String URL, String contents ) throws RCException
+	private String executeRequest( final Method operationMethod, final String URL, final String contents )
+			throws RCException
+	{
+		return executeWithRetry( operationMethod, URL, new RequestAttempt<String>()
+		{
+
+			public String execute() throws RCException
+			{
+				return attemptRequest( operationMethod, URL, contents );
+			}
+		} );
+	}
+
+	private String attemptRequest( Method operationMethod, String URL, String contents ) throws RCException
 	{
-		LOGGER.trace( "executeRequest: operationMethod[" + operationMethod.getName() + "] URL[" + URL + "]" );
+		boolean sampled = WireLogger.isSampled();
+		Response response = sendRequest( newRequest( operationMethod, URL, contents ), contents, sampled );
+
+		boolean success = Status.isSuccess( response.getStatus().getCode() );
+
+		// get output text only if request was successful, or if we get un-processable entity error, when we shall get
+		// the list of errors in XML form
+		String outputText;
+		try
+		{
+			outputText = success ? readText( response.getEntity() ) : readErrorText( response );
+		}
+		finally
+		{
+			releaseConcurrencyPermit( response );
+		}
+		if( LOGGER.isDebugEnabled() )
+		{
+			LOGGER.debug( "response-RestService[" + WireLogger.abbreviate( outputText ) + "]" );
+		}
+		if( sampled )
+		{
+			WireLogger.logResponse( URL, response.getStatus().getCode(), outputText );
+		}
+
+		// process status. If it is success, go ahead. If it is unprocessable_entity, throw error with output text.
+		// Output text will contain the error messages, which can be shown to user. If any other error, throw error
+		// without output text.
+		// TODO: handle status, like authorization failure, server not working
+		handleStatus( response, outputText );
+
+		return outputText;
+	}
+
+	/**
+	 * It makes the attempts of request as per retry policy, if set. Next attempt is made only if request failed due to
+	 * a transient problem, and it can be retried for its method.
+	 */
+	private <T> T executeWithRetry( Method operationMethod, String URL, RequestAttempt<T> requestAttempt )
+			throws RCException
+	{
+		RetryPolicy retryPolicy = this.retryPolicy;
+		if( retryPolicy == null || !retryPolicy.isRetryableMethod( operationMethod.getName() ) )
+		{
+			return requestAttempt.execute();
+		}
+
+		long deadline = System.currentTimeMillis() + retryPolicy.getDeadline();
+		for( int attempt = 1;; attempt++ )
+		{
+			try
+			{
+				return requestAttempt.execute();
+			}
+			catch( RCException rce )
+			{
+				if( attempt >= retryPolicy.getMaxAttempts() || !retryPolicy.isRetryable( rce ) )
+				{
+					throw rce;
+				}
+				long delay = retryPolicy.getDelay( attempt, rce );
+				if( System.currentTimeMillis() + delay > deadline )
+				{
+					LOGGER.debug( "not retrying, deadline would be crossed. attempt[" + attempt + "] delay[" + delay
+							+ "]" );
+					throw rce;
+				}
+
+				LOGGER.warn( "retrying the request. method[" + operationMethod.getName() + "] URL["
+						+ WireLogger.maskURL( URL ) + "] attempt[" + attempt + "] errorCode[" + rce.getErrorCode()
+						+ "] delay[" + delay + "]" );
+				try
+				{
+					Thread.sleep( delay );
+				}
+				catch( InterruptedException e )
+				{
+					Thread.currentThread().interrupt();
+					throw rce;
+				}
+			}
+		}
+	}
+
+	private Request newRequest( Method operationMethod, String URL, String contents )
+	{
+		if( LOGGER.isTraceEnabled() )
+		{
+			LOGGER.trace( "newRequest: operationMethod[" + operationMethod.getName() + "] URL[" + URL + "]" );
+		}
 
 		Utilities.assertQualifiedString( URL, "URL" );
 
@@ -111,74 +637,293 @@ public class RestletClient
 			// MediaType.TEXT_XML);
 			// contentRepresentation.setCharacterSet( CharacterSet.UTF_8 );
 			// request.setEntity( contentRepresentation );
-			LOGGER.debug( "request-contents[" + contents + "]" );
+			if( LOGGER.isDebugEnabled() )
+			{
+				LOGGER.debug( "request-contents[" + WireLogger.abbreviate( contents ) + "]" );
+			}
 			request.setEntity( contents, MediaType.TEXT_XML );
 		}
 
-		Client client = new Client( Protocol.HTTP );
-		Response response = client.handle( request );
+		return request;
+	}
 
-		boolean success = Status.isSuccess( response.getStatus().getCode() );
-		boolean unprocessableEntity = response.getStatus().getCode() == RCException.UNPROCESSABLE_ENTITY;
+	/**
+	 * Sends the request to server. Request is rejected at once if circuit breaker is open, otherwise it waits for rate
+	 * limiter and concurrency limiter first, if these are set. Permit of concurrency limiter is kept with the response,
+	 * and is released by 'releaseConcurrencyPermit' after its contents are read, as request is in flight till then.
+	 * 
+	 * @param contents Contents set to request, to log to wire log
+	 * @param sampled true if request is picked by sampled wire log, when it is logged to wire log
+	 * @throws RCException If circuit breaker is open, or if interrupted while waiting for the limiters
+	 */
+	private Response sendRequest( Request request, String contents, boolean sampled ) throws RCException
+	{
+		if( sampled )
+		{
+			WireLogger.logRequest( request.getMethod().getName(), request.getResourceRef().toString(), contents );
+		}
 
-		LOGGER.debug( "status[" + response.getStatus() + "] isSuccessCode[" + success + "]" );
+		CircuitBreaker circuitBreaker = this.circuitBreaker;
+		long trialRequest = circuitBreaker != null ? circuitBreaker.acquirePermission( request.getResourceRef()
+				.toString() ) : CircuitBreaker.NO_TRIAL;
 
-		// commented from here and shifted down, because we need output text also (error xml) in case of un-processable
-		// entity
-		// handleStatus( response.getStatus() );
+		RateLimiter rateLimiter = this.rateLimiter;
+		ConcurrencyLimiter concurrencyLimiter = this.concurrencyLimiter;
+		try
+		{
+			if( rateLimiter != null )
+			{
+				rateLimiter.acquire();
+			}
+			if( concurrencyLimiter != null )
+			{
+				concurrencyLimiter.acquire();
+			}
+		}
+		catch( InterruptedException e )
+		{
+			if( circuitBreaker != null )
+			{
+				circuitBreaker.releasePermission( trialRequest );
+			}
+			Thread.currentThread().interrupt();
+			throw new RCException( RCException.ILLEGAL_STATE, "Interrupted while waiting to send the request", e );
+		}
 
-		Representation output = response.getEntity();
+		Response response = null;
+		long startTime = System.nanoTime();
+		try
+		{
+			response = client.handle( request );
+		}
+		finally
+		{
+			long requestTime = System.nanoTime() - startTime;
+			if( response != null )
+			{
+				response.getAttributes().put( ATTRIBUTE_REQUEST_TIME, Long.valueOf( requestTime ) );
+			}
+			if( concurrencyLimiter != null && response != null )
+			{
+				response.getAttributes().put( ATTRIBUTE_LIMITER_PERMIT,
+						new ConcurrencyPermit( concurrencyLimiter, getRequestKind( request ), startTime ) );
+			}
+			else if( concurrencyLimiter != null )
+			{
+				concurrencyLimiter.release( getRequestKind( request ), requestTime, true );
+			}
+			if( circuitBreaker != null )
+			{
+				circuitBreaker.recordResult( trialRequest, response == null
+						|| isFailureStatus( response.getStatus().getCode() ) );
+			}
+		}
 
-		// if you call getText on output, it wipes out the contents from output. Hence second call will return null
-		String outputText = null;
+		if( LOGGER.isDebugEnabled() )
+		{
+			LOGGER.debug( "status[" + response.getStatus() + "] isSuccessCode["
+					+ Status.isSuccess( response.getStatus().getCode() ) + "]" );
+		}
+		return response;
+	}
 
-		// get output text only if request was successful, or if we get un-processable entity error, when we shall get
-		// the list of errors in XML form
-		if( success || unprocessableEntity )
+	/**
+	 * It releases the permit of concurrency limiter kept with the response, if any. Latency is measured till now, so it
+	 * includes the time taken to receive the response contents. Calling it again has no effect.
+	 */
+	private void releaseConcurrencyPermit( Response response )
+	{
+		ConcurrencyPermit concurrencyPermit = (ConcurrencyPermit) response.getAttributes().remove(
+				ATTRIBUTE_LIMITER_PERMIT );
+		if( concurrencyPermit != null )
+		{
+			concurrencyPermit.release( isOverloadStatus( response.getStatus().getCode() ) );
+		}
+	}
+
+	/**
+	 * Request counted in flight by concurrency limiter, with the details needed to release it
+	 */
+	private static class ConcurrencyPermit
+	{
+
+		private ConcurrencyLimiter	concurrencyLimiter;
+
+		private String				requestKind;
+
+		/**
+		 * Time when request was sent, as per System.nanoTime
+		 */
+		private long				startTime;
+
+		ConcurrencyPermit( ConcurrencyLimiter concurrencyLimiter, String requestKind, long startTime )
+		{
+			this.concurrencyLimiter = concurrencyLimiter;
+			this.requestKind = requestKind;
+			this.startTime = startTime;
+		}
+
+		void release( boolean overloaded )
+		{
+			concurrencyLimiter.release( requestKind, System.nanoTime() - startTime, overloaded );
+		}
+	}
+
+	/**
+	 * It returns the kind of request, for comparing the response times of similar requests only. Kind is made of method,
+	 * path with digits replaced by '#', and page size if specified, like 'GET /issues/#.xml' or 'GET /issues.xml
+	 * limit=100'.
+	 */
+	static String getRequestKind( Request request )
+	{
+		String path = request.getResourceRef().getPath();
+		String query = request.getResourceRef().getQuery();
+
+		StringBuilder requestKind = new StringBuilder( 64 ).append( request.getMethod().getName() ).append( ' ' );
+		boolean digits = false;
+		for( int i = 0; path != null && i < path.length(); i++ )
+		{
+			char pathChar = path.charAt( i );
+			if( !Character.isDigit( pathChar ) )
+			{
+				requestKind.append( pathChar );
+			}
+			else if( !digits )
+			{
+				requestKind.append( '#' );
+			}
+			digits = Character.isDigit( pathChar );
+		}
+
+		int limitIndex = query == null ? -1 : query.indexOf( "limit=" );
+		if( limitIndex == 0 || limitIndex > 0 && query.charAt( limitIndex - 1 ) == '&' )
+		{
+			int limitEndIndex = query.indexOf( '&', limitIndex );
+			requestKind.append( ' ' ).append(
+					limitEndIndex < 0 ? query.substring( limitIndex ) : query.substring( limitIndex, limitEndIndex ) );
+		}
+		return requestKind.toString();
+	}
+
+	/**
+	 * @return true if status shows that server is overloaded, or could not be reached
+	 */
+	private static boolean isOverloadStatus( int statusCode )
+	{
+		return Status.isServerError( statusCode ) || Status.isConnectorError( statusCode )
+				|| statusCode == STATUS_TOO_MANY_REQUESTS;
+	}
+
+	/**
+	 * @return true if status shows that server is not working, or could not be reached
+	 */
+	private static boolean isFailureStatus( int statusCode )
+	{
+		return Status.isServerError( statusCode ) || Status.isConnectorError( statusCode );
+	}
+
+	/**
+	 * Reads the text of failed response. Text is read only for un-processable entity error, when it contains the list
+	 * of errors in XML form. For other errors, response contents are discarded.
+	 */
+	private String readErrorText( Response response ) throws RCException
+	{
+		if( response.getStatus().getCode() == RCException.UNPROCESSABLE_ENTITY )
+		{
+			return readText( response.getEntity() );
+		}
+		Representation output = response.getEntity();
+		if( output != null && output.isAvailable() )
 		{
 			try
 			{
-				outputText = output.getText();
+				discard( output.getStream(), output );
 			}
 			catch( IOException e )
 			{
-				LOGGER.error( e );
-				throw new RCException( RCException.IO_ERROR, "Error while getting output response text " );
+				LOGGER.debug( "Problem while reading the error response", e );
+				output.release();
 			}
 		}
-		LOGGER.debug( "response-RestService[" + outputText + "]" );
+		return null;
+	}
 
-		// process status. If it is success, go ahead. If it is unprocessable_entity, throw error with output text.
-		// Output text will contain the error messages, which can be shown to user. If any other error, throw error
-		// without output text.
-		// TODO: handle status, like authorization failure, server not working
-		handleStatus( response.getStatus(), outputText );
+	private String readText( Representation output ) throws RCException
+	{
+		if( output == null )
+		{
+			return null;
+		}
 
-		return outputText;
+		// if you call getText on output, it wipes out the contents from output. Hence second call will return null
+		try
+		{
+			return output.getText();
+		}
+		catch( IOException e )
+		{
+			LOGGER.debug( "Error while getting output response text", e );
+			throw new RCException( RCException.IO_ERROR, "Error while getting output response text ", e );
+		}
+	}
+
+	/**
+	 * Reads and discards the remaining contents of response, and closes the stream. Pooled connection can be used for
+	 * next request only after whole response has been read from it.
+	 */
+	private void discard( InputStream responseStream, Representation output )
+	{
+		if( responseStream == null )
+		{
+			output.release();
+			return;
+		}
+		try
+		{
+			byte[] buffer = new byte[512];
+			while( responseStream.read( buffer ) >= 0 )
+			{
+				// discarding the remaining contents
+			}
+			responseStream.close();
+		}
+		catch( IOException e )
+		{
+			LOGGER.debug( "Problem while discarding the response contents", e );
+			output.release();
+		}
 	}
 
 	/**
 	 * This method handle the response code from Rest API. Depending upon the response code, it set the right error code
 	 * to Exception if there is any problem.
 	 * 
-	 * @param restRequestStatus Status returned from Server
+	 * @param response Response returned from Server
 	 * @throws RCException Throws Exception if response code is not favorable
 	 */
-	private void handleStatus( Status restRequestStatus, String outputText ) throws RCException
+	private void handleStatus( Response response, String outputText ) throws RCException
 	{
+		Status restRequestStatus = response.getStatus();
 		int statusCode = restRequestStatus.getCode();
 
 		if( Status.isSuccess( statusCode ) )
 		{
-			LOGGER.debug( "Success Code received from Redmine Server[" + statusCode + "]" );
+			if( LOGGER.isDebugEnabled() )
+			{
+				LOGGER.debug( "Success Code received from Redmine Server[" + statusCode + "]" );
+			}
 			return;
 		}
-		LOGGER.debug( "isClientError[" + Status.isClientError( statusCode ) + "]" );
-		LOGGER.debug( "isInformationalError[" + Status.isInformational( statusCode ) + "]" );
-		LOGGER.debug( "isServerError[" + Status.isServerError( statusCode ) + "]" );
-		LOGGER.debug( "unauthorized[" + ( statusCode == Status.CLIENT_ERROR_UNAUTHORIZED.getCode() ) + "]" );
-		LOGGER.debug( "connectionError[" + ( statusCode == Status.CONNECTOR_ERROR_CONNECTION.getCode() ) + "]" );
-		LOGGER.debug( "communicationError[" + ( statusCode == Status.CONNECTOR_ERROR_COMMUNICATION.getCode() ) + "]" );
+		if( LOGGER.isDebugEnabled() )
+		{
+			LOGGER.debug( "isClientError[" + Status.isClientError( statusCode ) + "]" );
+			LOGGER.debug( "isInformationalError[" + Status.isInformational( statusCode ) + "]" );
+			LOGGER.debug( "isServerError[" + Status.isServerError( statusCode ) + "]" );
+			LOGGER.debug( "unauthorized[" + ( statusCode == Status.CLIENT_ERROR_UNAUTHORIZED.getCode() ) + "]" );
+			LOGGER.debug( "connectionError[" + ( statusCode == Status.CONNECTOR_ERROR_CONNECTION.getCode() ) + "]" );
+			LOGGER.debug( "communicationError[" + ( statusCode == Status.CONNECTOR_ERROR_COMMUNICATION.getCode() )
+					+ "]" );
+		}
 
 		RCException rce = null;
 		if( statusCode == RCException.UNPROCESSABLE_ENTITY )
@@ -212,10 +957,21 @@ public class RestletClient
 					+ "] serverError[" + ( Status.isServerError( statusCode ) ) + "] clientError["
 					+ Status.isClientError( statusCode ) + "]", outputText );
 		}
-		LOGGER.error( rce );
+		rce.setRetryAfter( response.getRetryAfter() );
+		// request may be retried, or error may be expected like 404 for a deleted object, so it is logged by caller
+		LOGGER.debug( rce );
 		throw rce;
 	}
 
+	/**
+	 * One attempt of a request
+	 */
+	private interface RequestAttempt<T>
+	{
+
+		T execute() throws RCException;
+	}
+
 	public static void main( String[] args ) throws Exception
 	{
 		RestletClient rc = new RestletClient();
@@ -0,0 +1,219 @@
+package com.vedantatree.redmineconnector;
+
+import java.io.IOException;
+import java.util.Date;
+import java.util.Random;
+
+import org.restlet.data.Status;
+
+
+/**
+ * This object holds the settings for retrying the requests which fail due to a transient problem, like a connection
+ * error, 502 'Bad Gateway', 503 'Service Unavailable', 504 'Gateway Timeout' or 429 'Too Many Requests' status, or an
+ * IO error while reading the response. Other failures, like 404 or 422, are not retried.
+ * 
+ * <p>
+ * GET, PUT and DELETE requests are retried, as these are idempotent. POST request creates a new object every time, so
+ * it is retried only if 'retryPost' is set. Failed request is retried till 'maxAttempts' attempts are made, or till
+ * next attempt would start after 'deadline' from the first attempt.
+ * 
+ * <p>
+ * Delay before next attempt grows exponentially, from 'initialBackoff' multiplied by 'backoffMultiplier' for every
+ * attempt, up to 'maxBackoff'. Actual delay is a random time up to this value (full jitter), so that clients failed
+ * together do not retry together. If server specifies the Retry-After header, delay is at least that much.
+ * 
+ * <p>
+ * Default values are suitable for most of the cases. Values can be changed any time, these are read for every failed
+ * request.
+ * 
+ * @author Mohit Gupta [mohit.gupta@vedantatree.com]
+ * @since 1.2.0
+ */
+public class RetryPolicy
+{
+
+	private static int		STATUS_BAD_GATEWAY			= 502;
+	private static int		STATUS_SERVICE_UNAVAILABLE	= 503;
+	private static int		STATUS_GATEWAY_TIMEOUT		= 504;
+
+	/**
+	 * Maximum number of attempts for a request, including the first one
+	 */
+	private int				maxAttempts					= 4;
+
+	/**
+	 * Maximum delay in milliseconds before second attempt
+	 */
+	private long			initialBackoff				= 200;
+
+	/**
+	 * Maximum delay grows by this factor for every next attempt
+	 */
+	private double			backoffMultiplier			= 2;
+
+	/**
+	 * Maximum delay in milliseconds before any attempt, except when server asks for more with Retry-After
+	 */
+	private long			maxBackoff					= 10 * 1000;
+
+	/**
+	 * Time in milliseconds from first attempt after which no more attempt is started
+	 */
+	private long			deadline					= 60 * 1000;
+
+	/**
+	 * Whether POST requests should also be retried
+	 */
+	private boolean			retryPost;
+
+	private Random			random						= new Random();
+
+	public RetryPolicy()
+	{
+	}
+
+	public RetryPolicy( int maxAttempts, long initialBackoff, long maxBackoff, long deadline )
+	{
+		setMaxAttempts( maxAttempts );
+		setInitialBackoff( initialBackoff );
+		setMaxBackoff( maxBackoff );
+		setDeadline( deadline );
+	}
+
+	/**
+	 * @return true if request of given method can be retried
+	 */
+	boolean isRetryableMethod( String method )
+	{
+		return !"POST".equals( method ) || retryPost;
+	}
+
+	/**
+	 * @return true if request failed with given exception can be retried. IO error is retried only if reading the
+	 *         response failed, not for other IO errors like a successful response without contents.
+	 */
+	boolean isRetryable( RCException rce )
+	{
+		int errorCode = rce.getErrorCode();
+		return ( errorCode == RCException.IO_ERROR && rce.getCause() instanceof IOException )
+				|| errorCode == STATUS_BAD_GATEWAY
+				|| errorCode == STATUS_SERVICE_UNAVAILABLE || errorCode == STATUS_GATEWAY_TIMEOUT
+				|| errorCode == RestletClient.STATUS_TOO_MANY_REQUESTS || Status.isConnectorError( errorCode );
+	}
+
+	/**
+	 * @param attempt Number of attempt which failed, starting from 1
+	 * @param rce Exception with which it failed
+	 * @return Delay in milliseconds before next attempt
+	 */
+	long getDelay( int attempt, RCException rce )
+	{
+		double backoff = Math.min( maxBackoff, initialBackoff * Math.pow( backoffMultiplier, attempt - 1 ) );
+		long delay;
+		synchronized( random )
+		{
+			delay = (long) ( random.nextDouble() * backoff );
+		}
+
+		Date retryAfter = rce.getRetryAfter();
+		if( retryAfter != null )
+		{
+			delay = Math.max( delay, retryAfter.getTime() - System.currentTimeMillis() );
+		}
+		return delay;
+	}
+
+	public int getMaxAttempts()
+	{
+		return maxAttempts;
+	}
+
+	public void setMaxAttempts( int maxAttempts )
+	{
+		if( maxAttempts < 1 )
+		{
+			throw new IllegalArgumentException( "Max attempts must be one or more. maxAttempts[" + maxAttempts + "]" );
+		}
+		this.maxAttempts = maxAttempts;
+	}
+
+	public long getInitialBackoff()
+	{
+		return initialBackoff;
+	}
+
+	public void setInitialBackoff( long initialBackoff )
+	{
+		if( initialBackoff < 0 )
+		{
+			throw new IllegalArgumentException( "Initial backoff can not be negative. initialBackoff[" + initialBackoff
+					+ "]" );
+		}
+		this.initialBackoff = initialBackoff;
+	}
+
+	public double getBackoffMultiplier()
+	{
+		return backoffMultiplier;
+	}
+
+	public void setBackoffMultiplier( double backoffMultiplier )
+	{
+		if( backoffMultiplier < 1 )
+		{
+			throw new IllegalArgumentException( "Backoff multiplier must be one or more. backoffMultiplier["
+					+ backoffMultiplier + "]" );
+		}
+		this.backoffMultiplier = backoffMultiplier;
+	}
+
+	public long getMaxBackoff()
+	{
+		return maxBackoff;
+	}
+
+	public void setMaxBackoff( long maxBackoff )
+	{
+		if( maxBackoff < 0 )
+		{
+			throw new IllegalArgumentException( "Max backoff can not be negative. maxBackoff[" + maxBackoff + "]" );
+		}
+		this.maxBackoff = maxBackoff;
+	}
+
+	public long getDeadline()
+	{
+		return deadline;
+	}
+
+	public void setDeadline( long deadline )
+	{
+		if( deadline < 0 )
+		{
+			throw new IllegalArgumentException( "Deadline can not be negative. deadline[" + deadline + "]" );
+		}
+		this.deadline = deadline;
+	}
+
+	public boolean isRetryPost()
+	{
+		return retryPost;
+	}
+
+	/**
+	 * @param retryPost true if POST requests should also be retried. Retried POST may create the object twice, if
+	 *        first attempt was processed by server but its response was lost.
+	 */
+	public void setRetryPost( boolean retryPost )
+	{
+		this.retryPost = retryPost;
+	}
+
+	public String toString()
+	{
+		return "RetryPolicy@" + hashCode() + ": maxAttempts[" + maxAttempts + "] initialBackoff[" + initialBackoff
+				+ "] backoffMultiplier[" + backoffMultiplier + "] maxBackoff[" + maxBackoff + "] deadline[" + deadline
+				+ "] retryPost[" + retryPost + "]";
+	}
+
+}
@@ -0,0 +1,23 @@
+package com.vedantatree.redmineconnector;
+
+
+/**
+ * Response handler which is also told how long the server took to reply. It is used where the time spent by server
+ * for a request matters, like for adapting the page size to response time.
+ *
+ * @author Mohit Gupta [mohit.gupta@vedantatree.com]
+ * @since 1.2.0
+ */
+interface TimedResponseHandler extends ResponseHandler
+{
+
+	/**
+	 * It is called before 'handleResponse' for the attempt whose response is passed to handler. Time is measured from
+	 * sending the request till receiving the response status. It does not include the time spent waiting for rate
+	 * limiter or concurrency limiter, or in earlier failed attempts and the delays before retrying them.
+	 *
+	 * @param requestTime Time taken by the request in nanoseconds
+	 */
+	void setRequestTime( long requestTime );
+
+}
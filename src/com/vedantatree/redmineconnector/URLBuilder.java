@@ -15,6 +15,11 @@ import com.vedantatree.redmineconnector.utils.Utilities;
  * This object builds the URL for various operations performed using Redmine Restlet services. This comes in existence
  * to centralize the logic of URL building at one place, as, pattern of URL is same for all type of objects.
  * 
+ * <p>
+ * URL of every request is built from a template prepared once per type when builder is created. The template has the
+ * server address and path of type, and the '.xml?key=' part with the security key. URL is rendered from it in one pass
+ * with a StringBuilder. Filter names and values, and includes, are URL encoded while rendering, hence these should be
+ * specified as plain text.
  * 
  * @author Mohit Gupta [mohit.gupta@vedantatree.com]
  * @since 1.1
@@ -29,6 +34,13 @@ public class URLBuilder
 	private static String						URL_PARAM_PREFIX			= "?";
 	private static String						URL_PARAM_SEPARATOR			= "&";
 	private static String						URL_INCLUDE_KEY				= "include=";
+	private static String						URL_INCLUDE_SEPARATOR		= ",";
+	private static char[]						HEX_DIGITS					= "0123456789ABCDEF".toCharArray();
+
+	/**
+	 * Rough length of an id, filter or includes part, used to size the StringBuilder for URL
+	 */
+	private static int							URL_PART_LENGTH_ESTIMATE	= 16;
 
 	static
 	{
@@ -52,6 +64,16 @@ public class URLBuilder
 	 */
 	private String								securityKey;
 
+	/**
+	 * Start of URL for every type, i.e. server address followed by path of type, like http://localhost:3000/issues
+	 */
+	private Map<Class<?>, String>				typeURLPrefixes				= new HashMap<Class<?>, String>();
+
+	/**
+	 * End of URL common for all types, i.e. '.xml?key=' followed by security key
+	 */
+	private String								urlSuffix;
+
 	// TODO later we may want to support other authentication like user id and password
 
 	public URLBuilder( String serverAddress, String securityKey )
@@ -60,6 +82,17 @@ public class URLBuilder
 		Utilities.assertQualifiedString( securityKey, "Security Key" );
 		this.serverAddress = serverAddress;
 		this.securityKey = securityKey;
+		prepareURLTemplates();
+	}
+
+	private void prepareURLTemplates()
+	{
+		for( Iterator<Map.Entry<Class<?>, String>> iterator = URL_MAP.entrySet().iterator(); iterator.hasNext(); )
+		{
+			Map.Entry<Class<?>, String> entry = iterator.next();
+			typeURLPrefixes.put( entry.getKey(), serverAddress + URL_SEPARATOR + entry.getValue() );
+		}
+		urlSuffix = URL_REQUEST_POSTFIX + URL_PARAM_PREFIX + URL_SECRURITY_KEY_PREFIX + securityKey;
 	}
 
 	// -------------- URL formats ---------------------------------
@@ -79,8 +112,7 @@ public class URLBuilder
 	// TODO how to specify RedmineBDO as param type which can support sub - classes also
 	public String buildURLToCreateObject( Class<?> objectType )
 	{
-		String url = getBaseURLForType( objectType, null );
-		return url;
+		return getBaseURLForType( objectType, null );
 	}
 
 	/**
@@ -118,9 +150,9 @@ public class URLBuilder
 	 */
 	public String buildURLToGetObjectById( Class<?> objectType, Object objectId, Collection<String> includes )
 	{
-		String url = getBaseURLForType( objectType, objectId );
-		url = appendIncludesToURL( url, includes );
-		return url;
+		StringBuilder url = newBaseURL( objectType, objectId, includes == null ? 0 : includes.size() );
+		appendIncludesToURL( url, includes );
+		return url.toString();
 	}
 
 	/**
@@ -130,43 +162,42 @@ public class URLBuilder
 	 * @param includes Collection of 'includes' criteria string. These type of objects should be included with retrieved
 	 *        object (if applicable)
 	 * @param filters Collections of 'filters' criteria key<>value pair. These filters should be applicable to the list
-	 *        returned by Redmine.
+	 *        returned by Redmine. Values should not be URL encoded, like '>=2011-02-13' for 'updated_on'.
 	 * @return URL for retrieving the list of objects for given criteria
 	 */
 	public String buildURLToGetObjectsList( Class<?> objectType, Collection<String> includes,
 			Map<String, String> filters )
 	{
-		String url = getBaseURLForType( objectType, null );
-		url = appendFilterToURL( url, filters );
-		url = appendIncludesToURL( url, includes );
-		return url;
+		StringBuilder url = newBaseURL( objectType, null, ( filters == null ? 0 : filters.size() * 2 )
+				+ ( includes == null ? 0 : includes.size() ) );
+		appendFilterToURL( url, filters );
+		appendIncludesToURL( url, includes );
+		return url.toString();
 	}
 
 	/**
 	 * This method will append the filter parameter to the URL. Filters are applicable only if user is fetching list of
-	 * objects.
+	 * objects. Filter names and values are URL encoded.
 	 * 
 	 * @param url URL built by this URL Builder for current request, without includes
 	 * @param filters Map of 'filter' criteria. It is having key value pair, key as filter name and value as filter
 	 *        value
-	 * @return An updated URL which has list of 'filter' criteria also
 	 */
-	private String appendFilterToURL( String url, Map<String, String> filters )
+	private void appendFilterToURL( StringBuilder url, Map<String, String> filters )
 	{
 		if( filters == null || filters.size() == 0 )
 		{
-			return url;
+			return;
 		}
 
-		String filterString = "";
 		for( Iterator<Map.Entry<String, String>> iterator = filters.entrySet().iterator(); iterator.hasNext(); )
 		{
-			filterString += URL_PARAM_SEPARATOR;
-			Map.Entry<String, String> entry = (Map.Entry<String, String>) iterator.next();
-			filterString += entry.getKey() + "=" + entry.getValue();
+			Map.Entry<String, String> entry = iterator.next();
+			url.append( URL_PARAM_SEPARATOR );
+			appendEncoded( url, entry.getKey() );
+			url.append( '=' );
+			appendEncoded( url, entry.getValue() );
 		}
-
-		return url + filterString;
 	}
 
 	/**
@@ -175,59 +206,150 @@ public class URLBuilder
 	 * 
 	 * @param url URL built by this URL Builder for current request, without includes
 	 * @param includes Collection of includes criteria
-	 * @return An updated URL which has list of 'includes' criteria also
 	 */
-	private String appendIncludesToURL( String url, Collection<String> includes )
+	private void appendIncludesToURL( StringBuilder url, Collection<String> includes )
 	{
 		if( includes == null || includes.size() == 0 )
 		{
-			return url;
+			return;
 		}
-		url += URL_PARAM_SEPARATOR;
-		url += URL_INCLUDE_KEY;
+		url.append( URL_PARAM_SEPARATOR );
+		url.append( URL_INCLUDE_KEY );
 
-		String includeString = "";
+		boolean first = true;
 		for( Iterator<String> iterator = includes.iterator(); iterator.hasNext(); )
 		{
-			if( includeString.trim().length() != 0 )
+			String include = iterator.next();
+			if( include == null || include.trim().length() == 0 )
 			{
-				includeString += ", ";
+				continue;
 			}
-			includeString += (String) iterator.next();
+			if( !first )
+			{
+				url.append( URL_INCLUDE_SEPARATOR );
+			}
+			appendEncoded( url, include.trim() );
+			first = false;
 		}
-		url += includeString;
+	}
 
-		return url;
+	/**
+	 * It appends the text to URL after encoding it as per 'application/x-www-form-urlencoded' format, using UTF-8.
+	 * Letters, digits and '-', '_', '.', '*' are appended as such, space as '+' and all other characters as %XX of
+	 * their UTF-8 bytes. It gives same result as URLEncoder, without creating intermediate Strings.
+	 */
+	static void appendEncoded( StringBuilder url, String text )
+	{
+		if( text == null )
+		{
+			return;
+		}
+		for( int i = 0; i < text.length(); i++ )
+		{
+			char ch = text.charAt( i );
+			if( ( ch >= 'a' && ch <= 'z' ) || ( ch >= 'A' && ch <= 'Z' ) || ( ch >= '0' && ch <= '9' ) || ch == '-'
+					|| ch == '_' || ch == '.' || ch == '*' )
+			{
+				url.append( ch );
+			}
+			else if( ch == ' ' )
+			{
+				url.append( '+' );
+			}
+			else if( ch < 0x80 )
+			{
+				appendEncodedByte( url, ch );
+			}
+			else if( ch < 0x800 )
+			{
+				appendEncodedByte( url, 0xC0 | ( ch >> 6 ) );
+				appendEncodedByte( url, 0x80 | ( ch & 0x3F ) );
+			}
+			else if( Character.isHighSurrogate( ch ) && i + 1 < text.length()
+					&& Character.isLowSurrogate( text.charAt( i + 1 ) ) )
+			{
+				int codePoint = Character.toCodePoint( ch, text.charAt( ++i ) );
+				appendEncodedByte( url, 0xF0 | ( codePoint >> 18 ) );
+				appendEncodedByte( url, 0x80 | ( ( codePoint >> 12 ) & 0x3F ) );
+				appendEncodedByte( url, 0x80 | ( ( codePoint >> 6 ) & 0x3F ) );
+				appendEncodedByte( url, 0x80 | ( codePoint & 0x3F ) );
+			}
+			else if( ch >= Character.MIN_SURROGATE && ch <= Character.MAX_SURROGATE )
+			{
+				// unpaired surrogate, encoded as '?' same as URLEncoder
+				appendEncodedByte( url, '?' );
+			}
+			else
+			{
+				appendEncodedByte( url, 0xE0 | ( ch >> 12 ) );
+				appendEncodedByte( url, 0x80 | ( ( ch >> 6 ) & 0x3F ) );
+				appendEncodedByte( url, 0x80 | ( ch & 0x3F ) );
+			}
+		}
+	}
+
+	private static void appendEncodedByte( StringBuilder url, int value )
+	{
+		url.append( '%' ).append( HEX_DIGITS[( value >> 4 ) & 0xF] ).append( HEX_DIGITS[value & 0xF] );
 	}
 
-	private String getBaseURLForType( Class objectType, Object objectId )
+	/**
+	 * It removes the security key parameter from given URL, so that URL can be stored or compared without the key.
+	 * 
+	 * @param URL URL built by URL builder
+	 * @return URL without 'key' parameter, or same URL if it does not have the key
+	 */
+	static String removeSecurityKey( String URL )
 	{
-		String URL = serverAddress;
-		String objectURL = URL_MAP.get( objectType );
-		if( !Utilities.isQualifiedString( objectURL ) )
+		int keyIndex = URL.indexOf( URL_SECRURITY_KEY_PREFIX );
+		while( keyIndex > 0 && !URL.startsWith( URL_PARAM_PREFIX, keyIndex - 1 )
+				&& !URL.startsWith( URL_PARAM_SEPARATOR, keyIndex - 1 ) )
+		{
+			keyIndex = URL.indexOf( URL_SECRURITY_KEY_PREFIX, keyIndex + 1 );
+		}
+		if( keyIndex < 0 )
+		{
+			return URL;
+		}
+
+		int keyEnd = URL.indexOf( URL_PARAM_SEPARATOR, keyIndex );
+		if( keyEnd < 0 )
+		{
+			// key is last parameter, remove it along with separator before it
+			return URL.substring( 0, URL.startsWith( URL_PARAM_PREFIX, keyIndex - 1 ) ? keyIndex : keyIndex - 1 );
+		}
+		return URL.substring( 0, keyIndex ) + URL.substring( keyEnd + 1 );
+	}
+
+	private String getBaseURLForType( Class<?> objectType, Object objectId )
+	{
+		return newBaseURL( objectType, objectId, 0 ).toString();
+	}
+
+	/**
+	 * It renders the base URL for type from its template, i.e. server address, path of type, object id if specified,
+	 * '.xml' and the security key. Builder is sized for the base URL and given number of more parts.
+	 */
+	private StringBuilder newBaseURL( Class<?> objectType, Object objectId, int morePartsCount )
+	{
+		String typeURLPrefix = typeURLPrefixes.get( objectType );
+		if( typeURLPrefix == null )
 		{
 			throw new RCRuntimeException( RCRuntimeException.ILLEGAL_STATE,
 					"No URL mapping found for specified object type. It could be some development bug. objectType["
 							+ objectType + "]" );
 		}
-		URL += URL_SEPARATOR + objectURL;
+
+		StringBuilder url = new StringBuilder( typeURLPrefix.length() + urlSuffix.length()
+				+ ( morePartsCount + 1 ) * URL_PART_LENGTH_ESTIMATE );
+		url.append( typeURLPrefix );
 
 		// add object id, if specified. It means, request is for update, delete or get by id
 		if( objectId != null )
 		{
-			URL += URL_SEPARATOR + objectId;
+			url.append( URL_SEPARATOR ).append( objectId );
 		}
-
-		// adding .xml
-		URL += URL_REQUEST_POSTFIX;
-
-		// adding start of parameters mark i.e. '?'
-		URL += URL_PARAM_PREFIX;
-
-		// adding security key
-		URL += URL_SECRURITY_KEY_PREFIX;
-		URL += securityKey;
-
-		return URL;
+		url.append( urlSuffix );
+		return url;
 	}
 }
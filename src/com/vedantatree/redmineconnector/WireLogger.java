@@ -0,0 +1,205 @@
+package com.vedantatree.redmineconnector;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.apache.commons.logging.Log;
+import org.apache.commons.logging.LogFactory;
+
+
+/**
+ * This object logs the requests sent to Redmine Server and the responses received, and keeps the size of logged
+ * payloads in limit.
+ * 
+ * <p>
+ * Request and response XML can be hundreds of KB, like for a page of issues. Connector logs these at debug level only,
+ * and only first 'maxPayloadLength' characters of these, so that debug logging does not copy whole responses.
+ * 
+ * <p>
+ * For troubleshooting in production, where debug level is generally off, wire log can be sampled. If sampling is
+ * enabled, one out of every 'sampleRate' requests is logged at info level with log category
+ * 'com.vedantatree.redmineconnector.wire', including its URL, status and capped payloads. Security key is masked in
+ * the logged URL. Sampling is disabled by default.
+ * 
+ * @author Mohit Gupta [mohit.gupta@vedantatree.com]
+ * @since 1.2.0
+ */
+public class WireLogger
+{
+
+	/**
+	 * Log category of wire log
+	 */
+	public static String		WIRE_LOG_CATEGORY			= "com.vedantatree.redmineconnector.wire";
+
+	private static Log			LOGGER						= LogFactory.getLog( WireLogger.class );
+	private static Log			WIRE_LOGGER					= LogFactory.getLog( WIRE_LOG_CATEGORY );
+
+	/**
+	 * Default number of characters of payload to log
+	 */
+	public static int			DEFAULT_MAX_PAYLOAD_LENGTH	= 2048;
+
+	private static String		SECURITY_KEY_PARAM			= "key=";
+
+	private static volatile int	maxPayloadLength			= DEFAULT_MAX_PAYLOAD_LENGTH;
+
+	/**
+	 * One out of every these many requests is logged to wire log. Zero means sampling is disabled.
+	 */
+	private static volatile int	sampleRate;
+
+	private static AtomicLong	requestCounter				= new AtomicLong();
+
+	private WireLogger()
+	{
+	}
+
+	/**
+	 * @param maxPayloadLength Number of characters of request and response payloads to log. Rest of the payload is
+	 *        left out, and only its length is logged.
+	 */
+	public static void setMaxPayloadLength( int maxPayloadLength )
+	{
+		if( maxPayloadLength < 0 )
+		{
+			throw new IllegalArgumentException( "Max payload length can not be negative. maxPayloadLength["
+					+ maxPayloadLength + "]" );
+		}
+		WireLogger.maxPayloadLength = maxPayloadLength;
+	}
+
+	public static int getMaxPayloadLength()
+	{
+		return maxPayloadLength;
+	}
+
+	/**
+	 * It enables the sampled wire log.
+	 * 
+	 * @param sampleRate One out of every these many requests is logged. 1 means every request is logged.
+	 */
+	public static void enableSampling( int sampleRate )
+	{
+		if( sampleRate <= 0 )
+		{
+			throw new IllegalArgumentException( "Sample rate should be greater than zero. sampleRate[" + sampleRate
+					+ "]" );
+		}
+		LOGGER.info( "enabling sampled wire log. sampleRate[" + sampleRate + "]" );
+		WireLogger.sampleRate = sampleRate;
+	}
+
+	public static void disableSampling()
+	{
+		sampleRate = 0;
+	}
+
+	/**
+	 * @return One out of every these many requests is logged to wire log, zero if sampling is disabled
+	 */
+	public static int getSampleRate()
+	{
+		return sampleRate;
+	}
+
+	/**
+	 * It decides whether the request being sent now should be logged to wire log. It should be called once for every
+	 * request.
+	 */
+	static boolean isSampled()
+	{
+		int sampleRate = WireLogger.sampleRate;
+		if( sampleRate == 0 || !WIRE_LOGGER.isInfoEnabled() )
+		{
+			return false;
+		}
+		return requestCounter.getAndIncrement() % sampleRate == 0;
+	}
+
+	static void logRequest( String method, String URL, String contents )
+	{
+		StringBuilder message = new StringBuilder( 64 + URL.length() + Math.min( payloadLength( contents ),
+				maxPayloadLength ) );
+		message.append( "request: method[" ).append( method ).append( "] URL[" );
+		appendMaskedURL( message, URL );
+		message.append( "] contents[" );
+		appendPayload( message, contents );
+		WIRE_LOGGER.info( message.append( ']' ) );
+	}
+
+	static void logResponse( String URL, int status, String contents )
+	{
+		StringBuilder message = new StringBuilder( 64 + URL.length() + Math.min( payloadLength( contents ),
+				maxPayloadLength ) );
+		message.append( "response: status[" ).append( status ).append( "] URL[" );
+		appendMaskedURL( message, URL );
+		message.append( "] contents[" );
+		appendPayload( message, contents );
+		WIRE_LOGGER.info( message.append( ']' ) );
+	}
+
+	/**
+	 * @return Payload capped to max payload length, for logging. If it is longer, only first part of it is returned
+	 *         with the total length.
+	 */
+	static String abbreviate( Object payload )
+	{
+		if( payload == null )
+		{
+			return null;
+		}
+		String text = payload.toString();
+		if( text.length() <= maxPayloadLength )
+		{
+			return text;
+		}
+		return appendPayload( new StringBuilder( maxPayloadLength + 32 ), text ).toString();
+	}
+
+	private static StringBuilder appendPayload( StringBuilder message, String payload )
+	{
+		int maxPayloadLength = WireLogger.maxPayloadLength;
+		if( payload == null || payload.length() <= maxPayloadLength )
+		{
+			return message.append( payload );
+		}
+		return message.append( payload, 0, maxPayloadLength ).append( "...(length " ).append( payload.length() )
+				.append( ')' );
+	}
+
+	/**
+	 * @return URL with the value of security key masked, for logging
+	 */
+	static String maskURL( String URL )
+	{
+		StringBuilder maskedURL = new StringBuilder( URL.length() );
+		appendMaskedURL( maskedURL, URL );
+		return maskedURL.toString();
+	}
+
+	private static void appendMaskedURL( StringBuilder message, String URL )
+	{
+		int keyIndex = URL.indexOf( SECURITY_KEY_PARAM );
+		while( keyIndex > 0 && URL.charAt( keyIndex - 1 ) != '?' && URL.charAt( keyIndex - 1 ) != '&' )
+		{
+			keyIndex = URL.indexOf( SECURITY_KEY_PARAM, keyIndex + 1 );
+		}
+		if( keyIndex < 0 )
+		{
+			message.append( URL );
+			return;
+		}
+		int keyEnd = URL.indexOf( '&', keyIndex );
+		message.append( URL, 0, keyIndex + SECURITY_KEY_PARAM.length() ).append( "****" );
+		if( keyEnd > 0 )
+		{
+			message.append( URL, keyEnd, URL.length() );
+		}
+	}
+
+	private static int payloadLength( String payload )
+	{
+		return payload == null ? 4 : payload.length() + 32;
+	}
+
+}
@@ -0,0 +1,512 @@
+package com.vedantatree.redmineconnector;
+
+import java.beans.IntrospectionException;
+import java.beans.Introspector;
+import java.beans.PropertyDescriptor;
+import java.lang.reflect.InvocationTargetException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.FutureTask;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.apache.commons.logging.Log;
+import org.apache.commons.logging.LogFactory;
+
+import com.vedantatree.redmineconnector.bdo.Issue;
+import com.vedantatree.redmineconnector.bdo.Project;
+import com.vedantatree.redmineconnector.bdo.RedmineBDO;
+import com.vedantatree.redmineconnector.utils.Utilities;
+
+
+/**
+ * WriteCoalescingQueue is a write behind queue for issue and project updates. Updates submitted for the same object
+ * within the coalescing window are merged, and are sent to Redmine Server as one update request once the window ends.
+ * Window starts with the first pending update of an object, so a steady stream of updates does not delay the write
+ * indefinitely.
+ *
+ * <p>
+ * Updates are merged using the properties set on the submitted object, as recorded by its setters. Later value of a
+ * property replaces the earlier one. Submitted object is not kept by queue, its changed properties are copied and its
+ * dirty marks are cleared. An object without any recorded change is sent as whole. Its properties are copied at
+ * submit, nested objects like status are shared, and later changes for the same id within the window are applied to
+ * the copy.
+ *
+ * <p>
+ * Every submit returns a Future, which completes when the merged update has been sent. All submits merged into one
+ * update get the same Future. If update fails, Future.get() throws ExecutionException with the RCException as its
+ * cause. Writes for the same object are sent in order, one at a time.
+ *
+ * @author Mohit Gupta [mohit.gupta@vedantatree.com]
+ * @since 1.2.0
+ */
+public class WriteCoalescingQueue
+{
+
+	private static Log												LOGGER				= LogFactory.getLog( WriteCoalescingQueue.class );
+
+	/**
+	 * Number of threads in default executor, which send the merged updates
+	 */
+	static int														DEFAULT_POOL_SIZE	= 4;
+
+	/**
+	 * Property descriptors of BDO classes by property name, used to copy the changed properties
+	 */
+	private static Map<Class<?>, Map<String, PropertyDescriptor>>	propertyDescriptors	= new ConcurrentHashMap<Class<?>, Map<String, PropertyDescriptor>>();
+
+	private RedmineConnector										redmineConnector;
+
+	/**
+	 * Time in milliseconds for which updates of an object are collected before sending
+	 */
+	private long													coalescingWindow;
+
+	private ScheduledExecutorService								executorService;
+
+	/**
+	 * Whether executor was created by this object. Only such executor is shut down with this object.
+	 */
+	private boolean													ownExecutorService;
+
+	/**
+	 * Writes which are collecting updates, by object key. Access to this and 'flushingWrites' is synchronized on
+	 * 'pendingWrites'.
+	 */
+	private Map<String, PendingWrite>								pendingWrites		= new HashMap<String, PendingWrite>();
+
+	/**
+	 * Writes which are being sent to server, by object key
+	 */
+	private Map<String, PendingWrite>								flushingWrites		= new HashMap<String, PendingWrite>();
+
+	private AtomicLong												submittedCount		= new AtomicLong();
+	private AtomicLong												writeCount			= new AtomicLong();
+
+	/**
+	 * Creates the queue with a default executor, which is shut down with 'shutdown'
+	 *
+	 * @param redmineConnector Connector to send the updates with
+	 * @param coalescingWindow Time in milliseconds for which updates of an object are collected before sending
+	 */
+	public WriteCoalescingQueue( RedmineConnector redmineConnector, long coalescingWindow )
+	{
+		this( redmineConnector, coalescingWindow, Executors.newScheduledThreadPool( DEFAULT_POOL_SIZE,
+				AsyncRedmineConnector.newDaemonThreadFactory( "redmine-write" ) ), true );
+	}
+
+	/**
+	 * Creates the queue with specified executor. Executor is not shut down by this object, as it is owned by caller.
+	 *
+	 * @param redmineConnector Connector to send the updates with
+	 * @param coalescingWindow Time in milliseconds for which updates of an object are collected before sending
+	 * @param executorService Executor to schedule and send the updates
+	 */
+	public WriteCoalescingQueue( RedmineConnector redmineConnector, long coalescingWindow,
+			ScheduledExecutorService executorService )
+	{
+		this( redmineConnector, coalescingWindow, executorService, false );
+	}
+
+	private WriteCoalescingQueue( RedmineConnector redmineConnector, long coalescingWindow,
+			ScheduledExecutorService executorService, boolean ownExecutorService )
+	{
+		Utilities.assertNotNullArgument( redmineConnector, "redmineConnector" );
+		Utilities.assertNotNullArgument( executorService, "executorService" );
+		if( coalescingWindow < 0 )
+		{
+			throw new RCRuntimeException( RCRuntimeException.ILLEGAL_ARGUMENT,
+					"Coalescing window can not be negative. coalescingWindow[" + coalescingWindow + "]" );
+		}
+		this.redmineConnector = redmineConnector;
+		this.coalescingWindow = coalescingWindow;
+		this.executorService = executorService;
+		this.ownExecutorService = ownExecutorService;
+	}
+
+	/**
+	 * It queues the update of given issue. Changes are merged with other pending updates of same issue.
+	 *
+	 * @param updatedIssue Issue with changed properties. Its id must be set.
+	 * @return Future which completes when the merged update has been sent
+	 */
+	public Future<Void> updateIssue( Issue updatedIssue )
+	{
+		Utilities.assertNotNullArgument( updatedIssue, "updatedIssue" );
+		return submit( updatedIssue, updatedIssue.getId() );
+	}
+
+	/**
+	 * It queues the update of given project. Changes are merged with other pending updates of same project.
+	 *
+	 * @param updatedProject Project with changed properties. Its id must be set.
+	 * @return Future which completes when the merged update has been sent
+	 */
+	public Future<Void> updateProject( Project updatedProject )
+	{
+		Utilities.assertNotNullArgument( updatedProject, "updatedProject" );
+		return submit( updatedProject, updatedProject.getId() );
+	}
+
+	private Future<Void> submit( RedmineBDO updatedObject, Long objectId )
+	{
+		LOGGER.trace( "submit: updatedObject[" + updatedObject + "] dirtyFields[" + updatedObject.getDirtyFields()
+				+ "]" );
+		Utilities.assertNotNullArgument( objectId, "objectId" );
+		if( executorService.isShutdown() )
+		{
+			throw new RCRuntimeException( RCRuntimeException.ILLEGAL_STATE,
+					"WriteCoalescingQueue has already been shut down" );
+		}
+
+		String key = updatedObject.getClass().getName() + "#" + objectId;
+		synchronized( pendingWrites )
+		{
+			submittedCount.incrementAndGet();
+			PendingWrite pendingWrite = pendingWrites.get( key );
+			if( pendingWrite != null )
+			{
+				pendingWrite.merge( updatedObject );
+				return pendingWrite.task;
+			}
+
+			pendingWrite = new PendingWrite( key );
+			pendingWrite.merge( updatedObject );
+			pendingWrites.put( key, pendingWrite );
+			scheduleFlush( pendingWrite, coalescingWindow );
+			return pendingWrite.task;
+		}
+	}
+
+	private void scheduleFlush( final PendingWrite pendingWrite, long delay )
+	{
+		try
+		{
+			executorService.schedule( new Runnable()
+			{
+
+				public void run()
+				{
+					flush( pendingWrite );
+				}
+			}, delay, TimeUnit.MILLISECONDS );
+		}
+		catch( RejectedExecutionException e )
+		{
+			// executor has been shut down while previous write of the object was being sent
+			LOGGER.debug( "executor rejected the flush, flushing in current thread. key[" + pendingWrite.key + "]" );
+			flush( pendingWrite );
+		}
+	}
+
+	/**
+	 * It sends the merged update. If previous write of same object is still being sent, this write keeps collecting
+	 * the updates and is sent once previous write completes.
+	 */
+	private void flush( PendingWrite pendingWrite )
+	{
+		synchronized( pendingWrites )
+		{
+			if( pendingWrite.flushed )
+			{
+				return;
+			}
+			PendingWrite flushingWrite = flushingWrites.get( pendingWrite.key );
+			if( flushingWrite != null )
+			{
+				flushingWrite.successor = pendingWrite;
+				return;
+			}
+			pendingWrite.flushed = true;
+			pendingWrites.remove( pendingWrite.key );
+			flushingWrites.put( pendingWrite.key, pendingWrite );
+		}
+
+		PendingWrite successor;
+		try
+		{
+			// exception of update is kept in future
+			pendingWrite.task.run();
+		}
+		finally
+		{
+			synchronized( pendingWrites )
+			{
+				flushingWrites.remove( pendingWrite.key );
+				successor = pendingWrite.successor;
+			}
+		}
+		if( successor != null )
+		{
+			scheduleFlush( successor, 0 );
+		}
+	}
+
+	/**
+	 * It sends all pending updates now, without waiting for their window to end
+	 *
+	 * @return Futures of the pending updates
+	 */
+	public List<Future<Void>> flush()
+	{
+		LOGGER.trace( "flush" );
+
+		List<PendingWrite> writesToFlush;
+		synchronized( pendingWrites )
+		{
+			writesToFlush = new ArrayList<PendingWrite>( pendingWrites.values() );
+		}
+		List<Future<Void>> futures = new ArrayList<Future<Void>>( writesToFlush.size() );
+		for( Iterator<PendingWrite> iterator = writesToFlush.iterator(); iterator.hasNext(); )
+		{
+			PendingWrite pendingWrite = iterator.next();
+			scheduleFlush( pendingWrite, 0 );
+			futures.add( pendingWrite.task );
+		}
+		return futures;
+	}
+
+	/**
+	 * @return Number of updates waiting for their window to end
+	 */
+	public int getPendingCount()
+	{
+		synchronized( pendingWrites )
+		{
+			return pendingWrites.size();
+		}
+	}
+
+	/**
+	 * @return Number of updates submitted to queue
+	 */
+	public long getSubmittedCount()
+	{
+		return submittedCount.get();
+	}
+
+	/**
+	 * @return Number of update requests sent to Redmine Server
+	 */
+	public long getWriteCount()
+	{
+		return writeCount.get();
+	}
+
+	public long getCoalescingWindow()
+	{
+		return coalescingWindow;
+	}
+
+	/**
+	 * It sends all pending updates, and shuts down the default executor if it was created by this object. Executor
+	 * specified by caller is not touched. Pending updates are sent by the executor, this method does not wait for
+	 * them.
+	 */
+	public void shutdown()
+	{
+		LOGGER.trace( "shutdown: ownExecutorService[" + ownExecutorService + "]" );
+		flush();
+		if( ownExecutorService )
+		{
+			// scheduled flushes of pending writes are run before termination as per default executor policy
+			executorService.shutdown();
+		}
+	}
+
+	public String toString()
+	{
+		return "WriteCoalescingQueue@" + hashCode() + ": coalescingWindow[" + coalescingWindow + "] pending["
+				+ getPendingCount() + "] submitted[" + getSubmittedCount() + "] writes[" + getWriteCount() + "]";
+	}
+
+	/**
+	 * @return New object of same type as given object, with only the id copied from it
+	 */
+	private static RedmineBDO newObjectWithId( RedmineBDO source )
+	{
+		RedmineBDO target;
+		try
+		{
+			target = source.getClass().getDeclaredConstructor().newInstance();
+		}
+		catch( Exception e )
+		{
+			throw new RCRuntimeException( RCRuntimeException.ILLEGAL_STATE, "Problem while creating object["
+					+ source.getClass().getName() + "]", e );
+		}
+		copyProperty( source, target, "id" );
+		return target;
+	}
+
+	/**
+	 * It copies all the properties having getter and setter from source object to target object. Nested objects are
+	 * not copied, these are shared by both.
+	 */
+	private static void copyAllProperties( RedmineBDO source, RedmineBDO target )
+	{
+		for( Iterator<PropertyDescriptor> iterator = getPropertyDescriptors( source.getClass() ).values().iterator(); iterator
+				.hasNext(); )
+		{
+			PropertyDescriptor descriptor = iterator.next();
+			if( descriptor.getReadMethod() != null && descriptor.getWriteMethod() != null )
+			{
+				copyProperty( source, target, descriptor.getName() );
+			}
+		}
+	}
+
+	/**
+	 * It copies the properties changed on source object to target object, using their getters and setters
+	 */
+	private static void copyChangedProperties( RedmineBDO source, RedmineBDO target )
+	{
+		for( Iterator<String> iterator = source.getDirtyFields().iterator(); iterator.hasNext(); )
+		{
+			copyProperty( source, target, iterator.next() );
+		}
+	}
+
+	private static void copyProperty( RedmineBDO source, RedmineBDO target, String propertyName )
+	{
+		PropertyDescriptor descriptor = getPropertyDescriptors( source.getClass() ).get( propertyName );
+		if( descriptor == null || descriptor.getReadMethod() == null || descriptor.getWriteMethod() == null )
+		{
+			throw new RCRuntimeException( RCRuntimeException.ILLEGAL_STATE, "Property can not be copied. type["
+					+ source.getClass().getName() + "] property[" + propertyName + "]" );
+		}
+		try
+		{
+			descriptor.getWriteMethod().invoke( target, descriptor.getReadMethod().invoke( source ) );
+		}
+		catch( IllegalAccessException e )
+		{
+			throw new RCRuntimeException( RCRuntimeException.ILLEGAL_STATE, "Problem while copying property["
+					+ propertyName + "]", e );
+		}
+		catch( InvocationTargetException e )
+		{
+			throw new RCRuntimeException( RCRuntimeException.ILLEGAL_STATE, "Problem while copying property["
+					+ propertyName + "]", e.getCause() );
+		}
+	}
+
+	private static Map<String, PropertyDescriptor> getPropertyDescriptors( Class<?> type )
+	{
+		Map<String, PropertyDescriptor> descriptors = propertyDescriptors.get( type );
+		if( descriptors == null )
+		{
+			descriptors = new HashMap<String, PropertyDescriptor>();
+			try
+			{
+				PropertyDescriptor[] typeDescriptors = Introspector.getBeanInfo( type ).getPropertyDescriptors();
+				for( int i = 0; i < typeDescriptors.length; i++ )
+				{
+					descriptors.put( typeDescriptors[i].getName(), typeDescriptors[i] );
+				}
+			}
+			catch( IntrospectionException e )
+			{
+				throw new RCRuntimeException( RCRuntimeException.ILLEGAL_STATE, "Problem while reading properties of type["
+						+ type.getName() + "]", e );
+			}
+			propertyDescriptors.put( type, descriptors );
+		}
+		return descriptors;
+	}
+
+	/**
+	 * Merged updates of one object, and the task which sends these
+	 */
+	private class PendingWrite
+	{
+
+		private String				key;
+
+		/**
+		 * Object which collects the changes, and is sent to server
+		 */
+		private RedmineBDO			mergedObject;
+
+		/**
+		 * Whether merged object is a whole object submitted without recorded changes, and hence should be sent as whole
+		 */
+		private boolean				wholeObject;
+
+		private FutureTask<Void>	task;
+
+		/**
+		 * Whether this write has been started. It is not flushed again by a later scheduled or explicit flush.
+		 */
+		private boolean				flushed;
+
+		/**
+		 * Next write of same object, which is waiting for this write to complete
+		 */
+		private PendingWrite		successor;
+
+		PendingWrite( String key )
+		{
+			this.key = key;
+			this.task = new FutureTask<Void>( new Callable<Void>()
+			{
+
+				public Void call() throws RCException
+				{
+					write();
+					return null;
+				}
+			} );
+		}
+
+		void merge( RedmineBDO updatedObject )
+		{
+			if( updatedObject.getDirtyFields().isEmpty() )
+			{
+				// no recorded change, whole object is sent. Changes merged earlier are replaced by it. Copy is sent, as
+				// caller may change its object before the write.
+				mergedObject = newObjectWithId( updatedObject );
+				copyAllProperties( updatedObject, mergedObject );
+				wholeObject = true;
+				return;
+			}
+
+			if( mergedObject == null )
+			{
+				mergedObject = newObjectWithId( updatedObject );
+			}
+			copyChangedProperties( updatedObject, mergedObject );
+			updatedObject.clearDirtyFields();
+		}
+
+		private void write() throws RCException
+		{
+			LOGGER.debug( "writing merged update. key[" + key + "] dirtyFields[" + mergedObject.getDirtyFields() + "]" );
+
+			if( wholeObject )
+			{
+				// changes copied to it later are part of whole object, so these should not make the update partial
+				mergedObject.clearDirtyFields();
+			}
+			writeCount.incrementAndGet();
+			if( mergedObject instanceof Issue )
+			{
+				redmineConnector.updateIssue( (Issue) mergedObject );
+			}
+			else
+			{
+				redmineConnector.updateProject( (Project) mergedObject );
+			}
+		}
+	}
+
+}
@@ -89,6 +89,7 @@ public class Issue extends RedmineBDO
 	public void setId( Long id )
 	{
 		this.id = id;
+		markDirty( "id" );
 	}
 
 	public Priority getPriority()
@@ -104,6 +105,7 @@ public class Issue extends RedmineBDO
 	public void setStartDate( Date startDate )
 	{
 		this.startDate = startDate;
+		markDirty( "startDate" );
 	}
 
 	public Date getDueDate()
@@ -114,6 +116,7 @@ public class Issue extends RedmineBDO
 	public void setDueDate( Date dueDate )
 	{
 		this.dueDate = dueDate;
+		markDirty( "dueDate" );
 	}
 
 	public Issue getParent()
@@ -124,6 +127,7 @@ public class Issue extends RedmineBDO
 	public void setParent( Issue parent )
 	{
 		this.parent = parent;
+		markDirty( "parent" );
 	}
 
 	public String getSubject()
@@ -134,6 +138,7 @@ public class Issue extends RedmineBDO
 	public void setSubject( String subject )
 	{
 		this.subject = subject;
+		markDirty( "subject" );
 	}
 
 	public String getDescription()
@@ -144,6 +149,7 @@ public class Issue extends RedmineBDO
 	public void setDescription( String description )
 	{
 		this.description = description;
+		markDirty( "description" );
 	}
 
 	public User getAssignedTo()
@@ -154,6 +160,7 @@ public class Issue extends RedmineBDO
 	public void setAssignedTo( User owner )
 	{
 		this.assignedTo = owner;
+		markDirty( "assignedTo" );
 	}
 
 	public User getAuthor()
@@ -164,6 +171,7 @@ public class Issue extends RedmineBDO
 	public void setAuthor( User creator )
 	{
 		this.author = creator;
+		markDirty( "author" );
 	}
 
 	public Integer getPercentageDone()
@@ -174,6 +182,7 @@ public class Issue extends RedmineBDO
 	public void setPercentageDone( Integer percentageDone )
 	{
 		this.percentageDone = percentageDone;
+		markDirty( "percentageDone" );
 	}
 
 	public Float getEstimatedEfforts()
@@ -184,6 +193,7 @@ public class Issue extends RedmineBDO
 	public void setEstimatedEfforts( Float estimatedEfforts )
 	{
 		this.estimatedEfforts = estimatedEfforts;
+		markDirty( "estimatedEfforts" );
 	}
 
 	public Float getSpentEfforts()
@@ -199,6 +209,7 @@ public class Issue extends RedmineBDO
 					"Spent Efforts is not processed properly by Redmine API, so currently there is no use to set it" );
 		}
 		this.spentEfforts = spentEfforts;
+		markDirty( "spentEfforts" );
 	}
 
 	public Date getCreatedOn()
@@ -209,6 +220,7 @@ public class Issue extends RedmineBDO
 	public void setCreatedOn( Date createdOn )
 	{
 		this.createdOn = createdOn;
+		markDirty( "createdOn" );
 	}
 
 	public Date getUpdatedOn()
@@ -219,6 +231,7 @@ public class Issue extends RedmineBDO
 	public void setUpdatedOn( Date updatedOn )
 	{
 		this.updatedOn = updatedOn;
+		markDirty( "updatedOn" );
 	}
 
 	public Project getProject()
@@ -229,6 +242,7 @@ public class Issue extends RedmineBDO
 	public void setProject( Project project )
 	{
 		this.project = project;
+		markDirty( "project" );
 	}
 
 	public Tracker getTracker()
@@ -239,6 +253,7 @@ public class Issue extends RedmineBDO
 	public void setTracker( Tracker tracker )
 	{
 		this.tracker = tracker;
+		markDirty( "tracker" );
 	}
 
 	public Status getStatus()
@@ -249,11 +264,13 @@ public class Issue extends RedmineBDO
 	public void setStatus( Status status )
 	{
 		this.status = status;
+		markDirty( "status" );
 	}
 
 	public void setPriority( Priority priority )
 	{
 		this.priority = priority;
+		markDirty( "priority" );
 	}
 
 	public List<String> validate( List<String> errors )
@@ -42,6 +42,7 @@ public class Project extends RedmineBDO
 	public void setId( Long id )
 	{
 		this.id = id;
+		markDirty( "id" );
 	}
 
 	public String getName()
@@ -52,6 +53,7 @@ public class Project extends RedmineBDO
 	public void setName( String name )
 	{
 		this.name = name;
+		markDirty( "name" );
 	}
 
 	public String getDescription()
@@ -62,6 +64,7 @@ public class Project extends RedmineBDO
 	public void setDescription( String description )
 	{
 		this.description = description;
+		markDirty( "description" );
 	}
 
 	public String getIdentifier()
@@ -72,6 +75,7 @@ public class Project extends RedmineBDO
 	public void setIdentifier( String identifier )
 	{
 		this.identifier = identifier;
+		markDirty( "identifier" );
 	}
 
 	public String getHomePage()
@@ -82,6 +86,7 @@ public class Project extends RedmineBDO
 	public void setHomePage( String homePage )
 	{
 		this.homePage = homePage;
+		markDirty( "homePage" );
 	}
 
 	public Date getCreatedOn()
@@ -92,6 +97,7 @@ public class Project extends RedmineBDO
 	public void setCreatedOn( Date createdOn )
 	{
 		this.createdOn = createdOn;
+		markDirty( "createdOn" );
 	}
 
 	public Date getUpdatedOn()
@@ -102,6 +108,7 @@ public class Project extends RedmineBDO
 	public void setUpdatedOn( Date updatedOn )
 	{
 		this.updatedOn = updatedOn;
+		markDirty( "updatedOn" );
 	}
 
 	public ArrayList<Tracker> getTrackers()
@@ -112,6 +119,7 @@ public class Project extends RedmineBDO
 	public void setTrackers( ArrayList<Tracker> trackers )
 	{
 		this.trackers = trackers;
+		markDirty( "trackers" );
 	}
 
 	public List<String> validate( List<String> errors )
@@ -1,11 +1,21 @@
 package com.vedantatree.redmineconnector.bdo;
 
+import java.util.Collections;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Set;
 
 
 public abstract class RedmineBDO
 {
 
+	/**
+	 * Names of properties which have been set since the object was received from Redmine Server, or since it was last
+	 * updated. Property name is same as in getter and setter, like 'status' or 'percentageDone'. It is used to send only
+	 * the changed properties in update request.
+	 */
+	private Set<String>	dirtyFields;
+
 	/*
 	 * Have to remove id from here. Facing problem with binding configuration.
 	 * 
@@ -50,4 +60,40 @@ public abstract class RedmineBDO
 
 	public abstract List<String> validate( List<String> errors );
 
+	/**
+	 * Records that given property has been set. It is called by setters.
+	 * 
+	 * @param fieldName Name of property, as in its getter and setter
+	 */
+	protected void markDirty( String fieldName )
+	{
+		if( dirtyFields == null )
+		{
+			dirtyFields = new LinkedHashSet<String>();
+		}
+		dirtyFields.add( fieldName );
+	}
+
+	/**
+	 * @return Names of properties set since the object was received from Redmine Server or last updated, in the order
+	 *         these were set
+	 */
+	public Set<String> getDirtyFields()
+	{
+		return dirtyFields == null ? Collections.<String> emptySet() : Collections.unmodifiableSet( dirtyFields );
+	}
+
+	public boolean isDirty( String fieldName )
+	{
+		return dirtyFields != null && dirtyFields.contains( fieldName );
+	}
+
+	/**
+	 * Marks the object as unchanged. It is called once the object is received from Redmine Server, or is updated on it.
+	 */
+	public void clearDirtyFields()
+	{
+		dirtyFields = null;
+	}
+
 }
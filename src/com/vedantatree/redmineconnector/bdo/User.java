@@ -66,6 +66,7 @@ public class User extends RedmineBDO
 	public void setId( Long id )
 	{
 		this.id = id;
+		markDirty( "id" );
 	}
 
 	public String getLogin()
@@ -76,6 +77,7 @@ public class User extends RedmineBDO
 	public void setLogin( String login )
 	{
 		this.login = login;
+		markDirty( "login" );
 	}
 
 	public String getPassword()
@@ -86,6 +88,7 @@ public class User extends RedmineBDO
 	public void setPassword( String password )
 	{
 		this.password = password;
+		markDirty( "password" );
 	}
 
 	public String getFirstName()
@@ -96,6 +99,7 @@ public class User extends RedmineBDO
 	public void setFirstName( String firstName )
 	{
 		this.firstName = firstName;
+		markDirty( "firstName" );
 	}
 
 	public String getLastName()
@@ -106,6 +110,7 @@ public class User extends RedmineBDO
 	public void setLastName( String lastName )
 	{
 		this.lastName = lastName;
+		markDirty( "lastName" );
 	}
 
 	public String getEmail()
@@ -116,6 +121,7 @@ public class User extends RedmineBDO
 	public void setEmail( String email )
 	{
 		this.email = email;
+		markDirty( "email" );
 	}
 
 	public int getAuthenticationSourceType()
@@ -126,6 +132,7 @@ public class User extends RedmineBDO
 	public void setAuthenticationSourceType( int authenticationSourceType )
 	{
 		this.authenticationSourceType = authenticationSourceType;
+		markDirty( "authenticationSourceType" );
 	}
 
 	public Date getCreatedOn()
@@ -136,6 +143,7 @@ public class User extends RedmineBDO
 	public void setCreatedOn( Date createdOn )
 	{
 		this.createdOn = createdOn;
+		markDirty( "createdOn" );
 	}
 
 	public Date getLastLoginOn()
@@ -146,6 +154,7 @@ public class User extends RedmineBDO
 	public void setLastLoginOn( Date lastLoginOn )
 	{
 		this.lastLoginOn = lastLoginOn;
+		markDirty( "lastLoginOn" );
 	}
 
 	public ArrayList<ProjectMembership> getProjectMemberships()
@@ -156,6 +165,7 @@ public class User extends RedmineBDO
 	public void setProjectMemberships( ArrayList<ProjectMembership> projectMemberships )
 	{
 		this.projectMemberships = projectMemberships;
+		markDirty( "projectMemberships" );
 	}
 
 	public ArrayList<UserGroup> getUserGroups()
@@ -166,6 +176,7 @@ public class User extends RedmineBDO
 	public void setUserGroups( ArrayList<UserGroup> userGroups )
 	{
 		this.userGroups = userGroups;
+		markDirty( "userGroups" );
 	}
 
 	public String getFullName()
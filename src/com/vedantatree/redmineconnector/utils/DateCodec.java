@@ -0,0 +1,462 @@
+package com.vedantatree.redmineconnector.utils;
+
+import java.util.Date;
+import java.util.TimeZone;
+
+
+/**
+ * This class converts the date values sent by Redmine Server to Date objects and vice versa. It replaces the shared
+ * SimpleDateFormat objects, which are not thread safe and were corrupting the dates when pages were parsed in
+ * parallel.
+ *
+ * <p>
+ * Parsing is done by hand in one pass over the text. Format is recognized from the characters found, so no exception
+ * is thrown for any expected format. Following formats are supported:
+ * <ul>
+ * <li>yyyy-MM-dd >> 2011-02-13, taken as midnight of default time zone</li>
+ * <li>yyyy-MM-ddTHH:mm:ss[.SSS][Z|+hh:mm] >> 2011-02-13T17:59:24+02:00, taken in default time zone if zone is not
+ * specified</li>
+ * <li>EEE MMM dd HH:mm:ss Z yyyy >> Sun Feb 13 17:59:24 +0200 2011</li>
+ * </ul>
+ *
+ * All methods are static and do not keep any state, hence these can be called by any number of threads.
+ *
+ * @author Mohit Gupta [mohit.gupta@vedantatree.com]
+ * @since 1.2.0
+ */
+public final class DateCodec
+{
+
+	private static final long		MILLIS_PER_SECOND	= 1000L;
+	private static final long		MILLIS_PER_MINUTE	= 60 * MILLIS_PER_SECOND;
+	private static final long		MILLIS_PER_HOUR		= 60 * MILLIS_PER_MINUTE;
+	private static final long		MILLIS_PER_DAY		= 24 * MILLIS_PER_HOUR;
+
+	private static final String[]	MONTH_NAMES			= { "Jan", "Feb", "Mar", "Apr", "May", "Jun", "Jul", "Aug", "Sep", "Oct", "Nov", "Dec" };
+
+	private static final TimeZone	UTC					= TimeZone.getTimeZone( "UTC" );
+
+	private DateCodec()
+	{
+	}
+
+	/**
+	 * It parses the date text in any of the supported formats.
+	 *
+	 * @param text Date text to parse
+	 * @return Parsed date, or null if text is null, empty or is not in any of the supported formats
+	 */
+	public static Date parse( String text )
+	{
+		if( text == null )
+		{
+			return null;
+		}
+
+		int start = 0;
+		int end = text.length();
+		while( start < end && text.charAt( start ) <= ' ' )
+		{
+			start++;
+		}
+		while( end > start && text.charAt( end - 1 ) <= ' ' )
+		{
+			end--;
+		}
+		if( end - start < 10 )
+		{
+			return null;
+		}
+
+		long millis = isDigit( text.charAt( start ) ) ? parseISO( text, start, end ) : parseRedmine( text, start, end );
+		return millis == Long.MIN_VALUE ? null : new Date( millis );
+	}
+
+	/**
+	 * Parses yyyy-MM-dd with optional time part
+	 *
+	 * @return time in milliseconds, or Long.MIN_VALUE if format is not valid
+	 */
+	private static long parseISO( String text, int start, int end )
+	{
+		int year = parseNumber( text, start, start + 4 );
+		if( year < 0 || text.charAt( start + 4 ) != '-' || text.charAt( start + 7 ) != '-' )
+		{
+			return Long.MIN_VALUE;
+		}
+		int month = parseNumber( text, start + 5, start + 7 );
+		int day = parseNumber( text, start + 8, start + 10 );
+		if( !isValidDate( year, month, day ) )
+		{
+			return Long.MIN_VALUE;
+		}
+
+		long localMillis = daysFromCivil( year, month, day ) * MILLIS_PER_DAY;
+		int index = start + 10;
+		if( index == end )
+		{
+			return toUTC( localMillis, TimeZone.getDefault() );
+		}
+
+		// time part >> THH:mm:ss
+		if( end - index < 9 || ( text.charAt( index ) != 'T' && text.charAt( index ) != ' ' ) )
+		{
+			return Long.MIN_VALUE;
+		}
+		long timeMillis = parseTime( text, index + 1 );
+		if( timeMillis < 0 )
+		{
+			return Long.MIN_VALUE;
+		}
+		localMillis += timeMillis;
+		index += 9;
+
+		// fraction of second, only milliseconds are kept
+		if( index < end && text.charAt( index ) == '.' )
+		{
+			index++;
+			int fractionStart = index;
+			int fraction = 0;
+			while( index < end && isDigit( text.charAt( index ) ) )
+			{
+				if( index - fractionStart < 3 )
+				{
+					fraction = fraction * 10 + ( text.charAt( index ) - '0' );
+				}
+				index++;
+			}
+			int digits = index - fractionStart;
+			if( digits == 0 )
+			{
+				return Long.MIN_VALUE;
+			}
+			for( ; digits < 3; digits++ )
+			{
+				fraction *= 10;
+			}
+			localMillis += fraction;
+		}
+
+		if( index == end )
+		{
+			return toUTC( localMillis, TimeZone.getDefault() );
+		}
+		long offset = parseZoneOffset( text, index, end );
+		return offset == Long.MIN_VALUE ? Long.MIN_VALUE : localMillis - offset;
+	}
+
+	/**
+	 * Parses EEE MMM dd HH:mm:ss Z yyyy
+	 *
+	 * @return time in milliseconds, or Long.MIN_VALUE if format is not valid
+	 */
+	private static long parseRedmine( String text, int start, int end )
+	{
+		// skipping day name
+		int index = text.indexOf( ' ', start );
+		if( index < 0 || index + 4 > end )
+		{
+			return Long.MIN_VALUE;
+		}
+		index++;
+
+		int month = 0;
+		for( int i = 0; i < MONTH_NAMES.length; i++ )
+		{
+			if( text.regionMatches( true, index, MONTH_NAMES[i], 0, 3 ) )
+			{
+				month = i + 1;
+				break;
+			}
+		}
+		if( month == 0 || text.charAt( index + 3 ) != ' ' )
+		{
+			return Long.MIN_VALUE;
+		}
+		index += 4;
+
+		// day can be of one or two digits
+		int dayEnd = index;
+		while( dayEnd < end && isDigit( text.charAt( dayEnd ) ) )
+		{
+			dayEnd++;
+		}
+		if( dayEnd - index < 1 || dayEnd - index > 2 || dayEnd + 9 > end || text.charAt( dayEnd ) != ' ' )
+		{
+			return Long.MIN_VALUE;
+		}
+		int day = parseNumber( text, index, dayEnd );
+		index = dayEnd + 1;
+
+		long timeMillis = parseTime( text, index );
+		if( timeMillis < 0 )
+		{
+			return Long.MIN_VALUE;
+		}
+		index += 8;
+		if( index >= end || text.charAt( index ) != ' ' )
+		{
+			return Long.MIN_VALUE;
+		}
+		index++;
+
+		int zoneEnd = text.indexOf( ' ', index );
+		if( zoneEnd < 0 || zoneEnd + 5 != end )
+		{
+			return Long.MIN_VALUE;
+		}
+		long offset = parseZoneOffset( text, index, zoneEnd );
+		int year = parseNumber( text, zoneEnd + 1, end );
+		if( offset == Long.MIN_VALUE || !isValidDate( year, month, day ) )
+		{
+			return Long.MIN_VALUE;
+		}
+		return daysFromCivil( year, month, day ) * MILLIS_PER_DAY + timeMillis - offset;
+	}
+
+	/**
+	 * Parses HH:mm:ss starting from given index
+	 *
+	 * @return time of day in milliseconds, or -1 if format is not valid
+	 */
+	private static long parseTime( String text, int index )
+	{
+		if( text.charAt( index + 2 ) != ':' || text.charAt( index + 5 ) != ':' )
+		{
+			return -1;
+		}
+		int hour = parseNumber( text, index, index + 2 );
+		int minute = parseNumber( text, index + 3, index + 5 );
+		int second = parseNumber( text, index + 6, index + 8 );
+		if( hour < 0 || hour > 23 || minute < 0 || minute > 59 || second < 0 || second > 59 )
+		{
+			return -1;
+		}
+		return hour * MILLIS_PER_HOUR + minute * MILLIS_PER_MINUTE + second * MILLIS_PER_SECOND;
+	}
+
+	/**
+	 * Parses Z, UTC, GMT, +hh:mm, +hhmm or +hh
+	 *
+	 * @return zone offset in milliseconds, or Long.MIN_VALUE if format is not valid
+	 */
+	private static long parseZoneOffset( String text, int start, int end )
+	{
+		int length = end - start;
+		char sign = text.charAt( start );
+		if( length == 1 && ( sign == 'Z' || sign == 'z' ) )
+		{
+			return 0;
+		}
+		if( length == 3
+				&& ( text.regionMatches( true, start, "UTC", 0, 3 ) || text.regionMatches( true, start, "GMT", 0, 3 ) ) )
+		{
+			return 0;
+		}
+		if( sign != '+' && sign != '-' )
+		{
+			return Long.MIN_VALUE;
+		}
+
+		int hour;
+		int minute;
+		if( length == 3 )
+		{
+			hour = parseNumber( text, start + 1, start + 3 );
+			minute = 0;
+		}
+		else if( length == 5 )
+		{
+			hour = parseNumber( text, start + 1, start + 3 );
+			minute = parseNumber( text, start + 3, start + 5 );
+		}
+		else if( length == 6 && text.charAt( start + 3 ) == ':' )
+		{
+			hour = parseNumber( text, start + 1, start + 3 );
+			minute = parseNumber( text, start + 4, start + 6 );
+		}
+		else
+		{
+			return Long.MIN_VALUE;
+		}
+		if( hour < 0 || hour > 23 || minute < 0 || minute > 59 )
+		{
+			return Long.MIN_VALUE;
+		}
+		long offset = hour * MILLIS_PER_HOUR + minute * MILLIS_PER_MINUTE;
+		return sign == '-' ? -offset : offset;
+	}
+
+	/**
+	 * @return Number in text between start and end, or -1 if any character is not a digit
+	 */
+	private static int parseNumber( String text, int start, int end )
+	{
+		int number = 0;
+		for( int i = start; i < end; i++ )
+		{
+			char ch = text.charAt( i );
+			if( !isDigit( ch ) )
+			{
+				return -1;
+			}
+			number = number * 10 + ( ch - '0' );
+		}
+		return number;
+	}
+
+	private static boolean isDigit( char ch )
+	{
+		return ch >= '0' && ch <= '9';
+	}
+
+	private static boolean isValidDate( int year, int month, int day )
+	{
+		return year >= 0 && month >= 1 && month <= 12 && day >= 1 && day <= daysInMonth( year, month );
+	}
+
+	private static int daysInMonth( int year, int month )
+	{
+		if( month == 2 )
+		{
+			boolean leapYear = ( year % 4 == 0 && year % 100 != 0 ) || year % 400 == 0;
+			return leapYear ? 29 : 28;
+		}
+		return month == 4 || month == 6 || month == 9 || month == 11 ? 30 : 31;
+	}
+
+	/**
+	 * Converts local time of given time zone to UTC. Offset is checked again at the converted time, so that the days on
+	 * which daylight saving starts or ends are also handled.
+	 */
+	private static long toUTC( long localMillis, TimeZone timeZone )
+	{
+		long utcMillis = localMillis - timeZone.getOffset( localMillis - timeZone.getRawOffset() );
+		int offset = timeZone.getOffset( utcMillis );
+		return localMillis - offset;
+	}
+
+	/**
+	 * Number of days from 1970-01-01 to given date of proleptic Gregorian calendar
+	 */
+	private static long daysFromCivil( int year, int month, int day )
+	{
+		long y = month <= 2 ? year - 1 : year;
+		long era = ( y >= 0 ? y : y - 399 ) / 400;
+		long yearOfEra = y - era * 400;
+		long dayOfYear = ( 153 * ( month > 2 ? month - 3 : month + 9 ) + 2 ) / 5 + day - 1;
+		long dayOfEra = yearOfEra * 365 + yearOfEra / 4 - yearOfEra / 100 + dayOfYear;
+		return era * 146097 + dayOfEra - 719468;
+	}
+
+	/**
+	 * It formats the date as yyyy-MM-dd in UTC. It is the format used by JiBX for date values, and is used while
+	 * serializing the BDOs.
+	 *
+	 * @param date Date to format
+	 * @return Formatted date
+	 */
+	public static String formatUTCDate( Date date )
+	{
+		return formatDate( date, UTC );
+	}
+
+	/**
+	 * It formats the date as yyyy-MM-dd in default time zone. It is used for the date only fields like start date and
+	 * due date of issue, which are kept as midnight of default time zone.
+	 *
+	 * @param date Date to format
+	 * @return Formatted date
+	 */
+	public static String formatLocalDate( Date date )
+	{
+		return formatDate( date, TimeZone.getDefault() );
+	}
+
+	/**
+	 * It formats the date and time as yyyy-MM-ddTHH:mm:ssZ in UTC. Milliseconds are dropped. It is the format accepted
+	 * by Redmine in date time filters.
+	 *
+	 * @param date Date to format
+	 * @return Formatted date and time
+	 */
+	public static String formatUTCDateTime( Date date )
+	{
+		Utilities.assertNotNullArgument( date, "date" );
+
+		StringBuilder formatted = new StringBuilder( 20 );
+		long millis = date.getTime();
+		appendDate( formatted, millis );
+
+		long millisOfDay = millis % MILLIS_PER_DAY;
+		if( millisOfDay < 0 )
+		{
+			millisOfDay += MILLIS_PER_DAY;
+		}
+		formatted.append( 'T' );
+		appendPadded( formatted, millisOfDay / MILLIS_PER_HOUR, 2 );
+		formatted.append( ':' );
+		appendPadded( formatted, millisOfDay % MILLIS_PER_HOUR / MILLIS_PER_MINUTE, 2 );
+		formatted.append( ':' );
+		appendPadded( formatted, millisOfDay % MILLIS_PER_MINUTE / MILLIS_PER_SECOND, 2 );
+		formatted.append( 'Z' );
+		return formatted.toString();
+	}
+
+	private static String formatDate( Date date, TimeZone timeZone )
+	{
+		Utilities.assertNotNullArgument( date, "date" );
+
+		long millis = date.getTime();
+		StringBuilder formatted = new StringBuilder( 11 );
+		appendDate( formatted, millis + timeZone.getOffset( millis ) );
+		return formatted.toString();
+	}
+
+	/**
+	 * Appends yyyy-MM-dd for given time, with time zone offset already added to it
+	 */
+	private static void appendDate( StringBuilder formatted, long localMillis )
+	{
+		long days = localMillis / MILLIS_PER_DAY;
+		if( localMillis % MILLIS_PER_DAY < 0 )
+		{
+			days--;
+		}
+
+		// civil date from number of days since 1970-01-01
+		long z = days + 719468;
+		long era = ( z >= 0 ? z : z - 146096 ) / 146097;
+		long dayOfEra = z - era * 146097;
+		long yearOfEra = ( dayOfEra - dayOfEra / 1460 + dayOfEra / 36524 - dayOfEra / 146096 ) / 365;
+		long dayOfYear = dayOfEra - ( 365 * yearOfEra + yearOfEra / 4 - yearOfEra / 100 );
+		long monthIndex = ( 5 * dayOfYear + 2 ) / 153;
+		int day = (int) ( dayOfYear - ( 153 * monthIndex + 2 ) / 5 + 1 );
+		int month = (int) ( monthIndex < 10 ? monthIndex + 3 : monthIndex - 9 );
+		long year = yearOfEra + era * 400 + ( month <= 2 ? 1 : 0 );
+
+		if( year < 0 )
+		{
+			formatted.append( '-' );
+			year = -year;
+		}
+		appendPadded( formatted, year, 4 );
+		formatted.append( '-' );
+		appendPadded( formatted, month, 2 );
+		formatted.append( '-' );
+		appendPadded( formatted, day, 2 );
+	}
+
+	private static void appendPadded( StringBuilder builder, long value, int width )
+	{
+		for( long limit = 10; width > 1; width--, limit *= 10 )
+		{
+			if( value < limit )
+			{
+				builder.append( '0' );
+			}
+		}
+		builder.append( value );
+	}
+
+}
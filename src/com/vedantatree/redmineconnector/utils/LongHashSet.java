@@ -0,0 +1,213 @@
+package com.vedantatree.redmineconnector.utils;
+
+import java.util.Arrays;
+
+
+/**
+ * A set of primitive long values. It keeps the values in a single long array with open addressing, so a set of a
+ * million ids takes around 16 MB instead of the 60 MB or more taken by a HashSet of Long objects. It is used to
+ * collect the ids of Redmine objects while scanning a large number of records.
+ *
+ * <p>
+ * It is not thread safe.
+ *
+ * @author Mohit Gupta [mohit.gupta@vedantatree.com]
+ * @since 1.2.0
+ */
+public class LongHashSet
+{
+
+	/**
+	 * Marks a free slot in table. Zero is kept outside the table, using 'containsZero'.
+	 */
+	private static final long	FREE		= 0;
+
+	private static final float	LOAD_FACTOR	= 0.5f;
+
+	private long[]				table;
+
+	/**
+	 * Number of values in table, excluding zero
+	 */
+	private int					tableSize;
+
+	private boolean				containsZero;
+
+	/**
+	 * Table is grown when table size reaches this number
+	 */
+	private int					resizeThreshold;
+
+	public LongHashSet()
+	{
+		this( 16 );
+	}
+
+	/**
+	 * @param expectedSize Number of values which are expected to be added to set
+	 */
+	public LongHashSet( int expectedSize )
+	{
+		if( expectedSize < 0 )
+		{
+			throw new IllegalArgumentException( "Expected size can not be negative. expectedSize[" + expectedSize + "]" );
+		}
+		int capacity = 16;
+		while( capacity * LOAD_FACTOR < expectedSize )
+		{
+			capacity <<= 1;
+		}
+		allocate( capacity );
+	}
+
+	/**
+	 * @return true if value was added, false if it was already in set
+	 */
+	public boolean add( long value )
+	{
+		if( value == FREE )
+		{
+			boolean added = !containsZero;
+			containsZero = true;
+			return added;
+		}
+
+		int mask = table.length - 1;
+		int index = hash( value ) & mask;
+		while( table[index] != FREE )
+		{
+			if( table[index] == value )
+			{
+				return false;
+			}
+			index = ( index + 1 ) & mask;
+		}
+		table[index] = value;
+		if( ++tableSize >= resizeThreshold )
+		{
+			rehash( table.length << 1 );
+		}
+		return true;
+	}
+
+	public boolean contains( long value )
+	{
+		if( value == FREE )
+		{
+			return containsZero;
+		}
+
+		int mask = table.length - 1;
+		int index = hash( value ) & mask;
+		while( table[index] != FREE )
+		{
+			if( table[index] == value )
+			{
+				return true;
+			}
+			index = ( index + 1 ) & mask;
+		}
+		return false;
+	}
+
+	public int size()
+	{
+		return tableSize + ( containsZero ? 1 : 0 );
+	}
+
+	public boolean isEmpty()
+	{
+		return size() == 0;
+	}
+
+	public void clear()
+	{
+		Arrays.fill( table, FREE );
+		tableSize = 0;
+		containsZero = false;
+	}
+
+	/**
+	 * @return Values of set in ascending order
+	 */
+	public long[] toArray()
+	{
+		long[] values = new long[size()];
+		int count = 0;
+		if( containsZero )
+		{
+			values[count++] = 0;
+		}
+		for( int i = 0; i < table.length; i++ )
+		{
+			if( table[i] != FREE )
+			{
+				values[count++] = table[i];
+			}
+		}
+		Arrays.sort( values );
+		return values;
+	}
+
+	/**
+	 * @param other Set to compare with
+	 * @return Values of this set which are not in other set, in ascending order
+	 */
+	public long[] difference( LongHashSet other )
+	{
+		Utilities.assertNotNullArgument( other, "other" );
+
+		long[] values = toArray();
+		int count = 0;
+		for( int i = 0; i < values.length; i++ )
+		{
+			if( !other.contains( values[i] ) )
+			{
+				values[count++] = values[i];
+			}
+		}
+		return count == values.length ? values : Arrays.copyOf( values, count );
+	}
+
+	private void allocate( int capacity )
+	{
+		table = new long[capacity];
+		resizeThreshold = (int) ( capacity * LOAD_FACTOR );
+	}
+
+	private void rehash( int newCapacity )
+	{
+		long[] oldTable = table;
+		allocate( newCapacity );
+
+		int mask = table.length - 1;
+		for( int i = 0; i < oldTable.length; i++ )
+		{
+			long value = oldTable[i];
+			if( value != FREE )
+			{
+				int index = hash( value ) & mask;
+				while( table[index] != FREE )
+				{
+					index = ( index + 1 ) & mask;
+				}
+				table[index] = value;
+			}
+		}
+	}
+
+	/**
+	 * Spreads the bits of value, as ids are sequential and would otherwise fill adjacent slots
+	 */
+	private static int hash( long value )
+	{
+		long h = value * 0x9E3779B97F4A7C15L;
+		return (int) ( h ^ ( h >>> 32 ) );
+	}
+
+	public String toString()
+	{
+		return "LongHashSet@" + hashCode() + ": size[" + size() + "] capacity[" + table.length + "]";
+	}
+
+}
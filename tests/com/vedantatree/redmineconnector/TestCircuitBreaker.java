@@ -0,0 +1,127 @@
+package com.vedantatree.redmineconnector;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import org.junit.Test;
+
+
+/**
+ * Test case for the state machine of CircuitBreaker. It is in package of breaker, as permissions are acquired and
+ * results are recorded with package private methods. Open duration is set to zero to move an open breaker to half open
+ * state at once. It does not need Redmine Server.
+ *
+ * @author Mohit Gupta [mohit.gupta@vedantatree.com]
+ * @since 1.2.0
+ */
+public class TestCircuitBreaker
+{
+
+	private static String	URL		= "http://localhost:3000/issues/12.xml?key=0123456789abcdef";
+
+	private static long		MINUTE	= 60 * 1000;
+
+	@Test
+	public void testOpenAndClose() throws RCException
+	{
+		CircuitBreaker breaker = new CircuitBreaker( 3, MINUTE, 1 );
+		assertEquals( CircuitBreaker.NO_TRIAL, breaker.acquirePermission( URL ) );
+
+		// success resets the failures in a row
+		breaker.recordResult( CircuitBreaker.NO_TRIAL, true );
+		breaker.recordResult( CircuitBreaker.NO_TRIAL, true );
+		breaker.recordResult( CircuitBreaker.NO_TRIAL, false );
+		breaker.recordResult( CircuitBreaker.NO_TRIAL, true );
+		breaker.recordResult( CircuitBreaker.NO_TRIAL, true );
+		assertEquals( CircuitBreaker.CLOSED, breaker.getState() );
+
+		breaker.recordResult( CircuitBreaker.NO_TRIAL, true );
+		assertEquals( CircuitBreaker.OPEN, breaker.getState() );
+		assertRejected( breaker );
+		assertEquals( 1L, breaker.getRejectedCount() );
+
+		// open duration is over, one trial request is let through
+		breaker.setOpenDuration( 0 );
+		long trial = breaker.acquirePermission( URL );
+		assertTrue( trial != CircuitBreaker.NO_TRIAL );
+		assertEquals( CircuitBreaker.HALF_OPEN, breaker.getState() );
+		assertRejected( breaker );
+
+		breaker.recordResult( trial, false );
+		assertEquals( CircuitBreaker.CLOSED, breaker.getState() );
+		assertEquals( CircuitBreaker.NO_TRIAL, breaker.acquirePermission( URL ) );
+		assertEquals( 1L, breaker.getOpenedCount() );
+		assertEquals( 1L, breaker.getHalfOpenedCount() );
+		assertEquals( 1L, breaker.getClosedCount() );
+		assertEquals( 5L, breaker.getFailureCount() );
+	}
+
+	@Test
+	public void testFailedTrialOpensAgain() throws RCException
+	{
+		CircuitBreaker breaker = new CircuitBreaker( 1, MINUTE, 1 );
+		breaker.recordResult( CircuitBreaker.NO_TRIAL, true );
+		assertEquals( CircuitBreaker.OPEN, breaker.getState() );
+
+		breaker.setOpenDuration( 0 );
+		long trial = breaker.acquirePermission( URL );
+		breaker.setOpenDuration( MINUTE );
+		breaker.recordResult( trial, true );
+		assertEquals( CircuitBreaker.OPEN, breaker.getState() );
+		assertRejected( breaker );
+		assertEquals( 2L, breaker.getOpenedCount() );
+
+		// trial which could not be sent frees its slot
+		breaker.setOpenDuration( 0 );
+		trial = breaker.acquirePermission( URL );
+		breaker.releasePermission( trial );
+		trial = breaker.acquirePermission( URL );
+		breaker.recordResult( trial, false );
+		assertEquals( CircuitBreaker.CLOSED, breaker.getState() );
+	}
+
+	@Test
+	public void testTrialOfEarlierHalfOpenPeriodIsIgnored() throws RCException
+	{
+		CircuitBreaker breaker = new CircuitBreaker( 1, 0, 2 );
+		breaker.recordResult( CircuitBreaker.NO_TRIAL, true );
+
+		long firstTrial = breaker.acquirePermission( URL );
+		long staleTrial = breaker.acquirePermission( URL );
+		breaker.recordResult( firstTrial, true );
+		assertEquals( CircuitBreaker.OPEN, breaker.getState() );
+
+		// breaker is half open again, while a trial of earlier period is still in flight
+		long secondTrial = breaker.acquirePermission( URL );
+		assertEquals( CircuitBreaker.HALF_OPEN, breaker.getState() );
+		assertTrue( secondTrial != staleTrial );
+
+		// success of stale trial neither frees a slot nor counts towards closing
+		breaker.recordResult( staleTrial, false );
+		breaker.releasePermission( staleTrial );
+		long thirdTrial = breaker.acquirePermission( URL );
+		assertRejected( breaker );
+
+		breaker.recordResult( secondTrial, false );
+		assertEquals( CircuitBreaker.HALF_OPEN, breaker.getState() );
+		breaker.recordResult( thirdTrial, false );
+		assertEquals( CircuitBreaker.CLOSED, breaker.getState() );
+	}
+
+	private static void assertRejected( CircuitBreaker breaker )
+	{
+		try
+		{
+			breaker.acquirePermission( URL );
+			fail( "Request should be rejected by breaker. breaker[" + breaker + "]" );
+		}
+		catch( RCException rce )
+		{
+			assertEquals( RCException.CIRCUIT_OPEN, rce.getErrorCode() );
+			assertNotNull( rce.getRetryAfter() );
+		}
+	}
+
+}
@@ -0,0 +1,139 @@
+package com.vedantatree.redmineconnector;
+
+import static org.junit.Assert.assertEquals;
+
+import org.junit.Test;
+import org.restlet.Request;
+import org.restlet.data.Method;
+
+
+/**
+ * Test case for the AIMD arithmetic of ConcurrencyLimiter. It is in package of limiter, as requests are acquired and
+ * released with package private methods, and time is passed explicitly. It does not need Redmine Server.
+ *
+ * @author Mohit Gupta [mohit.gupta@vedantatree.com]
+ * @since 1.2.0
+ */
+public class TestConcurrencyLimiter
+{
+
+	private static long		MILLIS			= 1000000L;
+
+	private static String	ISSUE_BY_ID		= "GET /issues/#.xml";
+	private static String	ISSUES_PAGE		= "GET /issues.xml limit=100";
+
+	private static void release( ConcurrencyLimiter limiter, String requestKind, long latency, boolean overloaded,
+			long now ) throws InterruptedException
+	{
+		limiter.acquire();
+		limiter.release( requestKind, latency, overloaded, now );
+	}
+
+	@Test
+	public void testAdditiveIncrease() throws InterruptedException
+	{
+		ConcurrencyLimiter limiter = new ConcurrencyLimiter( 4, 1, 6 );
+
+		// 4 -> 4.25 -> 4.48 -> 4.71 -> 4.92, and 5.12 after fifth success
+		for( int i = 0; i < 4; i++ )
+		{
+			release( limiter, ISSUE_BY_ID, 5 * MILLIS, false, i * MILLIS );
+		}
+		assertEquals( 4, limiter.getLimit() );
+		release( limiter, ISSUE_BY_ID, 5 * MILLIS, false, 5 * MILLIS );
+		assertEquals( 5, limiter.getLimit() );
+
+		for( int i = 0; i < 100; i++ )
+		{
+			release( limiter, ISSUE_BY_ID, 5 * MILLIS, false, ( 10 + i ) * MILLIS );
+		}
+		assertEquals( 6, limiter.getLimit() );
+		assertEquals( 0, limiter.getInFlightCount() );
+		assertEquals( 105L, limiter.getRequestCount() );
+	}
+
+	@Test
+	public void testMultiplicativeDecrease() throws InterruptedException
+	{
+		ConcurrencyLimiter limiter = new ConcurrencyLimiter( 10, 2, 10 );
+		release( limiter, ISSUE_BY_ID, 50 * MILLIS, false, 0 );
+		assertEquals( 10, limiter.getLimit() );
+
+		// first decrease at time zero, as nanoTime can have any origin
+		release( limiter, ISSUE_BY_ID, 1 * MILLIS, true, 0 );
+		assertEquals( 7, limiter.getLimit() );
+
+		// failures of requests in flight together, within the longest recent response time, are one signal
+		release( limiter, ISSUE_BY_ID, 1 * MILLIS, true, 10 * MILLIS );
+		release( limiter, ISSUE_BY_ID, 1 * MILLIS, true, 40 * MILLIS );
+		assertEquals( 7, limiter.getLimit() );
+
+		// 7 * 0.7 = 4.9
+		release( limiter, ISSUE_BY_ID, 1 * MILLIS, true, 60 * MILLIS );
+		assertEquals( 4, limiter.getLimit() );
+
+		// not below min limit
+		for( int i = 1; i <= 5; i++ )
+		{
+			release( limiter, ISSUE_BY_ID, 1 * MILLIS, true, ( 60 + i * 100 ) * MILLIS );
+		}
+		assertEquals( 2, limiter.getLimit() );
+		assertEquals( 9L, limiter.getOverloadCount() );
+	}
+
+	@Test
+	public void testLatencyBackoffIsOptIn() throws InterruptedException
+	{
+		ConcurrencyLimiter limiter = new ConcurrencyLimiter( 5, 1, 5 );
+
+		// pages are much slower than single issues, and get slower still, but latency is not watched by default
+		for( int i = 0; i < 20; i++ )
+		{
+			release( limiter, ISSUE_BY_ID, 2 * MILLIS, false, i * 1000 * MILLIS );
+			release( limiter, ISSUES_PAGE, ( 200 + i * 100 ) * MILLIS, false, i * 1000 * MILLIS );
+		}
+		assertEquals( 5, limiter.getLimit() );
+		assertEquals( 0L, limiter.getOverloadCount() );
+	}
+
+	@Test
+	public void testLatencyIsComparedPerRequestKind() throws InterruptedException
+	{
+		ConcurrencyLimiter limiter = new ConcurrencyLimiter( 5, 1, 5 );
+		limiter.enableLatencyBackoff( ConcurrencyLimiter.DEFAULT_LATENCY_TOLERANCE );
+
+		// mixed traffic with steady response time of every kind is not overload
+		for( int i = 0; i < 20; i++ )
+		{
+			release( limiter, ISSUE_BY_ID, 2 * MILLIS, false, i * 1000 * MILLIS );
+			release( limiter, ISSUES_PAGE, 300 * MILLIS, false, i * 1000 * MILLIS );
+		}
+		assertEquals( 5, limiter.getLimit() );
+		assertEquals( 0L, limiter.getOverloadCount() );
+
+		// single issues becoming ten times slower is overload, even though these are still faster than pages
+		long now = 20 * 1000 * MILLIS;
+		for( int i = 0; i < 10; i++ )
+		{
+			now += 1000 * MILLIS;
+			release( limiter, ISSUE_BY_ID, 20 * MILLIS, false, now );
+		}
+		assertEquals( 1, limiter.getLimit() );
+
+		limiter.disableLatencyBackoff();
+		release( limiter, ISSUE_BY_ID, 20 * MILLIS, false, now + 1000 * MILLIS );
+		assertEquals( 2, limiter.getLimit() );
+	}
+
+	@Test
+	public void testRequestKind()
+	{
+		assertEquals( "GET /issues/#.xml", RestletClient.getRequestKind( new Request( Method.GET,
+				"http://localhost/issues/1234.xml?key=abc&include=journals" ) ) );
+		assertEquals( "GET /issues.xml limit=100", RestletClient.getRequestKind( new Request( Method.GET,
+				"http://localhost/issues.xml?key=abc&offset=200&limit=100" ) ) );
+		assertEquals( "PUT /projects/#/issues.xml", RestletClient.getRequestKind( new Request( Method.PUT,
+				"http://localhost/projects/12/issues.xml?key=abc" ) ) );
+	}
+
+}
@@ -0,0 +1,69 @@
+package com.vedantatree.redmineconnector;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+import java.util.Arrays;
+
+import org.junit.Test;
+
+import com.vedantatree.redmineconnector.bdo.Issue;
+import com.vedantatree.redmineconnector.bdo.Project;
+
+
+/**
+ * Test case for the lookup and invalidation of EntityCache. It is in package of cache, as objects are put and looked up
+ * with package private methods. It does not need Redmine Server.
+ *
+ * @author Mohit Gupta [mohit.gupta@vedantatree.com]
+ * @since 1.2.0
+ */
+public class TestEntityCache
+{
+
+	private static long	MINUTE	= 60 * 1000;
+
+	@Test
+	public void testKeyedByTypeIdAndIncludes()
+	{
+		EntityCache entityCache = new EntityCache( 10, MINUTE );
+		Object issue = new Object();
+		Object issueWithJournals = new Object();
+		entityCache.put( Issue.class, new Long( 12 ), null, issue, entityCache.getGeneration( Issue.class, new Long(
+				12 ) ) );
+		entityCache.put( Issue.class, new Long( 12 ), Arrays.asList( "relations", "journals" ), issueWithJournals,
+				entityCache.getGeneration( Issue.class, new Long( 12 ) ) );
+
+		assertSame( issue, entityCache.get( Issue.class, new Long( 12 ), null ) );
+		assertSame( issueWithJournals, entityCache.get( Issue.class, new Long( 12 ), Arrays.asList( "journals",
+				"relations" ) ) );
+		assertNull( entityCache.get( Project.class, new Long( 12 ), null ) );
+		assertEquals( 2L, entityCache.getHitCount() );
+		assertEquals( 1L, entityCache.getMissCount() );
+
+		entityCache.invalidate( Issue.class, new Long( 12 ) );
+		assertNull( entityCache.get( Issue.class, new Long( 12 ), null ) );
+		assertNull( entityCache.get( Issue.class, new Long( 12 ), Arrays.asList( "journals", "relations" ) ) );
+	}
+
+	@Test
+	public void testObjectFetchedBeforeInvalidationIsNotCached()
+	{
+		EntityCache entityCache = new EntityCache( 10, MINUTE );
+
+		// object is fetched while it is being updated, and fetch completes after the invalidation
+		long generation = entityCache.getGeneration( Issue.class, new Long( 12 ) );
+		entityCache.invalidate( Issue.class, new Long( 12 ) );
+		assertFalse( entityCache.put( Issue.class, new Long( 12 ), null, new Object(), generation ) );
+		assertNull( entityCache.get( Issue.class, new Long( 12 ), null ) );
+
+		// fetch started after the invalidation is cached
+		generation = entityCache.getGeneration( Issue.class, new Long( 12 ) );
+		assertTrue( entityCache.put( Issue.class, new Long( 12 ), null, new Object(), generation ) );
+		assertEquals( 1, entityCache.size() );
+	}
+
+}
@@ -0,0 +1,85 @@
+package com.vedantatree.redmineconnector;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+
+import java.util.ArrayList;
+import java.util.Date;
+
+import org.junit.Test;
+
+import com.vedantatree.redmineconnector.bdo.Issue;
+import com.vedantatree.redmineconnector.bdo.Project;
+import com.vedantatree.redmineconnector.bdo.Tracker;
+import com.vedantatree.redmineconnector.bdo.User;
+
+
+/**
+ * Test case for the XML of partial update, created from the properties marked as set on object. It matches the result
+ * with hard coded XML here in this test case. It is in package of convertor, as convertor is created with package
+ * private constructor. It does not need Redmine Server.
+ *
+ * @author Mohit Gupta [mohit.gupta@vedantatree.com]
+ * @since 1.2.0
+ */
+public class TestPartialXML
+{
+
+	private JIBXXMLJavaConvertor	convertor	= new JIBXXMLJavaConvertor();
+
+	@Test
+	public void testChangedProperties()
+	{
+		Issue issue = new Issue();
+		issue.setSubject( "a < b & c" );
+		issue.setPercentageDone( new Integer( 40 ) );
+		issue.setDescription( null );
+		assertEquals( "<issue><subject>a &lt; b &amp; c</subject><done_ratio>40</done_ratio><description></description></issue>",
+				convertor.javaToPartialXML( issue ) );
+
+		User user = new User();
+		user.setFirstName( "Mohit" );
+		user.setId( new Long( 3 ) );
+		assertEquals( "<user><firstname>Mohit</firstname></user>", convertor.javaToPartialXML( user ) );
+	}
+
+	@Test
+	public void testWholeObjectIfNoPropertyIsMarked()
+	{
+		Issue issue = new Issue();
+		issue.setSubject( "subject" );
+		issue.clearDirtyFields();
+		assertNull( convertor.javaToPartialXML( issue ) );
+		assertNull( convertor.javaToPartialXML( "issue" ) );
+	}
+
+	@Test
+	public void testWholeObjectIfOnlyNonUpdatablePropertiesAreMarked()
+	{
+		Issue issue = new Issue();
+		issue.setId( new Long( 12 ) );
+		issue.setAuthor( new User() );
+		issue.setCreatedOn( new Date() );
+		issue.setUpdatedOn( new Date() );
+		assertNull( convertor.javaToPartialXML( issue ) );
+
+		// like a nested project or user, for which JIBX has set the id only
+		Project project = new Project();
+		project.setId( new Long( 5 ) );
+		assertNull( convertor.javaToPartialXML( project ) );
+
+		User user = new User();
+		user.setId( new Long( 3 ) );
+		assertNull( convertor.javaToPartialXML( user ) );
+	}
+
+	@Test
+	public void testWholeObjectIfPropertyCanNotBeSentPartially()
+	{
+		Project project = new Project();
+		project.setName( "name" );
+		project.setTrackers( new ArrayList<Tracker>() );
+		assertNull( convertor.javaToPartialXML( project ) );
+	}
+
+}
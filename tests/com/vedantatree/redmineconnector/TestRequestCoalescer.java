@@ -0,0 +1,134 @@
+package com.vedantatree.redmineconnector;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertSame;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CountDownLatch;
+
+import org.junit.Test;
+
+
+/**
+ * Test case for storing the result of coalesced requests. Request is simulated by a callable which waits for the test
+ * to release it, so it does not need Redmine Server.
+ *
+ * @author Mohit Gupta [mohit.gupta@vedantatree.com]
+ * @since 1.2.0
+ */
+public class TestRequestCoalescer
+{
+
+	private static String	URL	= "http://localhost:3000/issues/12.xml?key=0123456789abcdef";
+
+	@Test
+	public void testOnlyRequestingThreadStoresResult() throws Exception
+	{
+		RequestCoalescer coalescer = new RequestCoalescer();
+		List<Object> storedResults = new ArrayList<Object>();
+		CountDownLatch release = new CountDownLatch( 1 );
+
+		RequestThread firstThread = startRequest( coalescer, release, storedResults );
+		RequestThread secondThread = startRequest( coalescer, release, storedResults );
+		waitTillJoined( coalescer );
+		release.countDown();
+		firstThread.join();
+		secondThread.join();
+
+		assertSame( firstThread.result, secondThread.result );
+		assertEquals( 1, storedResults.size() );
+		assertSame( firstThread.result, storedResults.get( 0 ) );
+		assertEquals( 0, coalescer.getInFlightCount() );
+	}
+
+	@Test
+	public void testForgottenResultIsNotStored() throws Exception
+	{
+		RequestCoalescer coalescer = new RequestCoalescer();
+		List<Object> storedResults = new ArrayList<Object>();
+		CountDownLatch release = new CountDownLatch( 1 );
+
+		RequestThread firstThread = startRequest( coalescer, release, storedResults );
+		RequestThread secondThread = startRequest( coalescer, release, storedResults );
+		waitTillJoined( coalescer );
+
+		// like update of the object while it is being fetched
+		coalescer.forget( URL );
+		assertEquals( 0, coalescer.getInFlightCount() );
+		release.countDown();
+		firstThread.join();
+		secondThread.join();
+
+		// callers still get the result, but it is not stored
+		assertSame( firstThread.result, secondThread.result );
+		assertEquals( 0, storedResults.size() );
+	}
+
+	private static RequestThread startRequest( RequestCoalescer coalescer, CountDownLatch release,
+			List<Object> storedResults )
+	{
+		RequestThread thread = new RequestThread( coalescer, release, storedResults );
+		thread.start();
+		return thread;
+	}
+
+	/**
+	 * Waits till one of the two requests has joined the flight of other
+	 */
+	private static void waitTillJoined( RequestCoalescer coalescer ) throws InterruptedException
+	{
+		while( coalescer.getCoalescedCount() < 1 )
+		{
+			Thread.sleep( 10 );
+		}
+	}
+
+	private static class RequestThread extends Thread
+	{
+
+		private RequestCoalescer	coalescer;
+		private CountDownLatch		release;
+		private List<Object>		storedResults;
+		private volatile Object		result;
+
+		RequestThread( RequestCoalescer coalescer, CountDownLatch release, List<Object> storedResults )
+		{
+			this.coalescer = coalescer;
+			this.release = release;
+			this.storedResults = storedResults;
+		}
+
+		public void run()
+		{
+			try
+			{
+				result = coalescer.execute( URL, new Callable<Object>()
+				{
+
+					public Object call() throws Exception
+					{
+						release.await();
+						return new Object();
+					}
+				}, new RequestCoalescer.ResultStore()
+				{
+
+					public void store( Object result )
+					{
+						synchronized( storedResults )
+						{
+							storedResults.add( result );
+						}
+					}
+				} );
+			}
+			catch( RCException e )
+			{
+				throw new RuntimeException( e );
+			}
+		}
+	}
+
+}
@@ -0,0 +1,59 @@
+package com.vedantatree.redmineconnector;
+
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.io.IOException;
+
+import org.junit.Test;
+
+
+/**
+ * Test case for the failures which are retried by RetryPolicy. It is in package of policy, as these are checked with
+ * package private methods. It does not need Redmine Server.
+ *
+ * @author Mohit Gupta [mohit.gupta@vedantatree.com]
+ * @since 1.2.0
+ */
+public class TestRetryPolicy
+{
+
+	private RetryPolicy	retryPolicy	= new RetryPolicy();
+
+	@Test
+	public void testTransientFailuresAreRetried()
+	{
+		assertTrue( retryPolicy.isRetryable( new RCException( 503, "Service Unavailable" ) ) );
+		assertTrue( retryPolicy.isRetryable( new RCException( 502, "Bad Gateway" ) ) );
+		assertTrue( retryPolicy.isRetryable( new RCException( 504, "Gateway Timeout" ) ) );
+		assertTrue( retryPolicy.isRetryable( new RCException( RestletClient.STATUS_TOO_MANY_REQUESTS,
+				"Too Many Requests" ) ) );
+		assertTrue( retryPolicy.isRetryable( new RCException( 1001, "Connection refused" ) ) );
+		assertTrue( retryPolicy.isRetryable( new RCException( RCException.IO_ERROR,
+				"Error while reading the response stream", new IOException( "Connection reset" ) ) ) );
+	}
+
+	@Test
+	public void testOtherFailuresAreNotRetried()
+	{
+		assertFalse( retryPolicy.isRetryable( new RCException( RCException.OBJECT_NOT_FOUND, "Not Found" ) ) );
+		assertFalse( retryPolicy.isRetryable( new RCException( RCException.UNPROCESSABLE_ENTITY,
+				"Unprocessable Entity" ) ) );
+		assertFalse( retryPolicy.isRetryable( new RCException( RCException.CIRCUIT_OPEN, "Circuit breaker is open" ) ) );
+
+		// successful response without contents is not a read failure
+		assertFalse( retryPolicy.isRetryable( new RCException( RCException.IO_ERROR,
+				"No response contents received from Redmine Server" ) ) );
+	}
+
+	@Test
+	public void testPostIsRetriedOnlyIfAllowed()
+	{
+		assertTrue( retryPolicy.isRetryableMethod( "GET" ) );
+		assertTrue( retryPolicy.isRetryableMethod( "PUT" ) );
+		assertFalse( retryPolicy.isRetryableMethod( "POST" ) );
+		retryPolicy.setRetryPost( true );
+		assertTrue( retryPolicy.isRetryableMethod( "POST" ) );
+	}
+
+}
@@ -0,0 +1,93 @@
+package com.vedantatree.redmineconnector.test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+
+import java.text.SimpleDateFormat;
+import java.util.Date;
+import java.util.TimeZone;
+
+import org.junit.Test;
+
+import com.vedantatree.redmineconnector.utils.DateCodec;
+
+
+/**
+ * Test case for DateCodec. It does not need Redmine Server.
+ * 
+ * @author Mohit Gupta [mohit.gupta@vedantatree.com]
+ * @since 1.2.0
+ */
+public class TestDateCodec
+{
+
+	@Test
+	public void testParseSimpleDate() throws Exception
+	{
+		Date expected = new SimpleDateFormat( "yyyy-MM-dd" ).parse( "2011-02-13" );
+		assertEquals( expected, DateCodec.parse( "2011-02-13" ) );
+		assertEquals( expected, DateCodec.parse( " 2011-02-13 " ) );
+	}
+
+	@Test
+	public void testParseISODateTime() throws Exception
+	{
+		SimpleDateFormat utcFormat = new SimpleDateFormat( "yyyy-MM-dd HH:mm:ss.SSS" );
+		utcFormat.setTimeZone( TimeZone.getTimeZone( "UTC" ) );
+
+		assertEquals( utcFormat.parse( "2011-02-13 15:59:24.000" ), DateCodec.parse( "2011-02-13T17:59:24+02:00" ) );
+		assertEquals( utcFormat.parse( "2011-02-13 17:59:24.000" ), DateCodec.parse( "2011-02-13T17:59:24Z" ) );
+		assertEquals( utcFormat.parse( "2011-02-13 20:29:24.120" ), DateCodec.parse( "2011-02-13T17:59:24.12-0230" ) );
+		assertEquals( new SimpleDateFormat( "yyyy-MM-dd HH:mm:ss" ).parse( "2011-02-13 17:59:24" ), DateCodec
+				.parse( "2011-02-13T17:59:24" ) );
+	}
+
+	@Test
+	public void testParseRedmineDate() throws Exception
+	{
+		SimpleDateFormat redmineFormat = new SimpleDateFormat( "EEE MMM dd HH:mm:ss Z yyyy" );
+		assertEquals( redmineFormat.parse( "Sun Feb 13 17:59:24 +0200 2011" ), DateCodec
+				.parse( "Sun Feb 13 17:59:24 +0200 2011" ) );
+		assertEquals( redmineFormat.parse( "Tue Mar 01 01:02:03 -0500 2011" ), DateCodec
+				.parse( "Tue Mar 1 01:02:03 -0500 2011" ) );
+		assertEquals( DateCodec.parse( "2011-02-13T17:59:24Z" ), DateCodec.parse( "Sun Feb 13 17:59:24 UTC 2011" ) );
+	}
+
+	@Test
+	public void testParseInvalidDate()
+	{
+		assertNull( DateCodec.parse( null ) );
+		assertNull( DateCodec.parse( "" ) );
+		assertNull( DateCodec.parse( "2011-02-30" ) );
+		assertNull( DateCodec.parse( "2011-13-01" ) );
+		assertNull( DateCodec.parse( "2011/02/13" ) );
+		assertNull( DateCodec.parse( "2011-02-13T25:00:00Z" ) );
+		assertNull( DateCodec.parse( "2011-02-13T17:59:24+2" ) );
+		assertNull( DateCodec.parse( "Sun Foo 13 17:59:24 +0200 2011" ) );
+		assertNull( DateCodec.parse( "not a date at all" ) );
+	}
+
+	@Test
+	public void testFormatDate() throws Exception
+	{
+		Date date = new SimpleDateFormat( "yyyy-MM-dd" ).parse( "2011-02-03" );
+		assertEquals( "2011-02-03", DateCodec.formatLocalDate( date ) );
+		assertEquals( date, DateCodec.parse( DateCodec.formatLocalDate( date ) ) );
+
+		assertEquals( "1970-01-01", DateCodec.formatUTCDate( new Date( 0 ) ) );
+		assertEquals( "1969-12-31", DateCodec.formatUTCDate( new Date( -1 ) ) );
+		assertEquals( "2000-02-29", DateCodec.formatUTCDate( new Date( 951782400000L ) ) );
+	}
+
+	@Test
+	public void testFormatDateTime()
+	{
+		assertEquals( "1970-01-01T00:00:00Z", DateCodec.formatUTCDateTime( new Date( 999 ) ) );
+		assertEquals( "1969-12-31T23:59:59Z", DateCodec.formatUTCDateTime( new Date( -1000 ) ) );
+
+		Date date = DateCodec.parse( "2011-02-13T17:59:24+02:00" );
+		assertEquals( "2011-02-13T15:59:24Z", DateCodec.formatUTCDateTime( date ) );
+		assertEquals( date, DateCodec.parse( DateCodec.formatUTCDateTime( date ) ) );
+	}
+
+}
@@ -0,0 +1,85 @@
+package com.vedantatree.redmineconnector.test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.util.Arrays;
+
+import org.junit.Test;
+
+import com.vedantatree.redmineconnector.utils.LongHashSet;
+
+
+/**
+ * Test case for LongHashSet. It does not need Redmine Server.
+ *
+ * @author Mohit Gupta [mohit.gupta@vedantatree.com]
+ * @since 1.2.0
+ */
+public class TestLongHashSet
+{
+
+	@Test
+	public void testAddAndContains()
+	{
+		LongHashSet set = new LongHashSet();
+		assertTrue( set.isEmpty() );
+
+		assertTrue( set.add( 5 ) );
+		assertTrue( set.add( 0 ) );
+		assertTrue( set.add( -7 ) );
+		assertTrue( set.add( Long.MAX_VALUE ) );
+		assertFalse( set.add( 5 ) );
+		assertFalse( set.add( 0 ) );
+
+		assertEquals( 4, set.size() );
+		assertTrue( set.contains( 0 ) );
+		assertTrue( set.contains( -7 ) );
+		assertTrue( set.contains( Long.MAX_VALUE ) );
+		assertFalse( set.contains( 6 ) );
+
+		set.clear();
+		assertEquals( 0, set.size() );
+		assertFalse( set.contains( 5 ) );
+		assertFalse( set.contains( 0 ) );
+	}
+
+	@Test
+	public void testGrow()
+	{
+		LongHashSet set = new LongHashSet( 4 );
+		for( long id = 1; id <= 100000; id++ )
+		{
+			assertTrue( set.add( id * 3 ) );
+		}
+		assertEquals( 100000, set.size() );
+		for( long id = 1; id <= 300000; id++ )
+		{
+			assertEquals( id % 3 == 0, set.contains( id ) );
+		}
+	}
+
+	@Test
+	public void testToArrayAndDifference()
+	{
+		LongHashSet localIds = new LongHashSet();
+		LongHashSet serverIds = new LongHashSet();
+		for( long id = 10; id >= 1; id-- )
+		{
+			localIds.add( id );
+			if( id % 4 != 0 )
+			{
+				serverIds.add( id );
+			}
+		}
+		serverIds.add( 11 );
+
+		assertEquals( Arrays.toString( new long[] { 1, 2, 3, 4, 5, 6, 7, 8, 9, 10 } ),
+				Arrays.toString( localIds.toArray() ) );
+		assertEquals( Arrays.toString( new long[] { 4, 8 } ), Arrays.toString( localIds.difference( serverIds ) ) );
+		assertEquals( Arrays.toString( new long[] { 11 } ), Arrays.toString( serverIds.difference( localIds ) ) );
+		assertEquals( Arrays.toString( new long[0] ), Arrays.toString( localIds.difference( localIds ) ) );
+	}
+
+}
@@ -1,15 +1,104 @@
 package com.vedantatree.redmineconnector.test;
 
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.fail;
+
+import java.net.URLEncoder;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.junit.Test;
+
+import com.vedantatree.redmineconnector.RCRuntimeException;
+import com.vedantatree.redmineconnector.URLBuilder;
+import com.vedantatree.redmineconnector.bdo.Issue;
+import com.vedantatree.redmineconnector.bdo.Project;
+import com.vedantatree.redmineconnector.bdo.User;
+
+
 /**
- * TODO This test case should cover the testing scenario for URLBuilder
- * 
- * Read the Server address and Security Key from Configuration file. Run various scenarios for different object types,
- * and operations with different parameters. Make sure that result should match with hard coded result here in this test
- * case.
+ * This test case covers the testing scenario for URLBuilder. It runs various scenarios for different object types, and
+ * operations with different parameters, and matches the result with hard coded result here in this test case. It does
+ * not need Redmine Server.
  * 
  * @since 1.1.0
  */
 public class TestURLBuilder
 {
 
+	private static String	SERVER_ADDRESS	= "http://localhost:3000";
+	private static String	SECURITY_KEY	= "0123456789abcdef";
+
+	private URLBuilder		urlBuilder		= new URLBuilder( SERVER_ADDRESS, SECURITY_KEY );
+
+	@Test
+	public void testCreateAndUpdateURL()
+	{
+		assertEquals( "http://localhost:3000/projects.xml?key=0123456789abcdef",
+				urlBuilder.buildURLToCreateObject( Project.class ) );
+		assertEquals( "http://localhost:3000/users.xml?key=0123456789abcdef",
+				urlBuilder.buildURLToCreateObject( User.class ) );
+		assertEquals( "http://localhost:3000/issues/12.xml?key=0123456789abcdef",
+				urlBuilder.buildURLToUpdateObject( Issue.class, new Long( 12 ) ) );
+	}
+
+	@Test
+	public void testGetObjectByIdURL()
+	{
+		assertEquals( "http://localhost:3000/issues/12.xml?key=0123456789abcdef",
+				urlBuilder.buildURLToGetObjectById( Issue.class, new Long( 12 ), null ) );
+
+		List<String> includes = new ArrayList<String>();
+		includes.add( "journals" );
+		includes.add( " relations " );
+		assertEquals( "http://localhost:3000/issues/12.xml?key=0123456789abcdef&include=journals,relations",
+				urlBuilder.buildURLToGetObjectById( Issue.class, new Long( 12 ), includes ) );
+	}
+
+	@Test
+	public void testGetObjectsListURL() throws Exception
+	{
+		Map<String, String> filters = new LinkedHashMap<String, String>();
+		filters.put( "project_id", "3" );
+		filters.put( "status_id", "*" );
+		filters.put( "updated_on", ">=2011-02-13T17:59:24Z" );
+		filters.put( "subject", "a&b c" );
+
+		List<String> includes = new ArrayList<String>();
+		includes.add( "attachments" );
+
+		assertEquals( "http://localhost:3000/issues.xml?key=0123456789abcdef&project_id=3&status_id=*"
+				+ "&updated_on=%3E%3D2011-02-13T17%3A59%3A24Z&subject=a%26b+c&include=attachments",
+				urlBuilder.buildURLToGetObjectsList( Issue.class, includes, filters ) );
+		assertEquals( "http://localhost:3000/projects.xml?key=0123456789abcdef",
+				urlBuilder.buildURLToGetObjectsList( Project.class, null, null ) );
+	}
+
+	@Test
+	public void testEncodingMatchesURLEncoder() throws Exception
+	{
+		String value = "Gr\u00f6\u00dfe ~ 100% \u20ac \ud83d\ude00 /?#[]";
+		Map<String, String> filters = new LinkedHashMap<String, String>();
+		filters.put( "subject", value );
+
+		assertEquals( "http://localhost:3000/issues.xml?key=0123456789abcdef&subject="
+				+ URLEncoder.encode( value, "UTF-8" ), urlBuilder.buildURLToGetObjectsList( Issue.class, null, filters ) );
+	}
+
+	@Test
+	public void testUnmappedType()
+	{
+		try
+		{
+			urlBuilder.buildURLToCreateObject( String.class );
+			fail( "URL should not be built for unmapped type" );
+		}
+		catch( RCRuntimeException e )
+		{
+			assertEquals( RCRuntimeException.ILLEGAL_STATE, e.getErrorCode() );
+		}
+	}
+
 }
@@ -0,0 +1,227 @@
+package com.vedantatree.redmineconnector.test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Future;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.After;
+import org.junit.Test;
+
+import com.vedantatree.redmineconnector.RCException;
+import com.vedantatree.redmineconnector.RedmineConnector;
+import com.vedantatree.redmineconnector.WriteCoalescingQueue;
+import com.vedantatree.redmineconnector.bdo.Issue;
+
+
+/**
+ * This test case covers the merging of updates by WriteCoalescingQueue, and the order of writes for same object. Updates
+ * are sent to a connector which records these instead of sending to server, so it does not need Redmine Server. Window
+ * is kept long and updates are sent by explicit flush, with an executor supplied by test.
+ *
+ * @since 1.2.0
+ */
+public class TestWriteCoalescingQueue
+{
+
+	private static long					WINDOW				= 60 * 60 * 1000;
+
+	private ScheduledExecutorService	executorService		= new ScheduledThreadPoolExecutor( 4 );
+	private RecordingConnector			redmineConnector	= new RecordingConnector();
+	private WriteCoalescingQueue		writeQueue			= new WriteCoalescingQueue( redmineConnector, WINDOW,
+																	executorService );
+
+	@After
+	public void tearDown()
+	{
+		executorService.shutdownNow();
+	}
+
+	@Test
+	public void testMergeChangedProperties() throws Exception
+	{
+		Issue firstUpdate = newIssue( 12 );
+		firstUpdate.setSubject( "first" );
+		firstUpdate.setDescription( "description" );
+		Issue secondUpdate = newIssue( 12 );
+		secondUpdate.setSubject( "second" );
+		secondUpdate.setPercentageDone( new Integer( 40 ) );
+
+		Future<Void> firstFuture = writeQueue.updateIssue( firstUpdate );
+		Future<Void> secondFuture = writeQueue.updateIssue( secondUpdate );
+		assertSame( firstFuture, secondFuture );
+		assertEquals( 1, writeQueue.getPendingCount() );
+
+		// queue does not keep the dirty marks of submitted objects
+		assertTrue( firstUpdate.getDirtyFields().isEmpty() );
+		assertTrue( secondUpdate.getDirtyFields().isEmpty() );
+
+		waitFor( writeQueue.flush() );
+		assertEquals( 1, redmineConnector.writes.size() );
+		Write write = redmineConnector.writes.get( 0 );
+		assertEquals( new Long( 12 ), write.issue.getId() );
+		assertEquals( "second", write.subject );
+		assertEquals( "description", write.issue.getDescription() );
+		assertEquals( new Integer( 40 ), write.issue.getPercentageDone() );
+		assertTrue( write.dirtyFields.contains( "subject" ) );
+		assertTrue( write.dirtyFields.contains( "percentageDone" ) );
+		assertEquals( 2L, writeQueue.getSubmittedCount() );
+		assertEquals( 1L, writeQueue.getWriteCount() );
+	}
+
+	@Test
+	public void testWholeObjectIsCopied() throws Exception
+	{
+		Issue wholeIssue = newIssue( 12 );
+		wholeIssue.setSubject( "submitted" );
+		wholeIssue.clearDirtyFields();
+		writeQueue.updateIssue( wholeIssue );
+
+		// caller changes its object after submit
+		wholeIssue.setSubject( "changed after submit" );
+		wholeIssue.clearDirtyFields();
+
+		Issue laterUpdate = newIssue( 12 );
+		laterUpdate.setPercentageDone( new Integer( 50 ) );
+		writeQueue.updateIssue( laterUpdate );
+
+		waitFor( writeQueue.flush() );
+		assertEquals( 1, redmineConnector.writes.size() );
+		Write write = redmineConnector.writes.get( 0 );
+		assertNotSame( wholeIssue, write.issue );
+		assertEquals( "submitted", write.subject );
+		assertEquals( new Integer( 50 ), write.issue.getPercentageDone() );
+
+		// sent as whole object
+		assertTrue( write.dirtyFields.isEmpty() );
+	}
+
+	@Test
+	public void testWritesOfSameObjectAreSentInOrder() throws Exception
+	{
+		redmineConnector.blockWrites();
+
+		Issue firstUpdate = newIssue( 12 );
+		firstUpdate.setSubject( "first" );
+		Future<Void> firstFuture = writeQueue.updateIssue( firstUpdate );
+		writeQueue.flush();
+		redmineConnector.writeStarted.await( 10, TimeUnit.SECONDS );
+
+		// first write is being sent, so this one waits for it even if flushed
+		Issue secondUpdate = newIssue( 12 );
+		secondUpdate.setSubject( "second" );
+		Future<Void> secondFuture = writeQueue.updateIssue( secondUpdate );
+		assertNotSame( firstFuture, secondFuture );
+		writeQueue.flush();
+		Thread.sleep( 100 );
+		assertEquals( 1, redmineConnector.getStartedCount() );
+
+		redmineConnector.unblockWrites();
+		firstFuture.get( 10, TimeUnit.SECONDS );
+		secondFuture.get( 10, TimeUnit.SECONDS );
+
+		assertEquals( 2, redmineConnector.writes.size() );
+		assertEquals( "first", redmineConnector.writes.get( 0 ).subject );
+		assertEquals( "second", redmineConnector.writes.get( 1 ).subject );
+		assertEquals( 1, redmineConnector.maxConcurrentWrites );
+	}
+
+	private static Issue newIssue( long id )
+	{
+		Issue issue = new Issue();
+		issue.setId( new Long( id ) );
+		return issue;
+	}
+
+	private static void waitFor( List<Future<Void>> futures ) throws Exception
+	{
+		for( int i = 0; i < futures.size(); i++ )
+		{
+			futures.get( i ).get( 10, TimeUnit.SECONDS );
+		}
+	}
+
+	/**
+	 * Issue sent to connector, with its subject and dirty marks at the time of sending
+	 */
+	private static class Write
+	{
+
+		private Issue			issue;
+		private String			subject;
+		private List<String>	dirtyFields;
+
+		Write( Issue issue )
+		{
+			this.issue = issue;
+			this.subject = issue.getSubject();
+			this.dirtyFields = new ArrayList<String>( issue.getDirtyFields() );
+		}
+	}
+
+	/**
+	 * Connector which records the updates instead of sending these. Writes can be blocked till test unblocks these.
+	 */
+	private static class RecordingConnector extends RedmineConnector
+	{
+
+		private List<Write>		writes			= new ArrayList<Write>();
+		private CountDownLatch	writeStarted	= new CountDownLatch( 1 );
+		private CountDownLatch	unblocked		= new CountDownLatch( 0 );
+		private int				startedCount;
+		private int				concurrentWrites;
+		private int				maxConcurrentWrites;
+
+		RecordingConnector()
+		{
+			super( "http://localhost:3000", "0123456789abcdef" );
+		}
+
+		void blockWrites()
+		{
+			unblocked = new CountDownLatch( 1 );
+		}
+
+		void unblockWrites()
+		{
+			unblocked.countDown();
+		}
+
+		synchronized int getStartedCount()
+		{
+			return startedCount;
+		}
+
+		public void updateIssue( Issue updatedIssue ) throws RCException
+		{
+			synchronized( this )
+			{
+				startedCount++;
+				maxConcurrentWrites = Math.max( maxConcurrentWrites, ++concurrentWrites );
+				writes.add( new Write( updatedIssue ) );
+			}
+			writeStarted.countDown();
+			try
+			{
+				unblocked.await( 10, TimeUnit.SECONDS );
+			}
+			catch( InterruptedException e )
+			{
+				Thread.currentThread().interrupt();
+			}
+			synchronized( this )
+			{
+				concurrentWrites--;
+			}
+		}
+	}
+
+}